@@ -0,0 +1,137 @@
+package org.springframework.jmx.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.Attribute;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Compares altering the levels of many loggers over a remote JMX connection
+ * through one attribute write per {@link LogbackJmxLogger} with a single
+ * {@link JmxLoggerLevels#setLevels(Map)} invocation.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkLevelBenchmark {
+
+    private static final String[] LEVELS = { "WARN", "INFO" };
+
+    @Param({ "100", "500" })
+    int loggers;
+
+    private JMXConnectorServer connectorServer;
+    private JMXConnector connector;
+    private MBeanServerConnection connection;
+
+    private ObjectName[] names;
+    private JmxLoggerLevelsMXBean levels;
+    private int invocations;
+
+
+    @Setup
+    public void setUp() throws Exception {
+
+        LoggerContext context =
+                (LoggerContext) LoggerFactory.getILoggerFactory();
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+        this.names = new ObjectName[loggers];
+
+        for (int i = 0; i < loggers; i++) {
+            String name = "bench.bulk.Logger" + i;
+            names[i] = new ObjectName(new JmxLogger(name, null).getJmxName());
+            server.registerMBean(new LogbackJmxLogger(context.getLogger(name)),
+                    names[i]);
+        }
+
+        ObjectName levelsName =
+                new ObjectName(JmxLogger.OVERALL_NAME
+                        + ":service=Levels,backend=Logback");
+        server.registerMBean(new JmxLoggerLevels(new LogbackLoggerBackend(
+                context)), levelsName);
+
+        this.connectorServer =
+                JMXConnectorServerFactory.newJMXConnectorServer(
+                        new JMXServiceURL("service:jmx:rmi://"), null, server);
+        connectorServer.start();
+
+        this.connector = JMXConnectorFactory.connect(connectorServer.getAddress());
+        this.connection = connector.getMBeanServerConnection();
+        this.levels =
+                JMX.newMXBeanProxy(connection, levelsName,
+                        JmxLoggerLevelsMXBean.class);
+    }
+
+
+    @TearDown
+    public void tearDown() throws Exception {
+
+        connector.close();
+        connectorServer.stop();
+    }
+
+
+    @Benchmark
+    public void perMBean() throws Exception {
+
+        Attribute level = new Attribute("Level", nextLevel());
+
+        for (ObjectName name : names) {
+            connection.setAttribute(name, level);
+        }
+    }
+
+
+    @Benchmark
+    public Map<String, String> bulk() throws Exception {
+
+        String level = nextLevel();
+        Map<String, String> toSet = new HashMap<String, String>(loggers * 2);
+
+        for (int i = 0; i < loggers; i++) {
+            toSet.put("bench.bulk.Logger" + i, level);
+        }
+
+        return levels.setLevels(toSet);
+    }
+
+
+    private String nextLevel() {
+
+        return LEVELS[invocations++ % LEVELS.length];
+    }
+}
@@ -0,0 +1,63 @@
+package org.springframework.jmx.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jmx.config.LoggerSelector.CandidateSource;
+
+
+/**
+ * Benchmarks {@link CandidateSource#getCandidatesUpToLevel(int)} for all
+ * loggers of a {@link SyntheticHierarchy}.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CandidateSourceBenchmark {
+
+    @Param({ "1000", "20000" })
+    int size;
+
+    @Param({ "3", "6" })
+    int depth;
+
+    @Param({ "2" })
+    int levels;
+
+    private List<String> names;
+
+
+    @Setup
+    public void setUp() {
+
+        this.names = new SyntheticHierarchy(size, depth).getNames();
+    }
+
+
+    @Benchmark
+    public void getCandidatesUpToLevel(Blackhole blackhole) {
+
+        for (String name : names) {
+            blackhole.consume(new CandidateSource(
+                    SyntheticHierarchy.BASE_PACKAGE, name, true)
+                    .getCandidatesUpToLevel(levels));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.springframework.jmx.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Benchmarks the overhead the {@link EventCountingTurboFilter} adds to
+ * disabled and enabled log calls. The logger has no appenders attached, so
+ * the enabled calls measure the logging library's dispatch only.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EventCountingBenchmark {
+
+    @Param({ "false", "true" })
+    boolean counting;
+
+    private LoggerContext context;
+    private EventCountingTurboFilter filter;
+    private Logger logger;
+
+
+    @Setup
+    public void setUp() {
+
+        this.context = new LoggerContext();
+        this.logger = context.getLogger("bench.p0.Type0");
+
+        Logger group = context.getLogger("bench.p0");
+        group.setLevel(Level.INFO);
+        group.setAdditive(false);
+
+        if (counting) {
+            this.filter = new EventCountingTurboFilter(context);
+            filter.afterPropertiesSet();
+            filter.register("bench.p0");
+        }
+    }
+
+
+    @TearDown
+    public void tearDown() {
+
+        if (filter != null) {
+            filter.destroy();
+        }
+    }
+
+
+    @Benchmark
+    public void disabled() {
+
+        logger.debug("Disabled {}", this);
+    }
+
+
+    @Benchmark
+    public void enabled() {
+
+        logger.info("Enabled {}", this);
+    }
+
+
+    @Benchmark
+    @Threads(4)
+    public void enabledContended() {
+
+        logger.info("Enabled {}", this);
+    }
+}
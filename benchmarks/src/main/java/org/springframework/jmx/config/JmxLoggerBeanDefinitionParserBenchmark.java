@@ -0,0 +1,86 @@
+package org.springframework.jmx.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+
+/**
+ * Benchmarks a full parse run of a {@code <jmx:logger />} element through
+ * {@link JmxLoggerBeanDefinitionParser} against a {@link SyntheticHierarchy}
+ * created in the configured logging backend. With async enabled discovery is
+ * deferred to the application context's startup, so the benchmark shows the
+ * time taken off the configuration parsing.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JmxLoggerBeanDefinitionParserBenchmark {
+
+    private static final String CONFIGURATION =
+            "<beans xmlns=\"http://www.springframework.org/schema/beans\" "
+                    + "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" "
+                    + "xmlns:jmx=\"http://www.springframework.org/schema/jmx\" "
+                    + "xsi:schemaLocation=\"http://www.springframework.org/schema/beans "
+                    + "http://www.springframework.org/schema/beans/spring-beans-3.0.xsd "
+                    + "http://www.springframework.org/schema/jmx "
+                    + "http://www.springframework.org/schema/jmx/spring-jmx-3.1.xsd\">"
+                    + "<jmx:logger type=\"%s\" name=\"%s\" levels=\"%d\" async=\"%b\" />"
+                    + "</beans>";
+
+    @Param({ "Log4J", "Logback" })
+    String type;
+
+    @Param({ "1000", "20000" })
+    int size;
+
+    @Param({ "3", "6" })
+    int depth;
+
+    @Param({ "2" })
+    int levels;
+
+    @Param({ "false", "true" })
+    boolean async;
+
+    private Resource configuration;
+
+
+    @Setup
+    public void setUp() {
+
+        new SyntheticHierarchy(size, depth).createLoggers(type);
+
+        this.configuration =
+                new ByteArrayResource(String.format(CONFIGURATION, type,
+                        SyntheticHierarchy.BASE_PACKAGE, levels, async).getBytes());
+    }
+
+
+    @Benchmark
+    public DefaultListableBeanFactory parse() {
+
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(factory).loadBeanDefinitions(configuration);
+        return factory;
+    }
+}
@@ -0,0 +1,45 @@
+package org.springframework.jmx.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks building the JMX object name of a {@link JmxLogger}.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JmxLoggerBenchmark {
+
+    private final JmxLogger grouped = new JmxLogger("bench.p1.p2", "bench.p1");
+    private final JmxLogger ungrouped = new JmxLogger("bench", null);
+
+
+    @Benchmark
+    public String getJmxNameWithGroup() {
+
+        return grouped.getJmxName();
+    }
+
+
+    @Benchmark
+    public String getJmxNameWithoutGroup() {
+
+        return ungrouped.getJmxName();
+    }
+}
@@ -0,0 +1,149 @@
+package org.springframework.jmx.config;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Benchmarks the throughput of disabled java.util.logging calls bridged to
+ * Logback with and without the {@link JulLevelPropagator} in place. The JUL
+ * root logger is opened up and forwards all records to a handler resolving
+ * the Logback logger of the same name and checking its level, just like the
+ * SLF4J bridge handler does.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JulLevelPropagatorBenchmark {
+
+    @Param({ "false", "true" })
+    boolean propagate;
+
+    private java.util.logging.Logger root;
+    private java.util.logging.Level rootLevel;
+    private Handler[] rootHandlers;
+    private Handler bridge;
+    private JulLevelPropagator propagator;
+
+    private java.util.logging.Logger logger;
+
+
+    @Setup
+    public void setUp() {
+
+        final LoggerContext context = new LoggerContext();
+        context.getLogger("bench.p0").setLevel(Level.INFO);
+
+        this.root = java.util.logging.Logger.getLogger("");
+        this.rootLevel = root.getLevel();
+        this.rootHandlers = root.getHandlers();
+        this.bridge = new Handler() {
+
+            @Override
+            public void publish(LogRecord record) {
+
+                Logger target = context.getLogger(record.getLoggerName());
+
+                if (target.isEnabledFor(toLevel(record.getLevel()))) {
+                    target.info(record.getMessage());
+                }
+            }
+
+
+            @Override
+            public void flush() {
+
+            }
+
+
+            @Override
+            public void close() {
+
+            }
+        };
+
+        for (Handler handler : rootHandlers) {
+            root.removeHandler(handler);
+        }
+
+        root.addHandler(bridge);
+        root.setLevel(java.util.logging.Level.ALL);
+
+        if (propagate) {
+            propagator =
+                    new JulLevelPropagator(context, Arrays.asList("bench.p0"));
+            propagator.afterPropertiesSet();
+        }
+
+        this.logger = java.util.logging.Logger.getLogger("bench.p0.Type0");
+    }
+
+
+    @TearDown
+    public void tearDown() {
+
+        if (propagator != null) {
+            propagator.destroy();
+        }
+
+        root.removeHandler(bridge);
+
+        for (Handler handler : rootHandlers) {
+            root.addHandler(handler);
+        }
+
+        root.setLevel(rootLevel);
+    }
+
+
+    @Benchmark
+    public void fine() {
+
+        logger.fine("Disabled JUL call");
+    }
+
+
+    private static Level toLevel(java.util.logging.Level level) {
+
+        int value = level.intValue();
+
+        if (value <= java.util.logging.Level.FINEST.intValue()) {
+            return Level.TRACE;
+        }
+
+        if (value <= java.util.logging.Level.FINE.intValue()) {
+            return Level.DEBUG;
+        }
+
+        if (value <= java.util.logging.Level.INFO.intValue()) {
+            return Level.INFO;
+        }
+
+        return value <= java.util.logging.Level.WARNING.intValue() ? Level.WARN
+                : Level.ERROR;
+    }
+}
@@ -0,0 +1,87 @@
+package org.springframework.jmx.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Measures restoring the levels recorded in a {@link LevelJournal} on startup
+ * into a fresh Logback {@link LoggerContext}, including the compaction of the
+ * journal file.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LevelJournalBenchmark {
+
+    private static final String[] LEVELS = { "DEBUG", "WARN", "" };
+
+    @Param({ "1000", "10000" })
+    int levels;
+
+    private File file;
+
+
+    @Setup
+    public void setUp() throws IOException {
+
+        this.file = File.createTempFile("levels", ".journal");
+        file.delete();
+
+        LevelJournal journal =
+                new LevelJournal(new LogbackLoggerBackend(new LoggerContext()),
+                        file.getPath());
+        journal.afterPropertiesSet();
+
+        List<String> names = new SyntheticHierarchy(levels, 6).getNames();
+
+        for (int i = 0; i < names.size(); i++) {
+            journal.record(names.get(i), LEVELS[i % LEVELS.length]);
+        }
+
+        journal.destroy();
+    }
+
+
+    @TearDown
+    public void tearDown() {
+
+        file.delete();
+    }
+
+
+    @Benchmark
+    public LoggerContext restore() throws IOException {
+
+        LoggerContext context = new LoggerContext();
+        LevelJournal journal =
+                new LevelJournal(new LogbackLoggerBackend(context), file
+                        .getPath());
+        journal.afterPropertiesSet();
+        journal.destroy();
+
+        return context;
+    }
+}
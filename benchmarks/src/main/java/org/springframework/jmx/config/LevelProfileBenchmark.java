@@ -0,0 +1,118 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Compares applying and reverting level changes for the topmost package
+ * loggers of a synthetic Logback hierarchy one logger at a time in
+ * alphabetical, i.e. parents first, order with activating and deactivating
+ * them as a level profile through {@link JmxLoggerLevels}.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LevelProfileBenchmark {
+
+    private static final String[] LEVELS = { "DEBUG", "WARN" };
+
+    @Param({ "20000" })
+    int size;
+
+    @Param({ "200" })
+    int changes;
+
+    private LogbackLoggerBackend backend;
+    private JmxLoggerLevels levels;
+    private List<String> loggers;
+
+
+    @Setup
+    public void setUp() {
+
+        LoggerContext context = new LoggerContext();
+        TreeSet<String> packages = new TreeSet<String>();
+
+        for (String name : new SyntheticHierarchy(size, 6).getNames()) {
+
+            context.getLogger(name);
+
+            for (int index = name.indexOf('.'); index != -1; index =
+                    name.indexOf('.', index + 1)) {
+                packages.add(name.substring(0, index));
+            }
+        }
+
+        List<String> candidates = new ArrayList<String>(packages);
+        Collections.sort(candidates, new Comparator<String>() {
+
+            @Override
+            public int compare(String left, String right) {
+
+                return left.split("\\.").length - right.split("\\.").length;
+            }
+        });
+
+        this.loggers =
+                new ArrayList<String>(candidates.subList(0,
+                        Math.min(changes, candidates.size())));
+        Collections.sort(loggers);
+
+        Map<String, String> profile = new HashMap<String, String>();
+
+        for (int i = 0; i < loggers.size(); i++) {
+            profile.put(loggers.get(i), LEVELS[i % LEVELS.length]);
+        }
+
+        this.backend = new LogbackLoggerBackend(context);
+        this.levels = new JmxLoggerLevels(backend);
+        levels.defineProfile("incident", profile);
+    }
+
+
+    @Benchmark
+    public void oneByOne() {
+
+        for (int i = 0; i < loggers.size(); i++) {
+            backend.setLevel(loggers.get(i), LEVELS[i % LEVELS.length]);
+        }
+
+        for (String logger : loggers) {
+            backend.setLevel(logger, "");
+        }
+    }
+
+
+    @Benchmark
+    public void profile() {
+
+        levels.activateProfile("incident");
+        levels.deactivateProfile("incident");
+    }
+}
@@ -0,0 +1,107 @@
+package org.springframework.jmx.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+import org.apache.log4j.jmx.LoggerDynamicMBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+
+/**
+ * Benchmarks the startup of Log4J logger MBeans for a
+ * {@link SyntheticHierarchy}, i.e. registering the bean definitions,
+ * instantiating the beans and registering them with an {@link MBeanServer}.
+ * Compares {@link Log4JJmxLogger} with a single definition per logger against
+ * Log4J's {@link LoggerDynamicMBean} with an inner factory method definition
+ * looking up the logger. Run with {@code -prof gc} to compare the heap
+ * allocated per startup.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Log4JJmxLoggerBenchmark {
+
+    @Param({ "LoggerDynamicMBean", "Log4JJmxLogger" })
+    String mbean;
+
+    @Param({ "20000" })
+    int size;
+
+    @Param({ "6" })
+    int depth;
+
+    private List<String> names;
+
+
+    @Setup
+    public void setUp() {
+
+        SyntheticHierarchy hierarchy = new SyntheticHierarchy(size, depth);
+        hierarchy.createLoggers("Log4J");
+
+        this.names = hierarchy.getNames();
+    }
+
+
+    @Benchmark
+    public MBeanServer startup() throws Exception {
+
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+
+        for (String name : names) {
+            factory.registerBeanDefinition(name, getBeanDefinition(name)
+                    .getBeanDefinition());
+        }
+
+        factory.preInstantiateSingletons();
+
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+
+        for (Map.Entry<String, Object> entry : factory.getBeansOfType(
+                Object.class).entrySet()) {
+            server.registerMBean(entry.getValue(), new ObjectName("bench",
+                    "name", entry.getKey()));
+        }
+
+        return server;
+    }
+
+
+    private BeanDefinitionBuilder getBeanDefinition(String name) {
+
+        if ("Log4JJmxLogger".equals(mbean)) {
+            return BeanDefinitionBuilder.rootBeanDefinition(
+                    Log4JJmxLogger.class).addConstructorArgValue(
+                    Logger.getLogger(name));
+        }
+
+        return BeanDefinitionBuilder.rootBeanDefinition(
+                LoggerDynamicMBean.class).addConstructorArgValue(
+                BeanDefinitionBuilder.rootBeanDefinition(Logger.class)
+                        .setFactoryMethod("getLogger")
+                        .addConstructorArgValue(name).getBeanDefinition());
+    }
+}
@@ -0,0 +1,69 @@
+package org.springframework.jmx.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks {@link LoggerSelector#getLoggersFor(String, JmxLoggers)} for all
+ * loggers of a {@link SyntheticHierarchy}.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoggerSelectorBenchmark {
+
+    @Param({ "1000", "20000" })
+    int size;
+
+    @Param({ "3", "6" })
+    int depth;
+
+    @Param({ "2" })
+    int levels;
+
+    private List<String> names;
+    private LoggerSelector selector;
+
+
+    @Setup
+    public void setUp() {
+
+        this.names = new SyntheticHierarchy(size, depth).getNames();
+        this.selector =
+                new LoggerSelector(SyntheticHierarchy.BASE_PACKAGE, levels,
+                        true);
+    }
+
+
+    @Benchmark
+    public JmxLoggers getLoggersFor() {
+
+        JmxLoggers registered = new JmxLoggers();
+
+        for (String name : names) {
+            for (JmxLogger logger : selector.getLoggersFor(name, registered)) {
+                registered.add(logger);
+            }
+        }
+
+        return registered;
+    }
+}
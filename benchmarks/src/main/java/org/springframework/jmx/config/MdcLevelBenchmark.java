@@ -0,0 +1,80 @@
+package org.springframework.jmx.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Benchmarks the overhead the {@link MdcLevelTurboFilter} adds to disabled
+ * log calls without any MDC levels set, with an MDC level set for another
+ * tenant than the current one and with one enabling the call for the current
+ * tenant. The logger has no appenders attached, so the enabled calls measure
+ * the logging library's dispatch only.
+ * 
+ * @author Oliver Gierke
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MdcLevelBenchmark {
+
+    @Param({ "none", "other", "matching" })
+    String scope;
+
+    private Logger logger;
+
+
+    @Setup
+    public void setUp() {
+
+        LoggerContext context = new LoggerContext();
+        this.logger = context.getLogger("bench.p0.Type0");
+
+        Logger group = context.getLogger("bench.p0");
+        group.setLevel(Level.INFO);
+        group.setAdditive(false);
+
+        MdcLevelTurboFilter.getInstance(context);
+        MDC.put("tenant", "acme");
+
+        if (!"none".equals(scope)) {
+            MdcLevelTurboFilter.getInstalled(context).set("bench.p0",
+                    "tenant", "other".equals(scope) ? "other" : "acme",
+                    Level.DEBUG);
+        }
+    }
+
+
+    @TearDown
+    public void tearDown() {
+
+        MDC.clear();
+    }
+
+
+    @Benchmark
+    public void debug() {
+
+        logger.debug("Debug {}", this);
+    }
+}
@@ -0,0 +1,71 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Synthetic logger hierarchy of a given size and depth below
+ * {@link #BASE_PACKAGE}. Package segments fan out evenly so that the given
+ * number of class level loggers sits at the given depth.
+ * 
+ * @author Oliver Gierke
+ */
+class SyntheticHierarchy {
+
+    public static final String BASE_PACKAGE = "bench";
+
+    private final List<String> names;
+
+
+    public SyntheticHierarchy(int size, int depth) {
+
+        int fanOut =
+                Math.max(2, (int) Math.ceil(Math.pow(size, 1.0 / depth)));
+        this.names = new ArrayList<String>(size);
+
+        for (int i = 0; i < size; i++) {
+
+            StringBuilder builder = new StringBuilder(BASE_PACKAGE);
+            int remainder = i;
+
+            for (int level = 1; level < depth; level++) {
+                builder.append(".p").append(remainder % fanOut);
+                remainder /= fanOut;
+            }
+
+            names.add(builder.append(".Type").append(i).toString());
+        }
+    }
+
+
+    public List<String> getNames() {
+
+        return names;
+    }
+
+
+    /**
+     * Creates the loggers of the hierarchy in the given logging backend.
+     * 
+     * @param type either {@literal Log4J} or {@literal Logback}
+     */
+    public void createLoggers(String type) {
+
+        if ("Log4J".equals(type)) {
+            for (String name : names) {
+                org.apache.log4j.Logger.getLogger(name);
+            }
+        } else {
+            LoggerContext context =
+                    (LoggerContext) LoggerFactory.getILoggerFactory();
+            for (String name : names) {
+                context.getLogger(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.springframework.jmx.config.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+
+/**
+ * Annotation processor writing the names of the loggers declared in the
+ * compiled classes into a logger index file at {@value #INDEX_LOCATION}. A
+ * class is considered to declare a logger named after it if it has a field of
+ * one of the common logger types. Loggers created with custom names are not
+ * detected.
+ * <p>
+ * The index only covers the classes compiled in a single compiler run, so
+ * incremental builds have to recompile all classes declaring loggers.
+ * 
+ * @author Oliver Gierke
+ */
+@SupportedAnnotationTypes("*")
+public class LoggerIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_LOCATION = "META-INF/spring-jmx-loggers";
+
+    static final Set<String> LOGGER_TYPES = new HashSet<String>(Arrays.asList(
+            "org.slf4j.Logger", "org.apache.log4j.Logger",
+            "org.apache.commons.logging.Log", "ch.qos.logback.classic.Logger",
+            "java.util.logging.Logger"));
+
+    private final Set<String> loggers = new TreeSet<String>();
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see javax.annotation.processing.AbstractProcessor#getSupportedSourceVersion()
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+
+        return SourceVersion.latestSupported();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * javax.annotation.processing.AbstractProcessor#process(java.util.Set,
+     * javax.annotation.processing.RoundEnvironment)
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+            RoundEnvironment roundEnv) {
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) {
+                collect((TypeElement) element);
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Returns the names of the loggers found so far.
+     * 
+     * @return
+     */
+    Set<String> getLoggers() {
+
+        return loggers;
+    }
+
+
+    private void collect(TypeElement type) {
+
+        for (Element enclosed : type.getEnclosedElements()) {
+
+            if (enclosed.getKind() == ElementKind.FIELD
+                    && isLogger(enclosed.asType())) {
+                loggers.add(processingEnv.getElementUtils().getBinaryName(type)
+                        .toString());
+            } else if (enclosed instanceof TypeElement) {
+                collect((TypeElement) enclosed);
+            }
+        }
+    }
+
+
+    private static boolean isLogger(TypeMirror type) {
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+
+        TypeElement element =
+                (TypeElement) ((DeclaredType) type).asElement();
+        return LOGGER_TYPES.contains(element.getQualifiedName().toString());
+    }
+
+
+    private void writeIndex() {
+
+        if (loggers.isEmpty()) {
+            return;
+        }
+
+        try {
+            FileObject file =
+                    processingEnv.getFiler().createResource(
+                            StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            Writer writer =
+                    new OutputStreamWriter(file.openOutputStream(), "UTF-8");
+
+            try {
+                writer.write("# Loggers declared in compiled classes\n");
+                for (String logger : loggers) {
+                    writer.write(logger);
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR,
+                    "Could not write logger index: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.springframework.jmx.config.processor;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link LoggerIndexProcessor}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LoggerIndexProcessorUnitTest {
+
+    File output;
+
+
+    @Before
+    public void setUp() throws Exception {
+
+        output = File.createTempFile("logger-index", "");
+        output.delete();
+        output.mkdirs();
+    }
+
+
+    @Test
+    public void writesLoggersDeclaredInClasses() throws Exception {
+
+        compile(source("org.slf4j.Logger", "package org.slf4j; "
+                + "public interface Logger {}"), source("com.acme.Foo",
+                "package com.acme; public class Foo { "
+                        + "static org.slf4j.Logger LOG; "
+                        + "static class Nested { org.slf4j.Logger log; } }"),
+                source("com.acme.bar.Bar",
+                        "package com.acme.bar; public class Bar { String name; }"));
+
+        List<String> lines = readIndex();
+
+        assertThat(lines, hasItems("com.acme.Foo", "com.acme.Foo$Nested"));
+        assertThat(lines, not(hasItem("com.acme.bar.Bar")));
+    }
+
+
+    @Test
+    public void doesNotWriteIndexWithoutLoggers() throws Exception {
+
+        compile(source("com.acme.Foo", "package com.acme; public class Foo {}"));
+
+        assertFalse(new File(output, LoggerIndexProcessor.INDEX_LOCATION)
+                .exists());
+    }
+
+
+    private void compile(JavaFileObject... sources) {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        CompilationTask task =
+                compiler.getTask(null, null, null, Arrays.asList("-d",
+                        output.getAbsolutePath(), "-proc:only"), null, Arrays
+                        .asList(sources));
+        task.setProcessors(Arrays.asList(new LoggerIndexProcessor()));
+
+        assertTrue(task.call());
+    }
+
+
+    private List<String> readIndex() throws Exception {
+
+        List<String> result = new ArrayList<String>();
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(new FileInputStream(
+                        new File(output, LoggerIndexProcessor.INDEX_LOCATION)),
+                        "UTF-8"));
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                result.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return result;
+    }
+
+
+    private static JavaFileObject source(String type, final String code) {
+
+        return new SimpleJavaFileObject(URI.create("string:///"
+                + type.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+
+                return code;
+            }
+        };
+    }
+}
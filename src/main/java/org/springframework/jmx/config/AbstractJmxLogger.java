@@ -0,0 +1,512 @@
+package org.springframework.jmx.config;
+
+import java.util.Arrays;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InvalidAttributeValueException;
+import javax.management.JMException;
+import javax.management.ListenerNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanConstructorInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.Notification;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
+import javax.management.ReflectionException;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Base class for loggers exposed to JMX. Implements {@link DynamicMBean}
+ * directly so that the exporter registers instances with the MBean server
+ * as they are. Subclasses are expected to hand out a single {@link MBeanInfo}
+ * instance shared by all loggers of a given backend (see
+ * {@link #createMBeanInfo(Class, String)}) instead of assembling metadata per
+ * logger. Operations on the events logged are only exposed for backends
+ * supporting them. Loggers emit {@value #BURST} notifications if they
+ * represent a logger group a {@link BurstDetector} watches. The state needed
+ * to do so is only created once a listener is added.
+ * 
+ * @author Oliver Gierke
+ */
+public abstract class AbstractJmxLogger implements DynamicMBean,
+        NotificationEmitter {
+
+    public static final String BURST = "jmx.logger.burst";
+
+    protected static final String NAME = "Name";
+    protected static final String LEVEL = "Level";
+    protected static final String SET_LEVEL_FOR = "setLevelFor";
+    protected static final String TAIL = "tail";
+    protected static final String SET_MDC_LEVEL = "setMdcLevel";
+    protected static final String GET_MDC_LEVELS = "getMdcLevels";
+
+    private static final MBeanNotificationInfo[] NOTIFICATIONS =
+            { new MBeanNotificationInfo(new String[] { BURST },
+                    Notification.class.getName(),
+                    "Burst of ERROR and WARN events in the logger group") };
+
+    private volatile NotificationBroadcasterSupport broadcaster;
+
+
+    /**
+     * Returns the name of the logger.
+     * 
+     * @return
+     */
+    public abstract String getName();
+
+
+    /**
+     * Returns the level configured for the logger or an empty {@link String}
+     * if it inherits its level.
+     * 
+     * @return
+     */
+    public abstract String getLevel();
+
+
+    /**
+     * Sets the level of the logger. Unknown levels are ignored.
+     * 
+     * @param level
+     */
+    public abstract void setLevel(String level);
+
+
+    /**
+     * Returns the {@link LoggerBackend} of the logger.
+     * 
+     * @return
+     */
+    abstract LoggerBackend getBackend();
+
+
+    /**
+     * Sets the level of the logger for the given number of seconds. The
+     * previous level is restored afterwards unless the level was changed in
+     * the meantime.
+     * 
+     * @param level
+     * @param seconds
+     * @return the level to be restored
+     */
+    public String setLevelFor(String level, long seconds) {
+
+        LoggerBackend backend = getBackend();
+        return LevelOverrides.getInstance(backend).override(backend,
+                getName(), level, seconds);
+    }
+
+
+    /**
+     * Sets the level of the logger for events logged while the MDC holds the
+     * given value, e.g. {@literal tenant=acme}. An empty level removes the
+     * level set for the MDC value.
+     * 
+     * @param mdc the MDC key and value separated by {@literal =}
+     * @param level
+     * @return the level previously set for the MDC value or an empty
+     *         {@link String} if none set
+     */
+    public String setMdcLevel(String mdc, String level) {
+
+        Assert.hasText(mdc);
+        int index = mdc.indexOf('=');
+        Assert.isTrue(index > 0, "Expected key=value but got " + mdc + "!");
+
+        return getBackend().setMdcLevel(getName(), mdc.substring(0, index),
+                mdc.substring(index + 1), level == null ? "" : level);
+    }
+
+
+    /**
+     * Returns the MDC levels set for the logger formatted as
+     * {@literal key=value:LEVEL}.
+     * 
+     * @return
+     */
+    public String[] getMdcLevels() {
+
+        return getBackend().getMdcLevels(getName());
+    }
+
+
+    /**
+     * Returns the given number of most recent events of the logger group
+     * named after the logger, oldest first. Returns no events unless recent
+     * events are kept for the group.
+     * 
+     * @param count
+     * @return
+     */
+    public String[] tail(int count) {
+
+        RecentEvents events = RecentEvents.getStarted(getBackend().getRepository());
+        return events == null ? new String[0] : events.tail(getName(), count);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see javax.management.DynamicMBean#getAttribute(java.lang.String)
+     */
+    @Override
+    public Object getAttribute(String attribute)
+            throws AttributeNotFoundException, MBeanException,
+            ReflectionException {
+
+        if (NAME.equals(attribute)) {
+            return getName();
+        }
+
+        if (LEVEL.equals(attribute)) {
+            return getLevel();
+        }
+
+        throw new AttributeNotFoundException(attribute);
+    }
+
+
+    /**
+     * Sets the level and records it with the {@link LevelJournal}, if any.
+     * 
+     * @see
+     * javax.management.DynamicMBean#setAttribute(javax.management.Attribute)
+     */
+    @Override
+    public void setAttribute(Attribute attribute)
+            throws AttributeNotFoundException, InvalidAttributeValueException,
+            MBeanException, ReflectionException {
+
+        if (!LEVEL.equals(attribute.getName())) {
+            throw new AttributeNotFoundException(attribute.getName());
+        }
+
+        Object value = attribute.getValue();
+
+        if (value != null && !(value instanceof String)) {
+            throw new InvalidAttributeValueException(String.format(
+                    "Expected String level but got %s!", value));
+        }
+
+        setLevel((String) value);
+        LevelJournal.record(getBackend(), getName(), (String) value);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see javax.management.DynamicMBean#getAttributes(java.lang.String[])
+     */
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+
+        AttributeList result = new AttributeList(attributes.length);
+
+        for (String attribute : attributes) {
+            try {
+                result.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (JMException e) {
+                // omit attribute as defined by DynamicMBean
+            }
+        }
+
+        return result;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * javax.management.DynamicMBean#setAttributes(javax.management.AttributeList
+     * )
+     */
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+
+        AttributeList result = new AttributeList(attributes.size());
+
+        for (Object element : attributes) {
+
+            Attribute attribute = (Attribute) element;
+
+            try {
+                setAttribute(attribute);
+                result.add(new Attribute(attribute.getName(),
+                        getAttribute(attribute.getName())));
+            } catch (JMException e) {
+                // omit attribute as defined by DynamicMBean
+            }
+        }
+
+        return result;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see javax.management.DynamicMBean#invoke(java.lang.String,
+     * java.lang.Object[], java.lang.String[])
+     */
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature)
+            throws MBeanException, ReflectionException {
+
+        boolean events = getBackend().supportsEventOperations();
+
+        if (events && TAIL.equals(actionName) && params.length == 1) {
+            return tail(((Number) params[0]).intValue());
+        }
+
+        if (events && GET_MDC_LEVELS.equals(actionName) && params.length == 0) {
+            return getMdcLevels();
+        }
+
+        try {
+
+            if (SET_LEVEL_FOR.equals(actionName) && params.length == 2) {
+                return setLevelFor((String) params[0],
+                        ((Number) params[1]).longValue());
+            }
+
+            if (events && SET_MDC_LEVEL.equals(actionName)
+                    && params.length == 2) {
+                return setMdcLevel((String) params[0], (String) params[1]);
+            }
+
+        } catch (RuntimeException e) {
+            throw new MBeanException(e, e.getMessage());
+        }
+
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * javax.management.NotificationBroadcaster#addNotificationListener(javax
+     * .management.NotificationListener, javax.management.NotificationFilter,
+     * java.lang.Object)
+     */
+    @Override
+    public void addNotificationListener(NotificationListener listener,
+            NotificationFilter filter, Object handback) {
+
+        getBroadcaster().addNotificationListener(listener, filter, handback);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * javax.management.NotificationBroadcaster#removeNotificationListener(javax
+     * .management.NotificationListener)
+     */
+    @Override
+    public void removeNotificationListener(NotificationListener listener)
+            throws ListenerNotFoundException {
+
+        getBroadcaster().removeNotificationListener(listener);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * javax.management.NotificationEmitter#removeNotificationListener(javax
+     * .management.NotificationListener, javax.management.NotificationFilter,
+     * java.lang.Object)
+     */
+    @Override
+    public void removeNotificationListener(NotificationListener listener,
+            NotificationFilter filter, Object handback)
+            throws ListenerNotFoundException {
+
+        getBroadcaster().removeNotificationListener(listener, filter,
+                handback);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see javax.management.NotificationBroadcaster#getNotificationInfo()
+     */
+    @Override
+    public MBeanNotificationInfo[] getNotificationInfo() {
+
+        return getMBeanInfo().getNotifications();
+    }
+
+
+    /**
+     * Sends the given {@link Notification} to the listeners registered, if
+     * any.
+     * 
+     * @param notification
+     */
+    void sendNotification(Notification notification) {
+
+        NotificationBroadcasterSupport broadcaster = this.broadcaster;
+
+        if (broadcaster != null) {
+            broadcaster.sendNotification(notification);
+        }
+    }
+
+
+    private synchronized NotificationBroadcasterSupport getBroadcaster() {
+
+        if (broadcaster == null) {
+            broadcaster = new NotificationBroadcasterSupport(NOTIFICATIONS);
+        }
+
+        return broadcaster;
+    }
+
+
+    /**
+     * Creates the {@link MBeanInfo} for the given logger type exposing the
+     * {@value #NAME} and {@value #LEVEL} attributes and the
+     * {@value #SET_LEVEL_FOR} operation.
+     * 
+     * @param type
+     * @param description
+     * @return
+     */
+    protected static MBeanInfo createMBeanInfo(Class<?> type,
+            String description) {
+
+        return createMBeanInfo(type, description, new MBeanAttributeInfo[0],
+                new MBeanOperationInfo[0]);
+    }
+
+
+    /**
+     * Creates the {@link MBeanInfo} for the given logger type exposing the
+     * {@value #NAME} and {@value #LEVEL} attributes and the
+     * {@value #SET_LEVEL_FOR} operation as well as the given additional
+     * attributes and operations.
+     * 
+     * @see #getEventOperations()
+     * @param type
+     * @param description
+     * @param additionalAttributes
+     * @param operations
+     * @return
+     */
+    protected static MBeanInfo createMBeanInfo(Class<?> type,
+            String description, MBeanAttributeInfo[] additionalAttributes,
+            MBeanOperationInfo[] operations) {
+
+        MBeanAttributeInfo[] attributes =
+                new MBeanAttributeInfo[additionalAttributes.length + 2];
+        attributes[0] =
+                new MBeanAttributeInfo(NAME, String.class.getName(),
+                        "The name of the logger", true, false, false);
+        attributes[1] =
+                new MBeanAttributeInfo(LEVEL, String.class.getName(),
+                        "The level of the logger", true, true, false);
+        System.arraycopy(additionalAttributes, 0, attributes, 2,
+                additionalAttributes.length);
+
+        MBeanOperationInfo[] allOperations =
+                new MBeanOperationInfo[operations.length + 1];
+        allOperations[0] =
+                new MBeanOperationInfo(SET_LEVEL_FOR,
+                        "Sets the level for the given number of seconds",
+                        new MBeanParameterInfo[] {
+                                stringParameter("level", "The level"),
+                                new MBeanParameterInfo("seconds",
+                                        long.class.getName(),
+                                        "The number of seconds") },
+                        String.class.getName(), MBeanOperationInfo.ACTION);
+        System.arraycopy(operations, 0, allOperations, 1, operations.length);
+
+        return new MBeanInfo(type.getName(), description, attributes,
+                new MBeanConstructorInfo[0], allOperations, NOTIFICATIONS);
+    }
+
+
+    /**
+     * Returns the {@value #TAIL}, {@value #SET_MDC_LEVEL} and
+     * {@value #GET_MDC_LEVELS} operations to be exposed by loggers of backends
+     * supporting operations on the events logged (see
+     * {@link LoggerBackend#supportsEventOperations()}).
+     * 
+     * @return
+     */
+    protected static MBeanOperationInfo[] getEventOperations() {
+
+        return new MBeanOperationInfo[] {
+                new MBeanOperationInfo(TAIL,
+                        "Returns the most recent events of the logger group",
+                        new MBeanParameterInfo[] { new MBeanParameterInfo(
+                                "count", int.class.getName(),
+                                "The number of events") }, String[].class
+                                .getName(), MBeanOperationInfo.INFO),
+                new MBeanOperationInfo(SET_MDC_LEVEL,
+                        "Sets the level for events logged while the MDC "
+                                + "holds the given value",
+                        new MBeanParameterInfo[] {
+                                stringParameter("mdc",
+                                        "The MDC key and value, e.g. tenant=acme"),
+                                stringParameter("level",
+                                        "The level, empty to remove") },
+                        String.class.getName(), MBeanOperationInfo.ACTION),
+                new MBeanOperationInfo(GET_MDC_LEVELS,
+                        "Returns the levels set for MDC values",
+                        new MBeanParameterInfo[0], String[].class.getName(),
+                        MBeanOperationInfo.INFO) };
+    }
+
+
+    /**
+     * Returns an array containing the elements of both given arrays.
+     * 
+     * @param first
+     * @param second
+     * @return
+     */
+    protected static <T> T[] concat(T[] first, T[] second) {
+
+        T[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+
+        return result;
+    }
+
+
+    /**
+     * Creates an {@link MBeanParameterInfo} for a {@link String} parameter.
+     * 
+     * @param name
+     * @param description
+     * @return
+     */
+    protected static MBeanParameterInfo stringParameter(String name,
+            String description) {
+
+        return new MBeanParameterInfo(name, String.class.getName(),
+                description);
+    }
+}
@@ -0,0 +1,89 @@
+package org.springframework.jmx.config;
+
+import java.beans.ConstructorProperties;
+
+
+/**
+ * Snapshot of the latencies of appender invocations in nanoseconds.
+ * 
+ * @author Oliver Gierke
+ */
+public class AppenderLatency {
+
+    private final String name;
+    private final long count;
+    private final long median;
+    private final long percentile99;
+    private final long percentile999;
+    private final long max;
+
+
+    /**
+     * Creates a new {@link AppenderLatency}.
+     * 
+     * @param name
+     * @param count
+     * @param median
+     * @param percentile99
+     * @param percentile999
+     * @param max
+     */
+    @ConstructorProperties({ "name", "count", "median", "percentile99",
+            "percentile999", "max" })
+    public AppenderLatency(String name, long count, long median,
+            long percentile99, long percentile999, long max) {
+
+        this.name = name;
+        this.count = count;
+        this.median = median;
+        this.percentile99 = percentile99;
+        this.percentile999 = percentile999;
+        this.max = max;
+    }
+
+
+    /**
+     * Returns the name of the appender or logger group.
+     * 
+     * @return
+     */
+    public String getName() {
+
+        return name;
+    }
+
+
+    /**
+     * Returns the number of appender invocations.
+     * 
+     * @return
+     */
+    public long getCount() {
+
+        return count;
+    }
+
+
+    public long getMedian() {
+
+        return median;
+    }
+
+
+    public long getPercentile99() {
+
+        return percentile99;
+    }
+
+
+    public long getPercentile999() {
+
+        return percentile999;
+    }
+
+
+    public long getMax() {
+
+        return max;
+    }
+}
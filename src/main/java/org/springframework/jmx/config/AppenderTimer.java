@@ -0,0 +1,303 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+
+
+/**
+ * Wraps the appenders the events of the loggers below the given base
+ * packages flow through with {@link TimedAppender}s recording the latency of
+ * each invocation. Latencies are kept in {@link LatencyHistogram}s per
+ * appender and per logger group, i.e. the logger named after the first
+ * package segment below a base package. Appenders are wrapped on startup and
+ * unwrapped on shutdown, appenders attached later on are not timed.
+ * <p>
+ * Logback doesn't allow replacing an appender atomically, its appender list
+ * is guarded by a lock of its own which logging threads take but which is not
+ * accessible. A wrapper is thus attached before the appender gets detached,
+ * so that no event gets lost, and vice versa on shutdown. Events logged in
+ * between go to the appender twice, once of them timed.
+ * 
+ * @author Oliver Gierke
+ */
+public class AppenderTimer implements AppenderTimerMXBean, InitializingBean,
+        DisposableBean {
+
+    private static final Map<LoggerContext, AppenderTimer> INSTANCES =
+            new WeakHashMap<LoggerContext, AppenderTimer>();
+
+    private final LoggerContext loggerContext;
+    private final List<String> basePackages;
+
+    private final Map<String, LatencyHistogram> appenders =
+            new ConcurrentHashMap<String, LatencyHistogram>();
+    private final LoggerGroupResolver<String, LatencyHistogram> groups;
+    private final Map<Logger, List<TimedAppender>> wrapped =
+            new IdentityHashMap<Logger, List<TimedAppender>>();
+
+
+    /**
+     * Creates a new {@link AppenderTimer} for the given {@link LoggerContext}
+     * and base packages.
+     * 
+     * @param loggerContext
+     * @param basePackages
+     */
+    public AppenderTimer(LoggerContext loggerContext, List<String> basePackages) {
+
+        Assert.notNull(loggerContext);
+        Assert.notNull(basePackages);
+
+        this.loggerContext = loggerContext;
+        this.basePackages = basePackages;
+        this.groups =
+                new LoggerGroupResolver<String, LatencyHistogram>(basePackages) {
+
+                    @Override
+                    protected String getBasePackage(String basePackage) {
+
+                        return basePackage;
+                    }
+
+
+                    @Override
+                    protected LatencyHistogram createGroup(String group,
+                            String basePackage) {
+
+                        return new LatencyHistogram();
+                    }
+                };
+    }
+
+
+    /**
+     * Returns the {@link AppenderTimer} installed in the given
+     * {@link LoggerContext} or {@literal null} if none installed.
+     * 
+     * @param loggerContext
+     * @return
+     */
+    static AppenderTimer getInstalled(LoggerContext loggerContext) {
+
+        synchronized (INSTANCES) {
+            return INSTANCES.get(loggerContext);
+        }
+    }
+
+
+    /**
+     * Wraps the appenders of the loggers in and above the base packages.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public synchronized void afterPropertiesSet() {
+
+        Map<Appender<ILoggingEvent>, TimedAppender> timed =
+                new IdentityHashMap<Appender<ILoggingEvent>, TimedAppender>();
+
+        for (Logger logger : loggerContext.getLoggerList()) {
+
+            if (!isTimed(logger.getName())) {
+                continue;
+            }
+
+            List<Appender<ILoggingEvent>> toWrap =
+                    new ArrayList<Appender<ILoggingEvent>>();
+
+            for (Iterator<Appender<ILoggingEvent>> iterator =
+                    logger.iteratorForAppenders(); iterator.hasNext();) {
+
+                Appender<ILoggingEvent> appender = iterator.next();
+
+                if (!(appender instanceof TimedAppender)) {
+                    toWrap.add(appender);
+                }
+            }
+
+            List<TimedAppender> result = new ArrayList<TimedAppender>();
+
+            for (Appender<ILoggingEvent> appender : toWrap) {
+
+                TimedAppender timedAppender = timed.get(appender);
+
+                if (timedAppender == null) {
+                    timedAppender = new TimedAppender(appender, this);
+                    timedAppender.start();
+                    timed.put(appender, timedAppender);
+                }
+
+                // events logged until detached go to the appender twice
+                logger.addAppender(timedAppender);
+                logger.detachAppender(appender);
+                result.add(timedAppender);
+            }
+
+            if (!result.isEmpty()) {
+                wrapped.put(logger, result);
+            }
+        }
+
+        synchronized (INSTANCES) {
+            INSTANCES.put(loggerContext, this);
+        }
+    }
+
+
+    /**
+     * Replaces the {@link TimedAppender}s by the appenders wrapped.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public synchronized void destroy() {
+
+        synchronized (INSTANCES) {
+            if (INSTANCES.get(loggerContext) == this) {
+                INSTANCES.remove(loggerContext);
+            }
+        }
+
+        for (Map.Entry<Logger, List<TimedAppender>> entry : wrapped.entrySet()) {
+            for (TimedAppender appender : entry.getValue()) {
+                // events logged until detached go to the appender twice
+                entry.getKey().addAppender(appender.getDelegate());
+                entry.getKey().detachAppender(appender);
+            }
+        }
+
+        wrapped.clear();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.AppenderTimerMXBean#getAppenders()
+     */
+    @Override
+    public List<AppenderLatency> getAppenders() {
+
+        return getLatencies(appenders);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.AppenderTimerMXBean#getGroups()
+     */
+    @Override
+    public List<AppenderLatency> getGroups() {
+
+        return getLatencies(groups.getGroups());
+    }
+
+
+    /**
+     * Returns the {@link LatencyHistogram} of the appender with the given
+     * name.
+     * 
+     * @param appender
+     * @return
+     */
+    synchronized LatencyHistogram getAppenderLatencies(String appender) {
+
+        LatencyHistogram result = appenders.get(appender);
+
+        if (result == null) {
+            result = new LatencyHistogram();
+            appenders.put(appender, result);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns the {@link LatencyHistogram} of the logger group with the given
+     * name or {@literal null} if the given name doesn't denote a group.
+     * 
+     * @param group
+     * @return
+     */
+    LatencyHistogram getGroupLatencies(String group) {
+
+        return group.equals(groups.getGroup(group)) ? groups.resolve(group)
+                : null;
+    }
+
+
+    /**
+     * Returns the {@link LatencyHistogram} of the logger group the logger with
+     * the given name belongs to or {@literal null} if it's not part of a
+     * group.
+     * 
+     * @param logger
+     * @return
+     */
+    LatencyHistogram resolveGroupLatencies(String logger) {
+
+        return groups.resolve(logger);
+    }
+
+
+    /**
+     * Returns whether the events of the logger with the given name flow
+     * through its appenders, i.e. whether it's located in or below a base
+     * package or is an ancestor of one.
+     * 
+     * @param logger
+     * @return
+     */
+    private boolean isTimed(String logger) {
+
+        for (String basePackage : basePackages) {
+
+            if (LoggerSelector.getGroup(basePackage, logger) != null) {
+                return true;
+            }
+
+            if (Logger.ROOT_LOGGER_NAME.equals(logger)
+                    || LoggerSelector.getGroup(logger, basePackage) != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    private static List<AppenderLatency> getLatencies(
+            Map<String, LatencyHistogram> histograms) {
+
+        List<AppenderLatency> result = new ArrayList<AppenderLatency>();
+
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<String, LatencyHistogram>(
+                histograms).entrySet()) {
+
+            LatencyHistogram histogram = entry.getValue();
+            result.add(new AppenderLatency(entry.getKey(),
+                    histogram.getCount(), histogram.getPercentile(50),
+                    histogram.getPercentile(99), histogram
+                            .getPercentile(99.9), histogram.getMax()));
+        }
+
+        return result;
+    }
+}
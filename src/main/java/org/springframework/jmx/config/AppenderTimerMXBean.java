@@ -0,0 +1,28 @@
+package org.springframework.jmx.config;
+
+import java.util.List;
+
+
+/**
+ * Management interface of the {@link AppenderTimer}.
+ * 
+ * @author Oliver Gierke
+ */
+public interface AppenderTimerMXBean {
+
+    /**
+     * Returns the latencies of the timed appenders by appender name.
+     * 
+     * @return
+     */
+    List<AppenderLatency> getAppenders();
+
+
+    /**
+     * Returns the latencies of the appender invocations for the events of
+     * the logger groups.
+     * 
+     * @return
+     */
+    List<AppenderLatency> getGroups();
+}
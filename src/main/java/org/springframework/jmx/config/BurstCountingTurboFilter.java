@@ -0,0 +1,120 @@
+package org.springframework.jmx.config;
+
+import java.util.List;
+
+import org.slf4j.Marker;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+
+/**
+ * {@link TurboFilter} counting the ERROR and WARN events of the logger groups
+ * watched by a {@link BurstDetector}. Events below the effective level of
+ * their logger and level checks are not counted. The filter never alters the
+ * decision whether to log an event.
+ * <p>
+ * Events below WARN are dismissed by a single comparison.
+ * 
+ * @author Oliver Gierke
+ */
+public class BurstCountingTurboFilter extends TurboFilter implements
+        InitializingBean, DisposableBean {
+
+    private final LoggerContext loggerContext;
+    private final BurstDetector detector;
+
+
+    /**
+     * Creates a new {@link BurstCountingTurboFilter} for the given
+     * {@link LoggerContext} and {@link BurstRule}s.
+     * 
+     * @param loggerContext
+     * @param rules
+     */
+    public BurstCountingTurboFilter(LoggerContext loggerContext,
+            List<BurstRule> rules) {
+
+        this(loggerContext, new BurstDetector(rules, TimerWheel.getInstance()));
+    }
+
+
+    BurstCountingTurboFilter(LoggerContext loggerContext,
+            BurstDetector detector) {
+
+        Assert.notNull(loggerContext);
+        Assert.notNull(detector);
+
+        this.loggerContext = loggerContext;
+        this.detector = detector;
+        setName(BurstCountingTurboFilter.class.getSimpleName());
+        setContext(loggerContext);
+    }
+
+
+    /**
+     * Installs the filter in the {@link LoggerContext} and starts the
+     * {@link BurstDetector}.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        start();
+        loggerContext.addTurboFilter(this);
+        detector.start(loggerContext);
+    }
+
+
+    /**
+     * Stops the {@link BurstDetector} and removes the filter from the
+     * {@link LoggerContext}.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() {
+
+        detector.stop(loggerContext);
+        loggerContext.getTurboFilterList().remove(this);
+        stop();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.turbo.TurboFilter#decide(org.slf4j.Marker,
+     * ch.qos.logback.classic.Logger, ch.qos.logback.classic.Level,
+     * java.lang.String, java.lang.Object[], java.lang.Throwable)
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level,
+            String format, Object[] params, Throwable t) {
+
+        if (level.levelInt < Level.WARN_INT || format == null && t == null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+
+        StripedCounter counter = detector.getCounter(logger.getName());
+
+        if (counter != null) {
+            counter.increment(level.levelInt == Level.ERROR_INT
+                    ? BurstDetector.ERROR : BurstDetector.WARN);
+        }
+
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,277 @@
+package org.springframework.jmx.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.Notification;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Detects bursts of ERROR and WARN events in logger groups as defined by
+ * {@link BurstRule}s and publishes them as {@value AbstractJmxLogger#BURST}
+ * notifications through the MBean exposing the group. The events are counted
+ * by a backend specific component using the counters handed out by
+ * {@link #getCounter(String)}. The counts are checked once per second on the
+ * shared {@link TimerWheel}. Notifications are coalesced, so that a group
+ * publishes at most one notification per window no matter how many events
+ * it logs.
+ * 
+ * @author Oliver Gierke
+ */
+class BurstDetector {
+
+    static final int WARN = 0;
+    static final int ERROR = 1;
+
+    private static final Map<Object, BurstDetector> INSTANCES =
+            new WeakHashMap<Object, BurstDetector>();
+
+    private final List<BurstRule> rules;
+    private final TimerWheel timer;
+    private final LoggerGroupResolver<BurstRule, Group> groups;
+    private final ConcurrentMap<String, AbstractJmxLogger> emitters =
+            new ConcurrentHashMap<String, AbstractJmxLogger>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private TimerWheel.Timeout timeout;
+    private long tick;
+
+
+    /**
+     * Creates a new {@link BurstDetector}.
+     * 
+     * @param rules
+     * @param timer
+     */
+    public BurstDetector(List<BurstRule> rules, TimerWheel timer) {
+
+        Assert.notNull(rules);
+        Assert.notNull(timer);
+
+        this.rules = rules;
+        this.timer = timer;
+        this.groups = new LoggerGroupResolver<BurstRule, Group>(rules) {
+
+            @Override
+            protected String getBasePackage(BurstRule rule) {
+
+                return rule.getBasePackage();
+            }
+
+
+            @Override
+            protected Group createGroup(String group, BurstRule rule) {
+
+                return new Group(group, rule);
+            }
+        };
+    }
+
+
+    /**
+     * Returns the {@link BurstDetector} started for the given logger
+     * repository or {@literal null} if none started.
+     * 
+     * @param repository
+     * @return
+     */
+    public static BurstDetector getStarted(Object repository) {
+
+        synchronized (INSTANCES) {
+            return INSTANCES.get(repository);
+        }
+    }
+
+
+    /**
+     * Starts checking for bursts and makes the detector available to the MBeans
+     * of the loggers of the given repository.
+     * 
+     * @param repository
+     */
+    public synchronized void start(Object repository) {
+
+        synchronized (INSTANCES) {
+            INSTANCES.put(repository, this);
+        }
+
+        schedule();
+    }
+
+
+    /**
+     * Stops checking for bursts.
+     * 
+     * @param repository
+     */
+    public synchronized void stop(Object repository) {
+
+        synchronized (INSTANCES) {
+            if (INSTANCES.get(repository) == this) {
+                INSTANCES.remove(repository);
+            }
+        }
+
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+    }
+
+
+    /**
+     * Registers the given logger MBean to publish notifications if it
+     * represents a logger group.
+     * 
+     * @param logger
+     */
+    public void register(AbstractJmxLogger logger) {
+
+        String name = logger.getName();
+
+        for (BurstRule rule : rules) {
+            if (name.equals(rule.getGroup(name))) {
+                emitters.put(name, logger);
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Unregisters the given logger MBean.
+     * 
+     * @param logger
+     */
+    public void unregister(AbstractJmxLogger logger) {
+
+        emitters.remove(logger.getName(), logger);
+    }
+
+
+    /**
+     * Returns the counter for the events of the logger with the given name or
+     * {@literal null} if it's not part of a group. The counter holds the WARN
+     * events in slot {@value #WARN} and the ERROR events in slot
+     * {@value #ERROR}.
+     * 
+     * @param logger
+     * @return
+     */
+    public StripedCounter getCounter(String logger) {
+
+        Group group = groups.resolve(logger);
+        return group == null ? null : group.counter;
+    }
+
+
+    /**
+     * Records the events counted since the last check and publishes a
+     * notification for every group exceeding its threshold that didn't
+     * publish one within its window. To be invoked once per second.
+     */
+    synchronized void check() {
+
+        tick++;
+
+        for (Group group : groups.getGroups().values()) {
+
+            group.warnings.record(group.counter.get(WARN));
+            group.errors.record(group.counter.get(ERROR));
+
+            long warnings = group.warnings.getCount();
+            long errors = group.errors.getCount();
+            BurstRule rule = group.rule;
+
+            if (warnings + errors < rule.getThreshold()) {
+                continue;
+            }
+
+            if (group.notified != 0
+                    && tick - group.notified < rule.getWindowSeconds()) {
+                continue;
+            }
+
+            if (publish(group, errors, warnings)) {
+                group.notified = tick;
+            }
+        }
+    }
+
+
+    private boolean publish(Group group, long errors, long warnings) {
+
+        AbstractJmxLogger emitter = emitters.get(group.name);
+
+        if (emitter == null) {
+            return false;
+        }
+
+        Notification notification =
+                new Notification(AbstractJmxLogger.BURST, emitter,
+                        sequence.incrementAndGet(), System.currentTimeMillis(),
+                        String.format(
+                                "Logger group %s logged %d ERROR and %d WARN "
+                                        + "events within %d seconds!",
+                                group.name, errors, warnings, group.rule
+                                        .getWindowSeconds()));
+        notification.setUserData(errors + warnings);
+
+        emitter.sendNotification(notification);
+        return true;
+    }
+
+
+    private void schedule() {
+
+        timeout = timer.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+
+                synchronized (BurstDetector.this) {
+
+                    if (timeout == null) {
+                        return;
+                    }
+
+                    check();
+                    schedule();
+                }
+            }
+        }, 1000);
+    }
+
+    /**
+     * Events counted for a logger group.
+     * 
+     * @author Oliver Gierke
+     */
+    private static class Group {
+
+        private final String name;
+        private final BurstRule rule;
+        private final StripedCounter counter = new StripedCounter(2);
+        private final RateWindow warnings;
+        private final RateWindow errors;
+
+        private long notified;
+
+
+        public Group(String name, BurstRule rule) {
+
+            this.name = name;
+            this.rule = rule;
+            this.warnings = new RateWindow(rule.getWindowSeconds());
+            this.errors = new RateWindow(rule.getWindowSeconds());
+            this.warnings.record(0);
+            this.errors.record(0);
+        }
+    }
+}
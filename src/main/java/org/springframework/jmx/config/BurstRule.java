@@ -0,0 +1,71 @@
+package org.springframework.jmx.config;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Threshold of ERROR and WARN events within a sliding window for the logger
+ * groups below a base package. A logger group is the logger named after the
+ * first package segment below the base package, just like the groups
+ * selected by {@link LoggerSelector}.
+ * 
+ * @author Oliver Gierke
+ */
+class BurstRule {
+
+    private final String basePackage;
+    private final long threshold;
+    private final int windowSeconds;
+
+
+    /**
+     * Creates a new {@link BurstRule}.
+     * 
+     * @param basePackage
+     * @param threshold the number of ERROR and WARN events within the window
+     *            considered a burst
+     * @param windowSeconds
+     */
+    public BurstRule(String basePackage, long threshold, int windowSeconds) {
+
+        Assert.hasText(basePackage);
+        Assert.isTrue(threshold > 0, "Threshold must be positive!");
+        Assert.isTrue(windowSeconds > 0, "Window must be positive!");
+
+        this.basePackage = basePackage;
+        this.threshold = threshold;
+        this.windowSeconds = windowSeconds;
+    }
+
+
+    public String getBasePackage() {
+
+        return basePackage;
+    }
+
+
+    public long getThreshold() {
+
+        return threshold;
+    }
+
+
+    public int getWindowSeconds() {
+
+        return windowSeconds;
+    }
+
+
+    /**
+     * Returns the name of the group the logger with the given name belongs to
+     * or {@literal null} if it's not located in or below the base package.
+     * 
+     * @param logger
+     * @return
+     * @see LoggerSelector#getGroup(String, String)
+     */
+    public String getGroup(String logger) {
+
+        return LoggerSelector.getGroup(basePackage, logger);
+    }
+}
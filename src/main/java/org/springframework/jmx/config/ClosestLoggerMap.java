@@ -0,0 +1,215 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Map of values registered for logger names that looks up the value of the
+ * closest registered ancestor for a given Logback {@link Logger}, up to and
+ * including the root logger. If levels override values, the lookup stops at
+ * the first logger having an explicit level but no value, just like an
+ * explicit level overrides the ones of its ancestors. The result of the
+ * lookup is cached per logger and invalidated whenever a value is registered
+ * or removed or {@link #invalidate()} is called, so that repeated lookups
+ * don't allocate.
+ * 
+ * @author Oliver Gierke
+ */
+class ClosestLoggerMap<T> {
+
+    private final Object none = new Object();
+    private final boolean levelsOverride;
+    private final Map<String, T> values = new ConcurrentHashMap<String, T>();
+    private final Map<Logger, Object> resolved =
+            new ConcurrentHashMap<Logger, Object>();
+
+    private volatile int version;
+    private volatile boolean empty = true;
+
+
+    /**
+     * Creates a new {@link ClosestLoggerMap} ignoring logger levels.
+     */
+    public ClosestLoggerMap() {
+
+        this(false);
+    }
+
+
+    /**
+     * Creates a new {@link ClosestLoggerMap}.
+     * 
+     * @param levelsOverride whether an explicit level of a logger overrides
+     *            the values of its ancestors
+     */
+    public ClosestLoggerMap(boolean levelsOverride) {
+
+        this.levelsOverride = levelsOverride;
+    }
+
+
+    /**
+     * Returns whether no values are registered.
+     * 
+     * @return
+     */
+    public boolean isEmpty() {
+
+        return empty;
+    }
+
+
+    /**
+     * Returns the value registered for the given logger name.
+     * 
+     * @param name
+     * @return
+     */
+    public T get(String name) {
+
+        return values.get(name);
+    }
+
+
+    /**
+     * Registers the given value for the given logger name unless a value is
+     * registered already and returns the registered one.
+     * 
+     * @param name
+     * @param value
+     * @return
+     */
+    public synchronized T putIfAbsent(String name, T value) {
+
+        T existing = values.get(name);
+        return existing == null ? put(name, value) : existing;
+    }
+
+
+    /**
+     * Registers the given value for the given logger name.
+     * 
+     * @param name
+     * @param value
+     * @return the value
+     */
+    public synchronized T put(String name, T value) {
+
+        values.put(name, value);
+        invalidate();
+        return value;
+    }
+
+
+    /**
+     * Removes the value registered for the given logger name.
+     * 
+     * @param name
+     * @return the value removed or {@literal null} if none registered
+     */
+    public synchronized T remove(String name) {
+
+        T result = values.remove(name);
+
+        if (result != null) {
+            invalidate();
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns the values registered for the logger with the given name, its
+     * ancestors including the root logger and its descendants.
+     * 
+     * @param name
+     * @return
+     */
+    public List<T> getRelated(String name) {
+
+        List<T> result = new ArrayList<T>();
+        boolean root = Logger.ROOT_LOGGER_NAME.equals(name);
+
+        for (Map.Entry<String, T> entry : values.entrySet()) {
+
+            String other = entry.getKey();
+
+            if (root || Logger.ROOT_LOGGER_NAME.equals(other)
+                    || LoggerSelector.getGroup(other, name) != null
+                    || LoggerSelector.getGroup(name, other) != null) {
+                result.add(entry.getValue());
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns the value registered for the given logger or its closest
+     * ancestor or {@literal null} if none registered.
+     * 
+     * @param logger
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public T resolve(Logger logger) {
+
+        Object result = resolved.get(logger);
+
+        if (result == null) {
+            result = lookup(logger);
+        }
+
+        return result == none ? null : (T) result;
+    }
+
+
+    private Object lookup(Logger logger) {
+
+        int version = this.version;
+        LoggerContext context = logger.getLoggerContext();
+        Logger current = logger;
+        String name = logger.getName();
+        Object result = values.get(name);
+
+        while (result == null) {
+
+            if (levelsOverride && current != null && current.getLevel() != null
+                    || Logger.ROOT_LOGGER_NAME.equals(name)) {
+                result = none;
+            } else {
+                int index = name.lastIndexOf('.');
+                name = index == -1 ? Logger.ROOT_LOGGER_NAME : name.substring(0, index);
+                current = levelsOverride ? context.exists(name) : null;
+                result = values.get(name);
+            }
+        }
+
+        resolved.put(logger, result);
+
+        if (version != this.version) {
+            resolved.remove(logger);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Drops the cached lookups, e.g. as the level of a logger changed.
+     */
+    public synchronized void invalidate() {
+
+        version++;
+        empty = values.isEmpty();
+        resolved.clear();
+    }
+}
@@ -0,0 +1,158 @@
+package org.springframework.jmx.config;
+
+import org.slf4j.Marker;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+
+/**
+ * {@link TurboFilter} counting the logging events per level for the loggers
+ * registered with it. Events of loggers not registered themselves are
+ * attributed to the closest registered ancestor, so that a logger group's
+ * counts include the ones of all its nested loggers. Events below the
+ * effective level of their logger and level checks like
+ * {@link Logger#isDebugEnabled()} are not counted. The filter never alters
+ * the decision whether to log an event.
+ * 
+ * @author Oliver Gierke
+ */
+public class EventCountingTurboFilter extends TurboFilter implements
+        InitializingBean, DisposableBean {
+
+    static final Level[] LEVELS = { Level.TRACE, Level.DEBUG, Level.INFO,
+            Level.WARN, Level.ERROR };
+
+    private final LoggerContext loggerContext;
+    private final ClosestLoggerMap<StripedCounter> counters =
+            new ClosestLoggerMap<StripedCounter>();
+
+
+    /**
+     * Creates a new {@link EventCountingTurboFilter} for the given
+     * {@link LoggerContext}.
+     * 
+     * @param loggerContext
+     */
+    public EventCountingTurboFilter(LoggerContext loggerContext) {
+
+        Assert.notNull(loggerContext);
+
+        this.loggerContext = loggerContext;
+        setName(EventCountingTurboFilter.class.getSimpleName());
+        setContext(loggerContext);
+    }
+
+
+    /**
+     * Returns the {@link EventCountingTurboFilter} installed in the given
+     * {@link LoggerContext} or {@literal null} if none installed.
+     * 
+     * @param loggerContext
+     * @return
+     */
+    static EventCountingTurboFilter getInstalled(LoggerContext loggerContext) {
+
+        for (TurboFilter filter : loggerContext.getTurboFilterList()) {
+            if (filter instanceof EventCountingTurboFilter) {
+                return (EventCountingTurboFilter) filter;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Installs the filter in the {@link LoggerContext}.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        start();
+        loggerContext.addTurboFilter(this);
+    }
+
+
+    /**
+     * Removes the filter from the {@link LoggerContext}.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() {
+
+        loggerContext.getTurboFilterList().remove(this);
+        stop();
+    }
+
+
+    /**
+     * Registers the logger with the given name to count events for and
+     * returns its counters, indexed like {@link #LEVELS}.
+     * 
+     * @param name
+     * @return
+     */
+    public StripedCounter register(String name) {
+
+        StripedCounter result = counters.get(name);
+        return result != null ? result : counters.putIfAbsent(name,
+                new StripedCounter(LEVELS.length));
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.turbo.TurboFilter#decide(org.slf4j.Marker,
+     * ch.qos.logback.classic.Logger, ch.qos.logback.classic.Level,
+     * java.lang.String, java.lang.Object[], java.lang.Throwable)
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level,
+            String format, Object[] params, Throwable t) {
+
+        if (format == null && t == null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+
+        StripedCounter counter = counters.resolve(logger);
+
+        if (counter != null) {
+            counter.increment(getSlot(level));
+        }
+
+        return FilterReply.NEUTRAL;
+    }
+
+
+    private static int getSlot(Level level) {
+
+        switch (level.levelInt) {
+        case Level.ERROR_INT:
+            return 4;
+        case Level.WARN_INT:
+            return 3;
+        case Level.INFO_INT:
+            return 2;
+        case Level.DEBUG_INT:
+            return 1;
+        default:
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.springframework.jmx.config;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+
+/**
+ * {@link TurboFilter} counting the logging events of the logger groups
+ * defined by the given {@link ThrottleRule}s. Events below the effective level
+ * of their logger are only counted while their group is throttled and the
+ * event would have been logged without throttling. Level checks are never
+ * counted. The filter never alters the decision whether to log an event.
+ * 
+ * @author Oliver Gierke
+ */
+class EventRateTurboFilter extends TurboFilter {
+
+    private final LoggerGroupResolver<ThrottleRule, GroupRate> groups;
+
+
+    /**
+     * Creates a new {@link EventRateTurboFilter}.
+     * 
+     * @param rules
+     * @param windowSeconds the number of seconds to average rates over
+     */
+    public EventRateTurboFilter(List<ThrottleRule> rules,
+            final int windowSeconds) {
+
+        this.groups = new LoggerGroupResolver<ThrottleRule, GroupRate>(rules) {
+
+            @Override
+            protected String getBasePackage(ThrottleRule rule) {
+
+                return rule.getBasePackage();
+            }
+
+
+            @Override
+            protected GroupRate createGroup(String group, ThrottleRule rule) {
+
+                return new GroupRate(group, rule, windowSeconds);
+            }
+        };
+
+        setName(EventRateTurboFilter.class.getSimpleName());
+    }
+
+
+    /**
+     * Returns the groups events were counted for so far.
+     * 
+     * @return
+     */
+    public Collection<GroupRate> getGroups() {
+
+        return groups.getGroups().values();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.turbo.TurboFilter#decide(org.slf4j.Marker,
+     * ch.qos.logback.classic.Logger, ch.qos.logback.classic.Level,
+     * java.lang.String, java.lang.Object[], java.lang.Throwable)
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level,
+            String format, Object[] params, Throwable t) {
+
+        if (format == null && t == null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        GroupRate group = groups.resolve(logger.getName());
+
+        if (group == null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (level.levelInt >= group.floor
+                || level.levelInt >= logger.getEffectiveLevel().levelInt) {
+            group.counter.increment(0);
+        }
+
+        return FilterReply.NEUTRAL;
+    }
+
+    /**
+     * Events counted for a logger group together with its throttling state.
+     * The state is only to be accessed by a single thread at a time.
+     * 
+     * @author Oliver Gierke
+     */
+    static class GroupRate {
+
+        private final String name;
+        private final ThrottleRule rule;
+        private final StripedCounter counter = new StripedCounter(1);
+        private final RateWindow window;
+
+        private volatile int floor = Integer.MAX_VALUE;
+        private String previousLevel;
+        private int quietSeconds;
+
+
+        GroupRate(String name, ThrottleRule rule, int windowSeconds) {
+
+            this.name = name;
+            this.rule = rule;
+            this.window = new RateWindow(windowSeconds);
+            this.window.record(0);
+        }
+
+
+        public String getName() {
+
+            return name;
+        }
+
+
+        public ThrottleRule getRule() {
+
+            return rule;
+        }
+
+
+        /**
+         * Records the events counted so far and returns the events per second
+         * over the window.
+         * 
+         * @return
+         */
+        public long record() {
+
+            return window.record(counter.get(0));
+        }
+
+
+        public long getRate() {
+
+            return window.getRate();
+        }
+
+
+        public boolean isThrottled() {
+
+            return previousLevel != null;
+        }
+
+
+        public String getPreviousLevel() {
+
+            return previousLevel;
+        }
+
+
+        /**
+         * Marks the group as throttled. Events at or above the given level
+         * keep being counted while throttled.
+         * 
+         * @param previousLevel the level to be restored
+         * @param levelInt the effective level before throttling
+         */
+        public void throttled(String previousLevel, int levelInt) {
+
+            this.previousLevel = previousLevel;
+            this.quietSeconds = 0;
+            this.floor = levelInt;
+        }
+
+
+        /**
+         * Records a second within the budget while throttled and returns the
+         * number of consecutive ones.
+         * 
+         * @return
+         */
+        public int quiet() {
+
+            return ++quietSeconds;
+        }
+
+
+        /**
+         * Records a second over the budget while throttled.
+         */
+        public void noisy() {
+
+            this.quietSeconds = 0;
+        }
+
+
+        public void restored() {
+
+            this.previousLevel = null;
+            this.floor = Integer.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.springframework.jmx.config;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Fixed-size ring of recent logging events kept in a direct
+ * {@link ByteBuffer}. Writers reserve the space for an event with a single
+ * atomic increment, copy the event into the buffer and publish its position
+ * in an index slot, so writing is lock-free and doesn't allocate. Events are
+ * overwritten as the ring wraps. Readers detect events overwritten while
+ * being read and skip them.
+ * <p>
+ * Each event is stored as its sequence number, length, timestamp and the
+ * characters of its level, logger name and message. Records are aligned to 8
+ * bytes so that no field wraps around the end of the buffer. Messages are
+ * truncated so that an event takes up at most a quarter of the ring.
+ * 
+ * @author Oliver Gierke
+ */
+class EventRing {
+
+    static final int MIN_CAPACITY = 4096;
+
+    private static final int HEADER = 32;
+    private static final int SEQUENCE = 0;
+    private static final int LENGTH = 8;
+    private static final int LEVEL_LENGTH = 12;
+    private static final int LOGGER_LENGTH = 16;
+    private static final int MESSAGE_LENGTH = 20;
+    private static final int TIMESTAMP = 24;
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int maxChars;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLongArray index;
+    private final int slotMask;
+
+
+    /**
+     * Creates a new {@link EventRing} of at least the given number of bytes.
+     * The capacity is rounded up to a power of two of at least
+     * {@value #MIN_CAPACITY} bytes.
+     * 
+     * @param capacity
+     */
+    public EventRing(int capacity) {
+
+        int size = MIN_CAPACITY;
+
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.capacity = size;
+        this.mask = size - 1;
+        this.maxChars = (size / 4 - HEADER) / 2;
+        this.buffer = ByteBuffer.allocateDirect(size);
+
+        int slots = size / 64;
+        this.slotMask = slots - 1;
+        this.index = new AtomicLongArray(slots);
+
+        for (int i = 0; i < slots; i++) {
+            index.set(i, -1);
+        }
+    }
+
+
+    /**
+     * Returns the number of bytes of the ring.
+     * 
+     * @return
+     */
+    public int getCapacity() {
+
+        return capacity;
+    }
+
+
+    /**
+     * Writes the given event into the ring.
+     * 
+     * @param timestamp
+     * @param level
+     * @param logger
+     * @param message
+     */
+    public void write(long timestamp, String level, String logger,
+            String message) {
+
+        int levelLength = Math.min(level.length(), maxChars);
+        int loggerLength = Math.min(logger.length(), maxChars - levelLength);
+        int messageLength =
+                message == null ? 0 : Math.min(message.length(), maxChars
+                        - levelLength - loggerLength);
+        int length =
+                (HEADER + 2 * (levelLength + loggerLength + messageLength) + 7)
+                        & ~7;
+
+        long seq = sequence.getAndIncrement();
+        long position = reserved.getAndAdd(length);
+
+        buffer.putLong(offset(position, SEQUENCE), seq);
+        buffer.putInt(offset(position, LENGTH), length);
+        buffer.putInt(offset(position, LEVEL_LENGTH), levelLength);
+        buffer.putInt(offset(position, LOGGER_LENGTH), loggerLength);
+        buffer.putInt(offset(position, MESSAGE_LENGTH), messageLength);
+        buffer.putLong(offset(position, TIMESTAMP), timestamp);
+
+        long chars = position + HEADER;
+        chars = putChars(chars, level, levelLength);
+        chars = putChars(chars, logger, loggerLength);
+        putChars(chars, message, messageLength);
+
+        index.set((int) (seq & slotMask), position);
+    }
+
+
+    /**
+     * Returns the given number of most recent events, oldest first. Events
+     * overwritten or not completely written yet are skipped.
+     * 
+     * @param count
+     * @return
+     */
+    public String[] tail(int count) {
+
+        long head = sequence.get();
+        long first = Math.max(0, head - Math.min(count, slotMask + 1));
+        List<String> result = new ArrayList<String>();
+
+        for (long seq = first; seq < head; seq++) {
+
+            long position = index.get((int) (seq & slotMask));
+
+            if (position < 0 || !isIntact(position)
+                    || buffer.getLong(offset(position, SEQUENCE)) != seq) {
+                continue;
+            }
+
+            String event = read(position);
+
+            if (event != null && isIntact(position)) {
+                result.add(event);
+            }
+        }
+
+        return result.toArray(new String[result.size()]);
+    }
+
+
+    private boolean isIntact(long position) {
+
+        return reserved.get() <= position + capacity;
+    }
+
+
+    private String read(long position) {
+
+        int levelLength = buffer.getInt(offset(position, LEVEL_LENGTH));
+        int loggerLength = buffer.getInt(offset(position, LOGGER_LENGTH));
+        int messageLength = buffer.getInt(offset(position, MESSAGE_LENGTH));
+        long timestamp = buffer.getLong(offset(position, TIMESTAMP));
+
+        if (levelLength + loggerLength + messageLength > maxChars
+                || Math.min(levelLength, Math.min(loggerLength, messageLength)) < 0) {
+            return null;
+        }
+
+        long chars = position + HEADER;
+        String level = getChars(chars, levelLength);
+        chars += 2 * levelLength;
+        String logger = getChars(chars, loggerLength);
+        chars += 2 * loggerLength;
+        String message = getChars(chars, messageLength);
+
+        return String.format("%tF %<tT.%<tL %-5s %s - %s", timestamp, level,
+                logger, message);
+    }
+
+
+    private long putChars(long position, String source, int length) {
+
+        for (int i = 0; i < length; i++) {
+            buffer.putChar(offset(position, 2 * i), source.charAt(i));
+        }
+
+        return position + 2 * length;
+    }
+
+
+    private String getChars(long position, int length) {
+
+        char[] chars = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(offset(position, 2 * i));
+        }
+
+        return new String(chars);
+    }
+
+
+    private int offset(long position, int offset) {
+
+        return (int) (position + offset) & mask;
+    }
+}
@@ -0,0 +1,130 @@
+package org.springframework.jmx.config;
+
+import static org.springframework.jmx.config.JmxLoggerBeanDefinitionParser.*;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
+import org.springframework.beans.factory.xml.BeanDefinitionParser;
+import org.springframework.beans.factory.xml.ParserContext;
+import org.w3c.dom.Element;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+
+
+/**
+ * {@link BeanDefinitionParser} exposing the appenders attached to the loggers
+ * of the logging backend via JMX. Appenders are discovered while parsing and
+ * exported by the exporter shared with the logger elements. Only supported
+ * for Logback.
+ * 
+ * @author Oliver Gierke
+ */
+class JmxAppendersBeanDefinitionParser implements BeanDefinitionParser {
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.beans.factory.xml.BeanDefinitionParser#parse(org.
+     * w3c.dom.Element, org.springframework.beans.factory.xml.ParserContext)
+     */
+    @Override
+    public BeanDefinition parse(Element element, ParserContext parserContext) {
+
+        String type = element.getAttribute("type");
+        Object source = parserContext.getReaderContext().extractSource(element);
+
+        if (!"Logback".equals(type)) {
+            parserContext.getReaderContext().warning(
+                    "Exposing appenders is not supported for " + type
+                            + " loggers!", source);
+            return null;
+        }
+
+        LoggerContext context =
+                (LoggerContext) LoggerFactory.getILoggerFactory();
+        Map<String, BeanReference> beans =
+                getExporterBeans(parserContext, source);
+
+        for (Appender<ILoggingEvent> appender : getAppenders(context)) {
+
+            String name = getJmxName(appender.getName());
+
+            if (beans.containsKey(name)) {
+                continue;
+            }
+
+            BeanDefinitionBuilder builder =
+                    BeanDefinitionBuilder
+                            .rootBeanDefinition(LogbackJmxAppender.class);
+            builder.addConstructorArgValue(appender);
+
+            String beanName =
+                    BeanDefinitionReaderUtils.registerWithGeneratedName(
+                            getSourcedBeanDefinition(builder, source),
+                            parserContext.getRegistry());
+            beans.put(name, new RuntimeBeanReference(beanName));
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Returns the named appenders attached to the loggers of the given
+     * {@link LoggerContext}, each appender once. Appenders wrapped by a
+     * {@link TimedAppender} are returned instead of the wrapper.
+     * 
+     * @param context
+     * @return
+     */
+    private static Iterable<Appender<ILoggingEvent>> getAppenders(
+            LoggerContext context) {
+
+        Map<Appender<ILoggingEvent>, Boolean> result =
+                new IdentityHashMap<Appender<ILoggingEvent>, Boolean>();
+
+        for (Logger logger : context.getLoggerList()) {
+
+            for (Iterator<Appender<ILoggingEvent>> iterator =
+                    logger.iteratorForAppenders(); iterator.hasNext();) {
+
+                Appender<ILoggingEvent> appender = iterator.next();
+
+                if (appender instanceof TimedAppender) {
+                    appender = ((TimedAppender) appender).getDelegate();
+                }
+
+                if (appender.getName() != null) {
+                    result.put(appender, Boolean.TRUE);
+                }
+            }
+        }
+
+        return result.keySet();
+    }
+
+
+    private static String getJmxName(String appender) {
+
+        String value =
+                appender.matches(".*[,=:\"*?\\n].*") ? ObjectName
+                        .quote(appender) : appender;
+
+        return String.format("%s:appender=%s,backend=Logback",
+                JmxLogger.OVERALL_NAME, value);
+    }
+}
@@ -10,7 +10,7 @@ import org.springframework.util.Assert;
  */
 final class JmxLogger {
 
-    private static final String OVERALL_NAME = "Spring JMX loggers";
+    static final String OVERALL_NAME = "Spring JMX loggers";
 
     private final String name;
     private final String group;
@@ -57,6 +57,29 @@ final class JmxLogger {
     }
 
 
+    /**
+     * Returns the name of the group the logger belongs to or {@literal null}
+     * if it is not grouped.
+     * 
+     * @return
+     */
+    public String getGroup() {
+
+        return group;
+    }
+
+
+    /**
+     * Returns whether the logger is the one the group is named after.
+     * 
+     * @return
+     */
+    public boolean isGroup() {
+
+        return name.equals(group);
+    }
+
+
     /*
      * (non-Javadoc)
      * 
@@ -1,23 +1,36 @@
 package org.springframework.jmx.config;
 
-import java.util.Enumeration;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
-import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
 import org.springframework.beans.factory.config.RuntimeBeanReference;
 import org.springframework.beans.factory.parsing.ReaderContext;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionReaderUtils;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.ManagedMap;
 import org.springframework.beans.factory.xml.BeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
 import org.springframework.jmx.export.annotation.AnnotationMBeanExporter;
+import org.springframework.util.StringUtils;
+import org.springframework.util.xml.DomUtils;
 import org.w3c.dom.Element;
 
 import ch.qos.logback.classic.LoggerContext;
@@ -26,41 +39,101 @@ import ch.qos.logback.classic.LoggerContext;
 /**
  * Simple delegating {@link BeanDefinitionParser} that uses a
  * log-library-specific {@link BeanDefinitionParser} to expose loggers via JMX.
+ * All elements parsed into the same registry share a single
+ * {@link AnnotationMBeanExporter} and a single registry of exposed loggers per
+ * logging backend, so that overlapping elements don't expose a logger twice.
  * 
  * @author Oliver Gierke
  */
 class JmxLoggerBeanDefinitionParser implements BeanDefinitionParser {
 
+    static final String EXPORTER_BEAN_NAME =
+            "org.springframework.jmx.config.internalLoggerMBeanExporter";
+
+    private final Map<Object, LoggerNameIndex> indexes =
+            new WeakHashMap<Object, LoggerNameIndex>();
+    private final Map<Object, Map<String, LoggerNameIndex>> indexFiles =
+            new WeakHashMap<Object, Map<String, LoggerNameIndex>>();
+
+
     @Override
     public BeanDefinition parse(Element element, ParserContext parserContext) {
 
-        BeanDefinitionBuilder builder =
-                BeanDefinitionBuilder
-                        .rootBeanDefinition(AnnotationMBeanExporter.class);
-
         String type = element.getAttribute("type");
         BeanDefinitionParser delegate = null;
 
         if ("Log4J".equals(type)) {
             delegate =
-                    new Log4JAutoDiscoveringLoggerBeanDefinitionParser(builder);
+                    new Log4JAutoDiscoveringLoggerBeanDefinitionParser(indexes,
+                            indexFiles);
         } else if ("Logback".equals(type)) {
             delegate =
                     new LogbackAutoDiscoveringLoggerBeanDefinitionParser(
-                            builder);
+                            indexes, indexFiles);
         } else {
             ReaderContext context = parserContext.getReaderContext();
             context.error("Unsupported logger!", context.extractSource(element));
             return null;
         }
 
-        BeanDefinition result = delegate.parse(element, parserContext);
-        BeanDefinitionReaderUtils.registerWithGeneratedName(
-                builder.getBeanDefinition(), parserContext.getRegistry());
+        return delegate.parse(element, parserContext);
+    }
+
+    /**
+     * Returns the beans to be exported by the {@link AnnotationMBeanExporter}
+     * shared by all elements parsed into the registry. Registers the
+     * exporter if not already done by a previous element.
+     * 
+     * @param parserContext
+     * @param source
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, BeanReference> getExporterBeans(
+            ParserContext parserContext, Object source) {
+
+        BeanDefinitionRegistry registry = parserContext.getRegistry();
+
+        if (registry.containsBeanDefinition(EXPORTER_BEAN_NAME)) {
+            return (Map<String, BeanReference>) registry
+                    .getBeanDefinition(EXPORTER_BEAN_NAME)
+                    .getPropertyValues().getPropertyValue("beans")
+                    .getValue();
+        }
+
+        ManagedMap<String, BeanReference> beans =
+                new ManagedMap<String, BeanReference>();
 
-        return result;
+        BeanDefinitionBuilder builder =
+                BeanDefinitionBuilder
+                        .rootBeanDefinition(AnnotationMBeanExporter.class);
+        builder.addPropertyValue("beans", beans);
+
+        registry.registerBeanDefinition(EXPORTER_BEAN_NAME,
+                getSourcedBeanDefinition(builder, source));
+
+        return beans;
     }
 
+
+    /**
+     * Returns the bean definition built by the given builder marked as
+     * infrastructure bean originating from the given source.
+     * 
+     * @param builder
+     * @param source
+     * @return
+     */
+    static AbstractBeanDefinition getSourcedBeanDefinition(
+            BeanDefinitionBuilder builder, Object source) {
+
+        AbstractBeanDefinition definition = builder.getBeanDefinition();
+        definition.setSource(source);
+        definition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+        return definition;
+    }
+
+
     /**
      * Base class to implement auto discovery of loggers.
      * 
@@ -69,13 +142,21 @@ class JmxLoggerBeanDefinitionParser implements BeanDefinitionParser {
     private static abstract class AbstractAutoDiscoveringLoggerBeanDefinitionParser
             implements BeanDefinitionParser {
 
-        private final BeanDefinitionBuilder exporterBuilder;
+        private final Map<Object, LoggerNameIndex> indexes;
+        private final Map<Object, Map<String, LoggerNameIndex>> indexFiles;
+        private final String type;
+        protected final LoggerBackend backend;
 
 
         public AbstractAutoDiscoveringLoggerBeanDefinitionParser(
-                BeanDefinitionBuilder builder) {
+                Map<Object, LoggerNameIndex> indexes,
+                Map<Object, Map<String, LoggerNameIndex>> indexFiles,
+                String type, LoggerBackend backend) {
 
-            this.exporterBuilder = builder;
+            this.indexes = indexes;
+            this.indexFiles = indexFiles;
+            this.type = type;
+            this.backend = backend;
         }
 
 
@@ -87,46 +168,634 @@ class JmxLoggerBeanDefinitionParser implements BeanDefinitionParser {
             boolean omitClassLoggers =
                     Boolean.parseBoolean(element
                             .getAttribute("omit-class-loggers"));
+            boolean lazy = Boolean.parseBoolean(element.getAttribute("lazy"));
+            boolean live = Boolean.parseBoolean(element.getAttribute("live"));
+            boolean async = Boolean.parseBoolean(element.getAttribute("async"));
+            String indexLocation = element.getAttribute("index");
+            boolean countEvents =
+                    Boolean.parseBoolean(element.getAttribute("count-events"));
+            String budget = element.getAttribute("budget");
+            String burstThreshold = element.getAttribute("burst-threshold");
+            String tailBuffer = element.getAttribute("tail-buffer");
+            String levelJournal = element.getAttribute("level-journal");
+            boolean timeAppenders =
+                    Boolean.parseBoolean(element
+                            .getAttribute("time-appenders"));
+            boolean propagateToJul =
+                    Boolean.parseBoolean(element
+                            .getAttribute("propagate-to-jul"));
 
             LoggerSelector selector =
                     new LoggerSelector(basePackage, levels, omitClassLoggers);
-            JmxLoggers alreadyRegistered = new JmxLoggers();
-            ManagedMap<String, BeanReference> beans =
-                    new ManagedMap<String, BeanReference>();
             Object source =
                     parserContext.getReaderContext().extractSource(element);
 
-            for (String loggerSource : getSources(basePackage)) {
+            Map<String, BeanReference> beans =
+                    getExporterBeans(parserContext, source);
+            JmxLoggers registered =
+                    getRegisteredLoggers(beans, parserContext, source);
+
+            registerProfiles(element, parserContext);
+
+            if (StringUtils.hasText(levelJournal)) {
+                registerLevelJournalBeanDefinition(levelJournal, beans,
+                        parserContext, source);
+            }
+
+            if (countEvents) {
+                registerEventCounterBeanDefinition(parserContext, source);
+            }
+
+            if (StringUtils.hasText(budget)) {
+                registerThrottleBeanDefinition(new ThrottleRule(basePackage,
+                        Long.parseLong(budget), element
+                                .getAttribute("throttle-level"), Integer
+                                .parseInt(element.getAttribute("cool-down"))),
+                        beans, parserContext, source);
+            }
+
+            if (StringUtils.hasText(burstThreshold)) {
+                registerBurstDetectorBeanDefinition(new BurstRule(basePackage,
+                        Long.parseLong(burstThreshold), Integer
+                                .parseInt(element.getAttribute("burst-window"))),
+                        parserContext, source);
+            }
+
+            if (timeAppenders) {
+                registerAppenderTimerBeanDefinition(basePackage, beans,
+                        parserContext, source);
+            }
+
+            if (propagateToJul) {
+                registerJulPropagatorBeanDefinition(basePackage,
+                        parserContext, source);
+            }
+
+            if (StringUtils.hasText(tailBuffer)) {
+                registerRecentEventsBeanDefinition(new RecentEventsRule(
+                        basePackage, Integer.parseInt(tailBuffer)),
+                        parserContext, source);
+            }
+
+            JmxLoggers found = new JmxLoggers();
+            Iterable<String> loggerSources = Collections.<String> emptySet();
+
+            if (StringUtils.hasText(indexLocation)) {
+                loggerSources =
+                        getIndex(indexLocation, parserContext, source)
+                                .getSourcesBelow(basePackage, levels);
+            } else if (!async) {
+                loggerSources =
+                        getIndex().getSourcesBelow(basePackage, levels);
+            }
+
+            for (String loggerSource : loggerSources) {
 
                 for (JmxLogger toBeRegistered : selector.getLoggersFor(
-                        loggerSource, alreadyRegistered)) {
+                        loggerSource, registered)) {
 
-                    String defName =
-                            registerBeanDefinition(toBeRegistered,
-                                    parserContext, source);
+                    if (!lazy) {
+                        String defName =
+                                registerBeanDefinition(toBeRegistered,
+                                        parserContext, source);
+
+                        beans.put(toBeRegistered.getJmxName(),
+                                new RuntimeBeanReference(defName));
+                    }
 
-                    beans.put(toBeRegistered.getJmxName(),
-                            new RuntimeBeanReference(defName));
-                    alreadyRegistered.add(toBeRegistered);
+                    registered.add(toBeRegistered);
+                    found.add(toBeRegistered);
                 }
             }
 
-            exporterBuilder.addPropertyValue("beans", beans);
+            if (lazy) {
+                registerGroupBeanDefinitions(found, beans, parserContext,
+                        source);
+            }
+
+            if (live || async) {
+                registerLiveRegistrarBeanDefinition(element, selector,
+                        registered, async, parserContext, source);
+            }
+
             return null;
         }
 
 
-        protected static AbstractBeanDefinition getSourcedBeanDefinition(
-                BeanDefinitionBuilder builder, Object source) {
+        /**
+         * Registers the bean counting logging events unless already
+         * registered. The shared exporter is set up to depend on it so that
+         * the counter is in place before logger MBeans get registered.
+         * Counting events is not supported by default.
+         * 
+         * @param parserContext
+         * @param source
+         */
+        protected void registerEventCounterBeanDefinition(
+                ParserContext parserContext, Object source) {
+
+            parserContext.getReaderContext().warning(
+                    "Counting events is not supported for " + type
+                            + " loggers!", source);
+        }
+
+
+        /**
+         * Registers the given {@link ThrottleRule} with the bean throttling
+         * logger groups exceeding their budget, registering the bean and its
+         * MBean on first use. Throttling is not supported by default.
+         * 
+         * @param rule
+         * @param beans
+         * @param parserContext
+         * @param source
+         */
+        protected void registerThrottleBeanDefinition(ThrottleRule rule,
+                Map<String, BeanReference> beans, ParserContext parserContext,
+                Object source) {
+
+            parserContext.getReaderContext().warning(
+                    "Throttling is not supported for " + type + " loggers!",
+                    source);
+        }
+
+
+        /**
+         * Registers the given {@link BurstRule} with the bean detecting bursts
+         * of ERROR and WARN events, registering the bean on first use. The
+         * shared exporter is set up to depend on it so that the group MBeans
+         * find it when registered. Detecting bursts is not supported by
+         * default.
+         * 
+         * @param rule
+         * @param parserContext
+         * @param source
+         */
+        protected void registerBurstDetectorBeanDefinition(BurstRule rule,
+                ParserContext parserContext, Object source) {
+
+            parserContext.getReaderContext().warning(
+                    "Detecting bursts is not supported for " + type
+                            + " loggers!", source);
+        }
+
+
+        /**
+         * Registers the given {@link RecentEventsRule} with the bean keeping
+         * the recent events of logger groups, registering the bean on first
+         * use. The shared exporter is set up to depend on it so that the
+         * events are available once the group MBeans are registered. Keeping
+         * recent events is not supported by default.
+         * 
+         * @param rule
+         * @param parserContext
+         * @param source
+         */
+        protected void registerRecentEventsBeanDefinition(
+                RecentEventsRule rule, ParserContext parserContext,
+                Object source) {
+
+            parserContext.getReaderContext().warning(
+                    "Keeping recent events is not supported for " + type
+                            + " loggers!", source);
+        }
+
+
+        /**
+         * Registers the given base package with the bean timing the appenders
+         * of the loggers below, registering the bean and its MBean on first
+         * use. The shared exporter is set up to depend on it so that the
+         * logger MBeans find it when registered. Timing appenders is not
+         * supported by default.
+         * 
+         * @param basePackage
+         * @param beans
+         * @param parserContext
+         * @param source
+         */
+        protected void registerAppenderTimerBeanDefinition(String basePackage,
+                Map<String, BeanReference> beans, ParserContext parserContext,
+                Object source) {
+
+            parserContext.getReaderContext().warning(
+                    "Timing appenders is not supported for " + type
+                            + " loggers!", source);
+        }
+
+
+        /**
+         * Registers the given base package with the bean propagating levels
+         * to the JUL loggers of the same name, registering the bean on first
+         * use. Propagating levels to JUL is not supported by default.
+         * 
+         * @param basePackage
+         * @param parserContext
+         * @param source
+         */
+        protected void registerJulPropagatorBeanDefinition(
+                String basePackage, ParserContext parserContext, Object source) {
+
+            parserContext.getReaderContext().warning(
+                    "Propagating levels to JUL is not supported for " + type
+                            + " loggers!", source);
+        }
+
+
+        /**
+         * Makes the exporter shared by all elements depend on the bean with
+         * the given name.
+         * 
+         * @param beanName
+         * @param parserContext
+         */
+        protected static void addExporterDependency(String beanName,
+                ParserContext parserContext) {
+
+            AbstractBeanDefinition exporter =
+                    (AbstractBeanDefinition) parserContext.getRegistry()
+                            .getBeanDefinition(EXPORTER_BEAN_NAME);
+            String[] dependsOn = exporter.getDependsOn();
+
+            if (dependsOn != null && Arrays.asList(dependsOn).contains(beanName)) {
+                return;
+            }
+
+            exporter.setDependsOn(StringUtils.addStringToArray(dependsOn,
+                    beanName));
+        }
+
+
+        /**
+         * Returns the {@link JmxLoggers} already exposed for the backend by
+         * previously parsed elements. On first access registers the
+         * {@link JmxLoggerLevels} and {@link JmxLoggerTree} MBeans for the
+         * backend, the latter holding the returned {@link JmxLoggers}.
+         * 
+         * @param beans
+         * @param parserContext
+         * @param source
+         * @return
+         */
+        private JmxLoggers getRegisteredLoggers(
+                Map<String, BeanReference> beans, ParserContext parserContext,
+                Object source) {
+
+            BeanDefinitionRegistry registry = parserContext.getRegistry();
+            String treeBeanName = getTreeBeanName();
+
+            if (registry.containsBeanDefinition(treeBeanName)) {
+
+                ValueHolder holder =
+                        registry.getBeanDefinition(treeBeanName)
+                                .getConstructorArgumentValues()
+                                .getIndexedArgumentValue(1, JmxLoggers.class);
+                return (JmxLoggers) holder.getValue();
+            }
+
+            JmxLoggers loggers = new JmxLoggers();
+
+            BeanDefinitionBuilder builder =
+                    BeanDefinitionBuilder.rootBeanDefinition(JmxLoggerTree.class);
+            builder.addConstructorArgValue(backend);
+            builder.addConstructorArgValue(loggers);
+
+            registry.registerBeanDefinition(treeBeanName,
+                    getSourcedBeanDefinition(builder, source));
+            beans.put(String.format("%s:service=Loggers,backend=%s",
+                    JmxLogger.OVERALL_NAME, type), new RuntimeBeanReference(
+                    treeBeanName));
+
+            String levelsBeanName = getLevelsBeanName();
+
+            builder =
+                    BeanDefinitionBuilder
+                            .rootBeanDefinition(JmxLoggerLevels.class);
+            builder.addConstructorArgValue(backend);
+            builder.addConstructorArgValue(new LinkedHashMap<String, Map<String, String>>());
+
+            registry.registerBeanDefinition(levelsBeanName,
+                    getSourcedBeanDefinition(builder, source));
+            beans.put(String.format("%s:service=Levels,backend=%s",
+                    JmxLogger.OVERALL_NAME, type), new RuntimeBeanReference(
+                    levelsBeanName));
+
+            return loggers;
+        }
+
+
+        /**
+         * Registers the {@link LevelJournal} for the backend writing to the
+         * given location unless already registered by a previous element. The
+         * shared exporter is set up to depend on it so that the recorded
+         * levels are restored before the logger MBeans get registered.
+         * 
+         * @param location
+         * @param beans
+         * @param parserContext
+         * @param source
+         */
+        private void registerLevelJournalBeanDefinition(String location,
+                Map<String, BeanReference> beans, ParserContext parserContext,
+                Object source) {
+
+            BeanDefinitionRegistry registry = parserContext.getRegistry();
+            String beanName = LevelJournal.class.getName() + "#" + type;
+
+            if (registry.containsBeanDefinition(beanName)) {
+                return;
+            }
+
+            BeanDefinitionBuilder builder =
+                    BeanDefinitionBuilder.rootBeanDefinition(LevelJournal.class);
+            builder.addConstructorArgValue(backend);
+            builder.addConstructorArgValue(location);
+
+            registry.registerBeanDefinition(beanName,
+                    getSourcedBeanDefinition(builder, source));
+            beans.put(String.format("%s:service=LevelJournal,backend=%s",
+                    JmxLogger.OVERALL_NAME, type), new RuntimeBeanReference(
+                    beanName));
+            addExporterDependency(beanName, parserContext);
+        }
+
+
+        /**
+         * Adds the level profiles defined by the given element to the ones of
+         * the {@link JmxLoggerLevels} of the backend. The levels of profiles
+         * with the same name defined by multiple elements are merged.
+         * 
+         * @param element
+         * @param parserContext
+         */
+        @SuppressWarnings("unchecked")
+        private void registerProfiles(Element element,
+                ParserContext parserContext) {
+
+            List<Element> profileElements =
+                    DomUtils.getChildElementsByTagName(element, "profile");
+
+            if (profileElements.isEmpty()) {
+                return;
+            }
+
+            ValueHolder holder =
+                    parserContext.getRegistry()
+                            .getBeanDefinition(getLevelsBeanName())
+                            .getConstructorArgumentValues()
+                            .getIndexedArgumentValue(1, Map.class);
+            Map<String, Map<String, String>> profiles =
+                    (Map<String, Map<String, String>>) holder.getValue();
+
+            for (Element profileElement : profileElements) {
+
+                String name = profileElement.getAttribute("name");
+                Map<String, String> levels = profiles.get(name);
+
+                if (levels == null) {
+                    levels = new LinkedHashMap<String, String>();
+                    profiles.put(name, levels);
+                }
+
+                for (Element levelElement : DomUtils.getChildElementsByTagName(
+                        profileElement, "level")) {
+                    levels.put(levelElement.getAttribute("logger"),
+                            levelElement.getAttribute("value"));
+                }
+            }
+        }
+
+
+        private String getLevelsBeanName() {
+
+            return JmxLoggerLevels.class.getName() + "#" + type;
+        }
+
+
+        /**
+         * Registers a {@link LiveLoggerRegistrar} to expose loggers created
+         * after the element was parsed or, if discovering in the background,
+         * all loggers selected by the element.
+         * 
+         * @param element
+         * @param selector
+         * @param loggers
+         * @param discover
+         * @param parserContext
+         * @param source
+         */
+        private void registerLiveRegistrarBeanDefinition(Element element,
+                LoggerSelector selector, JmxLoggers loggers, boolean discover,
+                ParserContext parserContext, Object source) {
+
+            BeanDefinitionBuilder builder =
+                    BeanDefinitionBuilder
+                            .rootBeanDefinition(LiveLoggerRegistrar.class);
+            builder.addConstructorArgValue(backend);
+            builder.addConstructorArgValue(selector);
+            builder.addConstructorArgValue(loggers);
+            builder.addConstructorArgReference(EXPORTER_BEAN_NAME);
+            builder.addPropertyValue("interval",
+                    element.getAttribute("live-interval"));
+            builder.addPropertyValue("live", element.getAttribute("live"));
+            builder.addPropertyValue("discover", discover);
+            builder.addPropertyReference("tree", getTreeBeanName());
+
+            if (discover) {
+
+                MutablePropertyValues values =
+                        parserContext.getRegistry()
+                                .getBeanDefinition(getTreeBeanName())
+                                .getPropertyValues();
+                PropertyValue pending =
+                        values.getPropertyValue("pendingDiscoveries");
+
+                values.add("pendingDiscoveries", pending == null ? 1
+                        : (Integer) pending.getValue() + 1);
+            }
+
+            BeanDefinitionReaderUtils.registerWithGeneratedName(
+                    getSourcedBeanDefinition(builder, source),
+                    parserContext.getRegistry());
+        }
+
+
+        private String getTreeBeanName() {
 
-            AbstractBeanDefinition definition = builder.getBeanDefinition();
-            definition.setSource(source);
-            definition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
-            return definition;
+            return JmxLoggerTree.class.getName() + "#" + type;
         }
 
 
-        protected abstract Iterable<String> getSources(String basePackage);
+        /**
+         * Registers a {@link JmxLoggerGroup} per group contained in the given
+         * {@link JmxLoggers}. Loggers not belonging to a group are registered
+         * directly. Loggers of a group already exposed through a
+         * {@link JmxLoggerGroup} by another element are added to it, the ones
+         * of a group whose logger another element exposed directly are
+         * registered directly as well.
+         * 
+         * @param loggers
+         * @param beans
+         * @param parserContext
+         * @param source
+         */
+        @SuppressWarnings("unchecked")
+        private void registerGroupBeanDefinitions(JmxLoggers loggers,
+                Map<String, BeanReference> beans,
+                ParserContext parserContext, Object source) {
+
+            BeanDefinitionRegistry registry = parserContext.getRegistry();
+            Map<String, List<JmxLogger>> groups =
+                    new HashMap<String, List<JmxLogger>>();
+
+            for (JmxLogger logger : loggers) {
+
+                if (logger.getGroup() == null) {
+
+                    String defName =
+                            registerBeanDefinition(logger, parserContext,
+                                    source);
+                    beans.put(logger.getJmxName(), new RuntimeBeanReference(
+                            defName));
+                    continue;
+                }
+
+                List<JmxLogger> members = groups.get(logger.getGroup());
+
+                if (members == null) {
+                    members = new ArrayList<JmxLogger>();
+                    groups.put(logger.getGroup(), members);
+                }
+
+                if (!logger.isGroup()) {
+                    members.add(logger);
+                }
+            }
+
+            for (Map.Entry<String, List<JmxLogger>> group : groups.entrySet()) {
+
+                String beanName = getGroupBeanName(group.getKey());
+                List<String> names = new ArrayList<String>();
+
+                for (JmxLogger member : group.getValue()) {
+                    names.add(member.getName());
+                }
+
+                if (registry.containsBeanDefinition(beanName)) {
+
+                    ValueHolder holder =
+                            registry.getBeanDefinition(beanName)
+                                    .getConstructorArgumentValues()
+                                    .getIndexedArgumentValue(2, List.class);
+                    ((List<String>) holder.getValue()).addAll(names);
+                    continue;
+                }
+
+                if (loggers.getLogger(group.getKey()) == null) {
+
+                    for (JmxLogger member : group.getValue()) {
+                        String defName =
+                                registerBeanDefinition(member, parserContext,
+                                        source);
+                        beans.put(member.getJmxName(),
+                                new RuntimeBeanReference(defName));
+                    }
+
+                    continue;
+                }
+
+                BeanDefinitionBuilder builder =
+                        BeanDefinitionBuilder
+                                .rootBeanDefinition(JmxLoggerGroup.class);
+                builder.addConstructorArgValue(backend);
+                builder.addConstructorArgValue(group.getKey());
+                builder.addConstructorArgValue(names);
+
+                registry.registerBeanDefinition(beanName,
+                        getSourcedBeanDefinition(builder, source));
+                beans.put(new JmxLogger(group.getKey(), group.getKey())
+                        .getJmxName(), new RuntimeBeanReference(beanName));
+            }
+        }
+
+
+        private String getGroupBeanName(String group) {
+
+            return JmxLoggerGroup.class.getName() + "#" + type + "#" + group;
+        }
+
+
+        /**
+         * Returns the {@link LoggerNameIndex} for the logger repository in
+         * use. The index is built on first access and shared by all elements
+         * parsed for the same repository.
+         * 
+         * @return
+         */
+        private LoggerNameIndex getIndex() {
+
+            Object repository = backend.getRepository();
+
+            synchronized (indexes) {
+
+                LoggerNameIndex index = indexes.get(repository);
+
+                if (index == null) {
+                    index = new LoggerNameIndex(backend.getLoggerNames());
+                    indexes.put(repository, index);
+                }
+
+                return index;
+            }
+        }
+
+
+        /**
+         * Returns the {@link LoggerNameIndex} loaded from the logger index
+         * files at the given location. Indexes are cached by location per
+         * registry.
+         * 
+         * @param location a resource location, can be a pattern
+         * @param parserContext
+         * @param source
+         * @return
+         */
+        private LoggerNameIndex getIndex(String location,
+                ParserContext parserContext, Object source) {
+
+            synchronized (indexFiles) {
+
+                Map<String, LoggerNameIndex> indexes =
+                        indexFiles.get(parserContext.getRegistry());
+
+                if (indexes == null) {
+                    indexes = new HashMap<String, LoggerNameIndex>();
+                    indexFiles.put(parserContext.getRegistry(), indexes);
+                }
+
+                LoggerNameIndex index = indexes.get(location);
+
+                if (index != null) {
+                    return index;
+                }
+
+                ResourcePatternResolver resolver =
+                        ResourcePatternUtils
+                                .getResourcePatternResolver(parserContext
+                                        .getReaderContext().getResourceLoader());
+
+                try {
+                    index = LoggerNameIndex.load(resolver.getResources(location));
+                } catch (IOException e) {
+                    parserContext.getReaderContext().error(
+                            "Could not read logger index " + location + "!",
+                            source, e);
+                    index = new LoggerNameIndex(new ArrayList<String>());
+                }
+
+                indexes.put(location, index);
+                return index;
+            }
+        }
 
 
         protected abstract String registerBeanDefinition(JmxLogger logger,
@@ -142,92 +811,242 @@ class JmxLoggerBeanDefinitionParser implements BeanDefinitionParser {
             AbstractAutoDiscoveringLoggerBeanDefinitionParser {
 
         public Log4JAutoDiscoveringLoggerBeanDefinitionParser(
-                BeanDefinitionBuilder builder) {
+                Map<Object, LoggerNameIndex> indexes,
+                Map<Object, Map<String, LoggerNameIndex>> indexFiles) {
 
-            super(builder);
+            super(indexes, indexFiles, "Log4J", new Log4JLoggerBackend());
         }
 
 
         @Override
-        protected Iterable<String> getSources(String basePackage) {
+        protected String registerBeanDefinition(JmxLogger logger,
+                ParserContext parserContext, Object source) {
 
-            Set<String> sources = new HashSet<String>();
+            BeanDefinitionBuilder builder =
+                    BeanDefinitionBuilder
+                            .rootBeanDefinition(Log4JJmxLogger.class);
+            builder.addConstructorArgValue(Logger.getLogger(logger.getName()));
 
-            for (Enumeration<?> e = LogManager.getCurrentLoggers(); e
-                    .hasMoreElements();) {
-                String loggerName = ((Logger) e.nextElement()).getName();
+            return BeanDefinitionReaderUtils.registerWithGeneratedName(
+                    getSourcedBeanDefinition(builder, source),
+                    parserContext.getRegistry());
+        }
+    }
 
-                if (loggerName.startsWith(basePackage)) {
-                    sources.add(loggerName);
-                }
-            }
-            return sources;
+    private static class LogbackAutoDiscoveringLoggerBeanDefinitionParser
+            extends AbstractAutoDiscoveringLoggerBeanDefinitionParser {
+
+        private final LoggerContext context;
+
+
+        public LogbackAutoDiscoveringLoggerBeanDefinitionParser(
+                Map<Object, LoggerNameIndex> indexes,
+                Map<Object, Map<String, LoggerNameIndex>> indexFiles) {
+
+            this(indexes, indexFiles, (LoggerContext) LoggerFactory
+                    .getILoggerFactory());
+        }
+
+
+        private LogbackAutoDiscoveringLoggerBeanDefinitionParser(
+                Map<Object, LoggerNameIndex> indexes,
+                Map<Object, Map<String, LoggerNameIndex>> indexFiles,
+                LoggerContext context) {
+
+            super(indexes, indexFiles, "Logback", new LogbackLoggerBackend(
+                    context));
+            this.context = context;
         }
 
 
+        /*
+         * Registers an EventCountingTurboFilter for the LoggerContext.
+         * 
+         * @see org.springframework.jmx.config.JmxLoggerBeanDefinitionParser.
+         * AbstractAutoDiscoveringLoggerBeanDefinitionParser
+         * #registerEventCounterBeanDefinition
+         * (org.springframework.beans.factory.xml.ParserContext,
+         * java.lang.Object)
+         */
         @Override
-        protected String registerBeanDefinition(JmxLogger logger,
+        protected void registerEventCounterBeanDefinition(
                 ParserContext parserContext, Object source) {
 
-            BeanDefinitionBuilder builder =
-                    BeanDefinitionBuilder
-                            .rootBeanDefinition("org.apache.log4j.jmx.LoggerDynamicMBean");
-            builder.addConstructorArgValue(getLoggerBeanDefinition(
-                    logger.getName(), source));
+            String beanName = EventCountingTurboFilter.class.getName();
 
-            return BeanDefinitionReaderUtils.registerWithGeneratedName(
-                    getSourcedBeanDefinition(builder, source),
-                    parserContext.getRegistry());
+            if (!parserContext.getRegistry().containsBeanDefinition(beanName)) {
+
+                BeanDefinitionBuilder builder =
+                        BeanDefinitionBuilder
+                                .rootBeanDefinition(EventCountingTurboFilter.class);
+                builder.addConstructorArgValue(context);
+
+                parserContext.getRegistry().registerBeanDefinition(beanName,
+                        getSourcedBeanDefinition(builder, source));
+            }
+
+            addExporterDependency(beanName, parserContext);
         }
 
 
-        private BeanDefinition getLoggerBeanDefinition(String name,
+        /*
+         * Registers an AppenderTimer for the LoggerContext holding the base
+         * packages of all elements.
+         * 
+         * @see org.springframework.jmx.config.JmxLoggerBeanDefinitionParser.
+         * AbstractAutoDiscoveringLoggerBeanDefinitionParser
+         * #registerAppenderTimerBeanDefinition(java.lang.String,
+         * java.util.Map, org.springframework.beans.factory.xml.ParserContext,
+         * java.lang.Object)
+         */
+        @Override
+        protected void registerAppenderTimerBeanDefinition(String basePackage,
+                Map<String, BeanReference> beans, ParserContext parserContext,
                 Object source) {
 
-            BeanDefinitionBuilder innerBuilder =
-                    BeanDefinitionBuilder
-                            .rootBeanDefinition("org.apache.log4j.Logger");
-            innerBuilder.setFactoryMethod("getLogger");
-            innerBuilder.addConstructorArgValue(name);
-            return getSourcedBeanDefinition(innerBuilder, source);
+            if (!appendToSharedBean(AppenderTimer.class, basePackage,
+                    parserContext, source)) {
+                return;
+            }
+
+            String beanName = AppenderTimer.class.getName();
+            beans.put(String.format("%s:service=Appenders,backend=Logback",
+                    JmxLogger.OVERALL_NAME), new RuntimeBeanReference(beanName));
+            addExporterDependency(beanName, parserContext);
         }
 
-    }
 
-    private static class LogbackAutoDiscoveringLoggerBeanDefinitionParser
-            extends AbstractAutoDiscoveringLoggerBeanDefinitionParser {
+        /*
+         * Registers a JulLevelPropagator for the LoggerContext holding the base
+         * packages of all elements.
+         * 
+         * @see org.springframework.jmx.config.JmxLoggerBeanDefinitionParser.
+         * AbstractAutoDiscoveringLoggerBeanDefinitionParser
+         * #registerJulPropagatorBeanDefinition(java.lang.String,
+         * org.springframework.beans.factory.xml.ParserContext,
+         * java.lang.Object)
+         */
+        @Override
+        protected void registerJulPropagatorBeanDefinition(
+                String basePackage, ParserContext parserContext, Object source) {
 
-        private final LoggerContext context = (LoggerContext) LoggerFactory
-                .getILoggerFactory();
+            appendToSharedBean(JulLevelPropagator.class, basePackage,
+                    parserContext, source);
+        }
 
 
-        public LogbackAutoDiscoveringLoggerBeanDefinitionParser(
-                BeanDefinitionBuilder builder) {
+        /*
+         * Registers a RecentEventsAppender for the LoggerContext holding the
+         * rules of all elements.
+         * 
+         * @see org.springframework.jmx.config.JmxLoggerBeanDefinitionParser.
+         * AbstractAutoDiscoveringLoggerBeanDefinitionParser
+         * #registerRecentEventsBeanDefinition
+         * (org.springframework.jmx.config.RecentEventsRule,
+         * org.springframework.beans.factory.xml.ParserContext,
+         * java.lang.Object)
+         */
+        @Override
+        protected void registerRecentEventsBeanDefinition(
+                RecentEventsRule rule, ParserContext parserContext,
+                Object source) {
 
-            super(builder);
+            if (appendToSharedBean(RecentEventsAppender.class, rule,
+                    parserContext, source)) {
+                addExporterDependency(RecentEventsAppender.class.getName(),
+                        parserContext);
+            }
         }
 
 
         /*
-         * (non-Javadoc)
+         * Registers a BurstCountingTurboFilter for the LoggerContext holding
+         * the rules of all elements.
          * 
          * @see org.springframework.jmx.config.JmxLoggerBeanDefinitionParser.
          * AbstractAutoDiscoveringLoggerBeanDefinitionParser
-         * #getSources(java.lang.String)
+         * #registerBurstDetectorBeanDefinition
+         * (org.springframework.jmx.config.BurstRule,
+         * org.springframework.beans.factory.xml.ParserContext,
+         * java.lang.Object)
          */
         @Override
-        protected Iterable<String> getSources(String basePackage) {
+        protected void registerBurstDetectorBeanDefinition(BurstRule rule,
+                ParserContext parserContext, Object source) {
 
-            Set<String> result = new HashSet<String>();
+            if (appendToSharedBean(BurstCountingTurboFilter.class, rule,
+                    parserContext, source)) {
+                addExporterDependency(BurstCountingTurboFilter.class.getName(),
+                        parserContext);
+            }
+        }
 
-            for (ch.qos.logback.classic.Logger logger : context.getLoggerList()) {
-                if (logger.getName().startsWith(basePackage)) {
 
-                    result.add(logger.getName());
-                }
+        /*
+         * Registers a LoggerThrottle for the LoggerContext holding the rules
+         * of all elements.
+         * 
+         * @see org.springframework.jmx.config.JmxLoggerBeanDefinitionParser.
+         * AbstractAutoDiscoveringLoggerBeanDefinitionParser
+         * #registerThrottleBeanDefinition
+         * (org.springframework.jmx.config.ThrottleRule, java.util.Map,
+         * org.springframework.beans.factory.xml.ParserContext,
+         * java.lang.Object)
+         */
+        @Override
+        protected void registerThrottleBeanDefinition(ThrottleRule rule,
+                Map<String, BeanReference> beans, ParserContext parserContext,
+                Object source) {
+
+            if (appendToSharedBean(LoggerThrottle.class, rule, parserContext,
+                    source)) {
+                beans.put(String.format("%s:service=Throttle,backend=Logback",
+                        JmxLogger.OVERALL_NAME), new RuntimeBeanReference(
+                        LoggerThrottle.class.getName()));
             }
+        }
+
+
+        /**
+         * Adds the given item to the list handed to the shared bean of the
+         * given type as second constructor argument, next to the
+         * {@link LoggerContext}. Registers the bean named after the type if
+         * not registered yet.
+         * 
+         * @param type
+         * @param item
+         * @param parserContext
+         * @param source
+         * @return whether the bean was registered
+         */
+        @SuppressWarnings("unchecked")
+        private <T> boolean appendToSharedBean(Class<?> type, T item,
+                ParserContext parserContext, Object source) {
+
+            BeanDefinitionRegistry registry = parserContext.getRegistry();
+            String beanName = type.getName();
+
+            if (registry.containsBeanDefinition(beanName)) {
+
+                ValueHolder holder =
+                        registry.getBeanDefinition(beanName)
+                                .getConstructorArgumentValues()
+                                .getIndexedArgumentValue(1, List.class);
+                ((List<T>) holder.getValue()).add(item);
+                return false;
+            }
+
+            List<T> items = new ArrayList<T>();
+            items.add(item);
+
+            BeanDefinitionBuilder builder =
+                    BeanDefinitionBuilder.rootBeanDefinition(type);
+            builder.addConstructorArgValue(context);
+            builder.addConstructorArgValue(items);
 
-            return result;
+            registry.registerBeanDefinition(beanName,
+                    getSourcedBeanDefinition(builder, source));
+            return true;
         }
 
 
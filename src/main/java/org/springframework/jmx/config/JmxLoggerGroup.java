@@ -0,0 +1,334 @@
+package org.springframework.jmx.config;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.AttributeNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanRegistration;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * MBean exposing a logger group, i.e. the logger named after the group
+ * together with the loggers nested inside it. The nested loggers are not
+ * registered with the MBean server upfront but listed by the group and
+ * addressed through its operations. A dedicated MBean for a nested logger is
+ * registered the first time it is addressed.
+ * 
+ * @author Oliver Gierke
+ */
+public class JmxLoggerGroup extends AbstractJmxLogger implements
+        MBeanRegistration {
+
+    protected static final String LOGGERS = "Loggers";
+    protected static final String GET_LOGGER_LEVEL = "getLoggerLevel";
+    protected static final String SET_LOGGER_LEVEL = "setLoggerLevel";
+    protected static final String EXPOSE = "expose";
+
+    private static final MBeanAttributeInfo[] ATTRIBUTES =
+            { new MBeanAttributeInfo(LOGGERS, String[].class.getName(),
+                    "The names of the loggers nested in the group", true,
+                    false, false) };
+
+    private static final MBeanOperationInfo[] OPERATIONS = {
+            new MBeanOperationInfo(GET_LOGGER_LEVEL,
+                    "Returns the level of the given nested logger",
+                    new MBeanParameterInfo[] { stringParameter("name",
+                            "The logger name") }, String.class.getName(),
+                    MBeanOperationInfo.INFO),
+            new MBeanOperationInfo(SET_LOGGER_LEVEL,
+                    "Sets the level of the given nested logger",
+                    new MBeanParameterInfo[] {
+                            stringParameter("name", "The logger name"),
+                            stringParameter("level", "The level") },
+                    void.class.getName(), MBeanOperationInfo.ACTION),
+            new MBeanOperationInfo(EXPOSE,
+                    "Registers an MBean for the given nested logger",
+                    new MBeanParameterInfo[] { stringParameter("name",
+                            "The logger name") }, String.class.getName(),
+                    MBeanOperationInfo.ACTION) };
+
+    private static final MBeanInfo MBEAN_INFO = createMBeanInfo(
+            JmxLoggerGroup.class,
+            "Logger group exposing nested loggers on demand", ATTRIBUTES,
+            OPERATIONS);
+    private static final MBeanInfo EVENTS_MBEAN_INFO = createMBeanInfo(
+            JmxLoggerGroup.class,
+            "Logger group exposing nested loggers on demand", ATTRIBUTES,
+            concat(OPERATIONS, getEventOperations()));
+
+    private final LoggerBackend backend;
+    private final String name;
+    private final Set<String> loggers;
+    private final Map<String, ObjectName> exposed =
+            new ConcurrentHashMap<String, ObjectName>();
+
+    private volatile MBeanServer server;
+
+
+    /**
+     * Creates a new {@link JmxLoggerGroup}.
+     * 
+     * @param backend
+     * @param name the name of the group logger
+     * @param loggers the names of the loggers nested in the group
+     */
+    JmxLoggerGroup(LoggerBackend backend, String name,
+            Collection<String> loggers) {
+
+        Assert.notNull(backend);
+        Assert.hasText(name);
+
+        this.backend = backend;
+        this.name = name;
+        this.loggers = new TreeSet<String>(loggers);
+    }
+
+
+    @Override
+    public String getName() {
+
+        return name;
+    }
+
+
+    @Override
+    public String getLevel() {
+
+        return backend.getLevel(name);
+    }
+
+
+    @Override
+    public void setLevel(String level) {
+
+        backend.setLevel(name, level);
+    }
+
+
+    @Override
+    LoggerBackend getBackend() {
+
+        return backend;
+    }
+
+
+    /**
+     * Returns the names of the loggers nested in the group.
+     * 
+     * @return
+     */
+    public String[] getLoggers() {
+
+        return loggers.toArray(new String[loggers.size()]);
+    }
+
+
+    /**
+     * Returns the level of the given nested logger. Reading the level doesn't
+     * register an MBean for the logger.
+     * 
+     * @param logger
+     * @return
+     */
+    public String getLoggerLevel(String logger) {
+
+        assertNested(logger);
+        return backend.getLevel(logger);
+    }
+
+
+    /**
+     * Sets the level of the given nested logger.
+     * 
+     * @param logger
+     * @param level
+     */
+    public void setLoggerLevel(String logger, String level)
+            throws JMException {
+
+        expose(logger);
+        backend.setLevel(logger, level);
+        LevelJournal.record(backend, logger, level);
+    }
+
+
+    /**
+     * Registers an MBean for the given nested logger unless already done and
+     * returns its {@link ObjectName}. MBeans registered by others under the
+     * same name are left alone.
+     * 
+     * @param logger
+     * @return
+     */
+    public synchronized String expose(String logger) throws JMException {
+
+        assertNested(logger);
+
+        ObjectName objectName = exposed.get(logger);
+
+        if (objectName == null) {
+
+            objectName =
+                    ObjectName.getInstance(new JmxLogger(logger, name)
+                            .getJmxName());
+
+            // registered by an overlapping element or registrar already
+            if (server == null || server.isRegistered(objectName)) {
+                return objectName.toString();
+            }
+
+            server.registerMBean(backend.createMBean(logger), objectName);
+            exposed.put(logger, objectName);
+        }
+
+        return objectName.toString();
+    }
+
+
+    /**
+     * Returns the names of the nested loggers an MBean was registered for.
+     * 
+     * @return
+     */
+    public Collection<String> getExposedLoggers() {
+
+        return exposed.keySet();
+    }
+
+
+    private void assertNested(String logger) {
+
+        if (!loggers.contains(logger)) {
+            throw new IllegalArgumentException(String.format(
+                    "Logger %s is not part of group %s!", logger, name));
+        }
+    }
+
+
+    @Override
+    public Object getAttribute(String attribute)
+            throws AttributeNotFoundException, MBeanException,
+            ReflectionException {
+
+        if (LOGGERS.equals(attribute)) {
+            return getLoggers();
+        }
+
+        return super.getAttribute(attribute);
+    }
+
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature)
+            throws MBeanException, ReflectionException {
+
+        try {
+
+            if (GET_LOGGER_LEVEL.equals(actionName) && params.length == 1) {
+                return getLoggerLevel((String) params[0]);
+            }
+
+            if (SET_LOGGER_LEVEL.equals(actionName) && params.length == 2) {
+                setLoggerLevel((String) params[0], (String) params[1]);
+                return null;
+            }
+
+            if (EXPOSE.equals(actionName) && params.length == 1) {
+                return expose((String) params[0]);
+            }
+
+        } catch (JMException e) {
+            throw new MBeanException(e);
+        } catch (RuntimeException e) {
+            throw new MBeanException(e, e.getMessage());
+        }
+
+        return super.invoke(actionName, params, signature);
+    }
+
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+
+        return backend.supportsEventOperations() ? EVENTS_MBEAN_INFO
+                : MBEAN_INFO;
+    }
+
+
+    /**
+     * Registers the group with the {@link BurstDetector} started for its
+     * logger repository, if any.
+     * 
+     * @see javax.management.MBeanRegistration#preRegister(javax.management.MBeanServer,
+     *      javax.management.ObjectName)
+     */
+    @Override
+    public ObjectName preRegister(MBeanServer server, ObjectName name) {
+
+        this.server = server;
+
+        BurstDetector detector =
+                BurstDetector.getStarted(backend.getRepository());
+
+        if (detector != null) {
+            detector.register(this);
+        }
+
+        return name;
+    }
+
+
+    @Override
+    public void postRegister(Boolean registrationDone) {
+
+    }
+
+
+    @Override
+    public void preDeregister() {
+
+    }
+
+
+    /**
+     * Unregisters the MBeans registered for nested loggers and the group from
+     * the {@link BurstDetector}, if any.
+     * 
+     * @see javax.management.MBeanRegistration#postDeregister()
+     */
+    @Override
+    public synchronized void postDeregister() {
+
+        BurstDetector detector =
+                BurstDetector.getStarted(backend.getRepository());
+
+        if (detector != null) {
+            detector.unregister(this);
+        }
+
+        for (ObjectName objectName : exposed.values()) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                // already gone
+            }
+        }
+
+        exposed.clear();
+        this.server = null;
+    }
+}
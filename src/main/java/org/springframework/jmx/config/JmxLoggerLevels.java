@@ -0,0 +1,415 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Aggregate MBean to read and alter the levels of many loggers of a
+ * {@link LoggerBackend} in a single JMX invocation. Changes are applied while
+ * holding a lock on the backend's logger repository so that concurrent bulk
+ * changes don't interleave. Changes are ordered so that every subtree of the
+ * logger hierarchy has its effective levels recomputed once (see
+ * {@link #sort(Map)}). Also manages named level profiles that get activated
+ * and deactivated as a unit. Levels applied by activating or deactivating a
+ * profile are not recorded with the {@link LevelJournal} as the profile's
+ * activation isn't, so they couldn't be rolled back after a restart.
+ * 
+ * @author Oliver Gierke
+ */
+public class JmxLoggerLevels implements JmxLoggerLevelsMXBean {
+
+    private static final String INHERITED = "";
+
+    private final LoggerBackend backend;
+    private final Map<String, Map<String, String>> profiles =
+            new TreeMap<String, Map<String, String>>();
+    private final Map<String, Map<String, String>> active =
+            new LinkedHashMap<String, Map<String, String>>();
+
+
+    /**
+     * Creates a new {@link JmxLoggerLevels} for the given
+     * {@link LoggerBackend}.
+     * 
+     * @param backend
+     */
+    JmxLoggerLevels(LoggerBackend backend) {
+
+        this(backend, Collections.<String, Map<String, String>> emptyMap());
+    }
+
+
+    /**
+     * Creates a new {@link JmxLoggerLevels} for the given
+     * {@link LoggerBackend} and level profiles by name.
+     * 
+     * @param backend
+     * @param profiles
+     */
+    JmxLoggerLevels(LoggerBackend backend,
+            Map<String, Map<String, String>> profiles) {
+
+        Assert.notNull(backend);
+        Assert.notNull(profiles);
+
+        this.backend = backend;
+
+        for (Map.Entry<String, Map<String, String>> entry : profiles
+                .entrySet()) {
+            defineProfile(entry.getKey(), entry.getValue());
+        }
+    }
+
+
+    /**
+     * Returns the given logger name to level mappings in the order to apply
+     * them in. Logback recomputes the effective levels below a logger whose
+     * level changes down to the next logger with a level of its own. Thus
+     * levels get applied deepest logger first, so that the recomputation
+     * stops at the nested loggers already changed, and inherited levels
+     * afterwards, topmost logger first, so that nested loggers still have
+     * their own level when their ancestors change.
+     * 
+     * @param levels
+     * @return
+     */
+    static Map<String, String> sort(Map<String, String> levels) {
+
+        List<Change> changes = new ArrayList<Change>(levels.size());
+
+        for (Map.Entry<String, String> entry : levels.entrySet()) {
+            changes.add(new Change(entry.getKey(), entry.getValue()));
+        }
+
+        Collections.sort(changes);
+
+        Map<String, String> result =
+                new LinkedHashMap<String, String>(levels.size() * 2);
+
+        for (Change change : changes) {
+            result.put(change.logger, change.level);
+        }
+
+        return result;
+    }
+
+
+    private static int getDepth(String logger) {
+
+        if ("ROOT".equalsIgnoreCase(logger)) {
+            return -1;
+        }
+
+        int result = 0;
+
+        for (int i = 0; i < logger.length(); i++) {
+            if (logger.charAt(i) == '.') {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerLevelsMXBean#getLevels(java.lang
+     * .String[])
+     */
+    @Override
+    public Map<String, String> getLevels(String[] loggers) {
+
+        Map<String, String> result = new HashMap<String, String>();
+
+        for (String logger : loggers) {
+            result.put(logger, backend.getLevel(logger));
+        }
+
+        return result;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerLevelsMXBean#setLevels(java.util
+     * .Map)
+     */
+    @Override
+    public Map<String, String> setLevels(Map<String, String> levels) {
+
+        assertLevels(levels);
+        return apply(sort(levels), true);
+    }
+
+
+    /**
+     * Applies the given logger name to level mappings in iteration order and
+     * optionally records them with the {@link LevelJournal}, if any.
+     * 
+     * @param levels
+     * @param record whether to record the levels
+     * @return the levels configured for the loggers before
+     */
+    private Map<String, String> apply(Map<String, String> levels,
+            boolean record) {
+
+        Map<String, String> previous = new HashMap<String, String>();
+
+        synchronized (backend.getRepository()) {
+
+            for (Map.Entry<String, String> entry : levels.entrySet()) {
+                previous.put(entry.getKey(), backend.getLevel(entry.getKey()));
+                backend.setLevel(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (!record) {
+            return previous;
+        }
+
+        for (Map.Entry<String, String> entry : levels.entrySet()) {
+            LevelJournal.record(backend, entry.getKey(), entry.getValue());
+        }
+
+        return previous;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerLevelsMXBean#setLevelsFor(java
+     * .util.Map, long)
+     */
+    @Override
+    public Map<String, String> setLevelsFor(Map<String, String> levels,
+            long seconds) {
+
+        return LevelOverrides.getInstance(backend).override(backend, levels,
+                seconds);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.JmxLoggerLevelsMXBean#getOverrides()
+     */
+    @Override
+    public List<LevelOverride> getOverrides() {
+
+        return LevelOverrides.getInstance(backend).getOverrides();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerLevelsMXBean#defineProfile(java
+     * .lang.String, java.util.Map)
+     */
+    @Override
+    public synchronized void defineProfile(String name,
+            Map<String, String> levels) {
+
+        Assert.hasText(name);
+        Assert.notEmpty(levels);
+        assertLevels(levels);
+
+        if (active.containsKey(name)) {
+            throw new IllegalStateException(String.format(
+                    "Profile %s is active!", name));
+        }
+
+        profiles.put(name, Collections.unmodifiableMap(sort(levels)));
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerLevelsMXBean#removeProfile(java
+     * .lang.String)
+     */
+    @Override
+    public synchronized void removeProfile(String name) {
+
+        if (active.containsKey(name)) {
+            throw new IllegalStateException(String.format(
+                    "Profile %s is active!", name));
+        }
+
+        profiles.remove(name);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.JmxLoggerLevelsMXBean#getProfiles()
+     */
+    @Override
+    public synchronized Map<String, Map<String, String>> getProfiles() {
+
+        return new TreeMap<String, Map<String, String>>(profiles);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerLevelsMXBean#getActiveProfiles()
+     */
+    @Override
+    public synchronized String[] getActiveProfiles() {
+
+        return active.keySet().toArray(new String[active.size()]);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerLevelsMXBean#activateProfile(java
+     * .lang.String)
+     */
+    @Override
+    public synchronized Map<String, String> activateProfile(String name) {
+
+        Map<String, String> levels = getProfile(name);
+
+        if (active.containsKey(name)) {
+            throw new IllegalStateException(String.format(
+                    "Profile %s is active already!", name));
+        }
+
+        Map<String, String> previous = apply(levels, false);
+        active.put(name, previous);
+
+        return previous;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerLevelsMXBean#deactivateProfile
+     * (java.lang.String)
+     */
+    @Override
+    public synchronized Map<String, String> deactivateProfile(String name) {
+
+        Map<String, String> levels = getProfile(name);
+        Map<String, String> previous = active.remove(name);
+
+        if (previous == null) {
+            throw new IllegalStateException(String.format(
+                    "Profile %s is not active!", name));
+        }
+
+        Map<String, String> toRestore = new HashMap<String, String>();
+
+        synchronized (backend.getRepository()) {
+
+            for (Map.Entry<String, String> entry : previous.entrySet()) {
+
+                String current = backend.getLevel(entry.getKey());
+
+                if (current.equalsIgnoreCase(levels.get(entry.getKey()))) {
+                    toRestore.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            apply(sort(toRestore), false);
+        }
+
+        return toRestore;
+    }
+
+
+    private Map<String, String> getProfile(String name) {
+
+        Map<String, String> result = profiles.get(name);
+
+        if (result == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Unknown profile %s!", name));
+        }
+
+        return result;
+    }
+
+
+    private void assertLevels(Map<String, String> levels) {
+
+        for (Map.Entry<String, String> entry : levels.entrySet()) {
+            if (!backend.isLevel(entry.getValue())) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid level %s for logger %s!", entry.getValue(),
+                        entry.getKey()));
+            }
+        }
+    }
+
+    /**
+     * A level to apply to a logger, ordered as described in
+     * {@link JmxLoggerLevels#sort(Map)}.
+     * 
+     * @author Oliver Gierke
+     */
+    private static class Change implements Comparable<Change> {
+
+        private final String logger;
+        private final String level;
+        private final boolean inherited;
+        private final int depth;
+
+
+        public Change(String logger, String level) {
+
+            this.logger = logger;
+            this.level = level;
+            this.inherited = INHERITED.equals(level);
+            this.depth = getDepth(logger);
+        }
+
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Comparable#compareTo(java.lang.Object)
+         */
+        @Override
+        public int compareTo(Change other) {
+
+            if (inherited != other.inherited) {
+                return inherited ? 1 : -1;
+            }
+
+            if (depth != other.depth) {
+                return inherited ? depth - other.depth : other.depth - depth;
+            }
+
+            return logger.compareTo(other.logger);
+        }
+    }
+}
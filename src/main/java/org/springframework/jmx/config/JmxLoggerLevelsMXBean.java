@@ -0,0 +1,112 @@
+package org.springframework.jmx.config;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Management interface to read and alter the levels of many loggers in a
+ * single JMX invocation and to manage named level profiles.
+ * 
+ * @author Oliver Gierke
+ */
+public interface JmxLoggerLevelsMXBean {
+
+    /**
+     * Returns the levels configured for the loggers with the given names.
+     * Loggers inheriting their level are mapped to an empty {@link String}.
+     * 
+     * @param loggers
+     * @return
+     */
+    Map<String, String> getLevels(String[] loggers);
+
+
+    /**
+     * Applies the given logger name to level mappings. Either all levels are
+     * applied or none if one of them is invalid.
+     * 
+     * @param levels
+     * @return the levels configured for the loggers before
+     */
+    Map<String, String> setLevels(Map<String, String> levels);
+
+
+    /**
+     * Applies the given logger name to level mappings for the given number of
+     * seconds. The previous levels are restored afterwards unless changed in
+     * the meantime. Either all levels are applied or none if one of them is
+     * invalid.
+     * 
+     * @param levels
+     * @param seconds
+     * @return the levels to be restored
+     */
+    Map<String, String> setLevelsFor(Map<String, String> levels, long seconds);
+
+
+    /**
+     * Returns the active time-boxed level overrides.
+     * 
+     * @return
+     */
+    List<LevelOverride> getOverrides();
+
+
+    /**
+     * Defines the level profile with the given name applying the given logger
+     * name to level mappings, replacing a previous definition.
+     * 
+     * @param name
+     * @param levels
+     * @throws IllegalArgumentException if a level is invalid
+     * @throws IllegalStateException if the profile is active
+     */
+    void defineProfile(String name, Map<String, String> levels);
+
+
+    /**
+     * Removes the level profile with the given name.
+     * 
+     * @param name
+     * @throws IllegalStateException if the profile is active
+     */
+    void removeProfile(String name);
+
+
+    /**
+     * Returns the logger name to level mappings of the level profiles by
+     * profile name.
+     * 
+     * @return
+     */
+    Map<String, Map<String, String>> getProfiles();
+
+
+    /**
+     * Returns the names of the active level profiles in order of activation.
+     * 
+     * @return
+     */
+    String[] getActiveProfiles();
+
+
+    /**
+     * Applies the levels of the profile with the given name in one pass and
+     * keeps the previous levels to restore on deactivation.
+     * 
+     * @param name
+     * @return the levels configured for the loggers before
+     */
+    Map<String, String> activateProfile(String name);
+
+
+    /**
+     * Restores the levels the loggers of the profile with the given name had
+     * before its activation, unless changed since.
+     * 
+     * @param name
+     * @return the levels restored
+     */
+    Map<String, String> deactivateProfile(String name);
+}
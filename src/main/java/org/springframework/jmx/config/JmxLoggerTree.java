@@ -0,0 +1,263 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+
+/**
+ * MXBean providing paged snapshots of the loggers exposed for a
+ * {@link LoggerBackend}. Keeps the loggers sorted by name so that pages are
+ * located by binary search on the cursor and prefix given. Loggers exposed
+ * after startup are added by replacing the sorted snapshot, so that readers
+ * never block.
+ * 
+ * @author Oliver Gierke
+ */
+public class JmxLoggerTree implements JmxLoggerTreeMXBean {
+
+    private static final String[] ITEMS = { "name", "level",
+            "effectiveLevel", "group" };
+    private static final CompositeType ROW_TYPE;
+    private static final TabularType TABLE_TYPE;
+
+    static {
+        try {
+            ROW_TYPE =
+                    new CompositeType("Logger", "An exposed logger", ITEMS,
+                            new String[] { "The logger name",
+                                    "The configured level",
+                                    "The effective level", "The logger group" },
+                            new OpenType<?>[] { SimpleType.STRING,
+                                    SimpleType.STRING, SimpleType.STRING,
+                                    SimpleType.STRING });
+            TABLE_TYPE =
+                    new TabularType("Loggers", "Exposed loggers", ROW_TYPE,
+                            new String[] { "name" });
+        } catch (OpenDataException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final Comparator<JmxLogger> BY_NAME =
+            new Comparator<JmxLogger>() {
+
+                @Override
+                public int compare(JmxLogger left, JmxLogger right) {
+
+                    return left.getName().compareTo(right.getName());
+                }
+            };
+
+    private final LoggerBackend backend;
+    private final AtomicInteger pendingDiscoveries = new AtomicInteger();
+    private volatile JmxLogger[] loggers;
+
+
+    /**
+     * Creates a new {@link JmxLoggerTree} for the given loggers.
+     * 
+     * @param backend
+     * @param loggers
+     */
+    JmxLoggerTree(LoggerBackend backend, JmxLoggers loggers) {
+
+        Assert.notNull(backend);
+        Assert.notNull(loggers);
+
+        this.backend = backend;
+
+        JmxLogger[] sorted = new JmxLogger[loggers.size()];
+
+        int i = 0;
+        for (JmxLogger logger : loggers) {
+            sorted[i++] = logger;
+        }
+
+        Arrays.sort(sorted, BY_NAME);
+        this.loggers = sorted;
+    }
+
+
+    /**
+     * Configures the number of background discoveries the exposure of loggers
+     * waits for.
+     * 
+     * @see #discoveryCompleted()
+     * @param pendingDiscoveries
+     */
+    public void setPendingDiscoveries(int pendingDiscoveries) {
+
+        this.pendingDiscoveries.set(pendingDiscoveries);
+    }
+
+
+    /**
+     * Signals a background discovery to be completed.
+     */
+    void discoveryCompleted() {
+
+        pendingDiscoveries.decrementAndGet();
+    }
+
+
+    /**
+     * Adds the given loggers unless already contained and returns the ones
+     * actually added.
+     * 
+     * @param candidates
+     * @return
+     */
+    synchronized List<JmxLogger> add(Collection<JmxLogger> candidates) {
+
+        JmxLogger[] current = loggers;
+        List<JmxLogger> added = new ArrayList<JmxLogger>();
+        Set<String> names = new HashSet<String>();
+
+        for (JmxLogger candidate : candidates) {
+
+            if (Arrays.binarySearch(current, candidate, BY_NAME) < 0
+                    && names.add(candidate.getName())) {
+                added.add(candidate);
+            }
+        }
+
+        if (added.isEmpty()) {
+            return added;
+        }
+
+        JmxLogger[] merged =
+                Arrays.copyOf(current, current.length + added.size());
+
+        int i = current.length;
+        for (JmxLogger logger : added) {
+            merged[i++] = logger;
+        }
+
+        Arrays.sort(merged, BY_NAME);
+        this.loggers = merged;
+
+        return added;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.JmxLoggerTreeMXBean#isReady()
+     */
+    @Override
+    public boolean isReady() {
+
+        return pendingDiscoveries.get() <= 0;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.JmxLoggerTreeMXBean#getLoggerCount()
+     */
+    @Override
+    public int getLoggerCount() {
+
+        return loggers.length;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.JmxLoggerTreeMXBean#getLoggers(java.lang
+     * .String, java.lang.String, int)
+     */
+    @Override
+    public TabularData getLoggers(String prefix, String cursor, int pageSize) {
+
+        Assert.isTrue(pageSize > 0, "Page size must be greater than zero!");
+
+        JmxLogger[] loggers = this.loggers;
+        String namePrefix = prefix == null ? "" : prefix;
+        int index = indexOf(loggers, namePrefix);
+
+        if (StringUtils.hasLength(cursor)) {
+
+            int afterCursor = indexOf(loggers, cursor);
+
+            if (afterCursor < loggers.length
+                    && loggers[afterCursor].getName().equals(cursor)) {
+                afterCursor++;
+            }
+
+            index = Math.max(index, afterCursor);
+        }
+
+        TabularData result = new TabularDataSupport(TABLE_TYPE);
+
+        for (; index < loggers.length && result.size() < pageSize; index++) {
+
+            JmxLogger logger = loggers[index];
+
+            if (!logger.getName().startsWith(namePrefix)) {
+                break;
+            }
+
+            result.put(toRow(logger));
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns the index of the first logger whose name is equal to or greater
+     * than the given one.
+     * 
+     * @param loggers
+     * @param name
+     * @return
+     */
+    private static int indexOf(JmxLogger[] loggers, String name) {
+
+        if (name.length() == 0) {
+            return 0;
+        }
+
+        int index = Arrays.binarySearch(loggers, new JmxLogger(name, null),
+                BY_NAME);
+        return index < 0 ? -(index + 1) : index;
+    }
+
+
+    private CompositeDataSupport toRow(JmxLogger logger) {
+
+        String group = logger.getGroup();
+
+        try {
+            return new CompositeDataSupport(ROW_TYPE, ITEMS, new Object[] {
+                    logger.getName(), backend.getLevel(logger.getName()),
+                    backend.getEffectiveLevel(logger.getName()),
+                    group == null ? "" : group });
+        } catch (OpenDataException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
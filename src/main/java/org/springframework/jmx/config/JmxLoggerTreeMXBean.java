@@ -0,0 +1,46 @@
+package org.springframework.jmx.config;
+
+import javax.management.openmbean.TabularData;
+
+
+/**
+ * Management interface to take snapshots of all exposed loggers in a few JMX
+ * invocations.
+ * 
+ * @author Oliver Gierke
+ */
+public interface JmxLoggerTreeMXBean {
+
+    /**
+     * Returns the number of exposed loggers.
+     * 
+     * @return
+     */
+    int getLoggerCount();
+
+
+    /**
+     * Returns whether all loggers configured to be discovered in the
+     * background have been exposed.
+     * 
+     * @return
+     */
+    boolean isReady();
+
+
+    /**
+     * Returns a page of the exposed loggers ordered by name. Each row contains
+     * the logger's name, configured level, effective level and group. To
+     * retrieve the next page hand the name of the last logger returned as
+     * cursor. A page containing less loggers than requested is the last one.
+     * 
+     * @param prefix only return loggers whose name starts with the given
+     *            prefix, can be {@literal null} or empty to return all
+     *            loggers
+     * @param cursor the name of the last logger of the previous page, can be
+     *            {@literal null} or empty to start with the first logger
+     * @param pageSize the maximum number of loggers to return
+     * @return
+     */
+    TabularData getLoggers(String prefix, String cursor, int pageSize);
+}
@@ -1,49 +1,194 @@
 package org.springframework.jmx.config;
 
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 
 /**
  * Wrapper class for a collection of {@link JmxLogger}s. Allows determining if
  * there's already a {@link JmxLogger} registered for a given {@link Candidate}.
+ * Loggers are indexed by name so that lookups don't depend on the number of
+ * loggers already registered. Instances are not thread-safe.
  * 
  * @author Oliver Gierke
  */
-class JmxLoggers {
+class JmxLoggers implements Iterable<JmxLogger> {
 
-    private final Collection<JmxLogger> loggers;
+    private final Map<String, JmxLogger> loggers;
+    private final PrefixKey lookupKey = new PrefixKey();
 
 
     public JmxLoggers() {
 
-        this.loggers = new HashSet<JmxLogger>();
+        this.loggers = new HashMap<String, JmxLogger>();
     }
 
 
     public JmxLoggers(Collection<JmxLogger> loggers) {
 
-        this();
-        this.loggers.addAll(loggers);
+        this.loggers = new HashMap<String, JmxLogger>(loggers.size() * 2);
+
+        for (JmxLogger logger : loggers) {
+            add(logger);
+        }
     }
 
 
     public boolean containsLoggerFor(Candidate candidate) {
 
-        for (JmxLogger logger : loggers) {
-            if (logger.getName().equals(candidate.getName())) {
-                return true;
-            }
+        return loggers.containsKey(candidate.getName());
+    }
+
+
+    /**
+     * Returns whether there's a {@link JmxLogger} registered for the logger
+     * named by the prefix of the given source up to the given end offset. The
+     * lookup doesn't create the prefix {@link String}.
+     * 
+     * @param source
+     * @param end
+     * @return
+     */
+    public boolean containsLoggerFor(String source, int end) {
+
+        if (end == source.length()) {
+            return loggers.containsKey(source);
+        }
+
+        return loggers.containsKey(lookupKey.reset(source, end));
+    }
+
+
+    /**
+     * Returns the {@link JmxLogger} registered for the given logger name or
+     * {@literal null} if none registered.
+     * 
+     * @param name
+     * @return
+     */
+    public JmxLogger getLogger(String name) {
+
+        return loggers.get(name);
+    }
+
+
+    /**
+     * Adds the given {@link JmxLogger} unless there's already one registered
+     * for the same logger name.
+     * 
+     * @param logger
+     * @return whether the logger was added
+     */
+    public boolean add(JmxLogger logger) {
+
+        if (loggers.containsKey(logger.getName())) {
+            return false;
+        }
+
+        loggers.put(logger.getName(), logger);
+        return true;
+    }
+
+
+    /**
+     * Merges the given {@link JmxLoggers} into the current ones. Loggers
+     * already registered by name are kept.
+     * 
+     * @param other
+     */
+    public void addAll(JmxLoggers other) {
+
+        if (loggers.isEmpty()) {
+            loggers.putAll(other.loggers);
+            return;
         }
 
-        return false;
+        for (JmxLogger logger : other.loggers.values()) {
+            add(logger);
+        }
+    }
+
+
+    public int size() {
+
+        return loggers.size();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Iterable#iterator()
+     */
+    @Override
+    public Iterator<JmxLogger> iterator() {
+
+        return loggers.values().iterator();
     }
 
+    /**
+     * Reusable lookup key representing the prefix of a {@link String}. Hashes
+     * like the {@link String} it represents and considers it equal. The
+     * relation is asymmetric as {@link String#equals(Object)} never considers
+     * a {@link PrefixKey} equal. This is safe as the key is only ever passed
+     * to {@link Map#containsKey(Object)} of a {@link HashMap} and never
+     * stored, and {@link HashMap} compares the key looked up against the
+     * stored ones by invoking {@code equals(Object)} on the former. A single
+     * instance is reused per {@link JmxLoggers} which is why those are not
+     * thread-safe.
+     * 
+     * @author Oliver Gierke
+     */
+    private static final class PrefixKey {
+
+        private String source;
+        private int end;
+        private int hash;
+
+
+        public PrefixKey reset(String source, int end) {
+
+            this.source = source;
+            this.end = end;
+
+            int h = 0;
+            for (int i = 0; i < end; i++) {
+                h = 31 * h + source.charAt(i);
+            }
+            this.hash = h;
+
+            return this;
+        }
+
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+
+            if (!(obj instanceof String)) {
+                return false;
+            }
+
+            String that = (String) obj;
+            return that.length() == end && source.regionMatches(0, that, 0, end);
+        }
+
 
-    public void add(JmxLogger logger) {
+        /*
+         * (non-Javadoc)
+         * 
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
 
-        if (!loggers.contains(logger)) {
-            loggers.add(logger);
+            return hash;
         }
     }
-}
\ No newline at end of file
+}
@@ -16,5 +16,7 @@ public class JmxNamespaceHandler extends NamespaceHandlerSupport {
 
         registerBeanDefinitionParser("logger",
                 new JmxLoggerBeanDefinitionParser());
+        registerBeanDefinitionParser("appenders",
+                new JmxAppendersBeanDefinitionParser());
     }
 }
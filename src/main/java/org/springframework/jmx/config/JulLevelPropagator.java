@@ -0,0 +1,313 @@
+package org.springframework.jmx.config;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.jul.JULHelper;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+
+
+/**
+ * Propagates the levels of the loggers in and below the given base packages
+ * to the {@link java.util.logging.Logger}s of the same name so that disabled
+ * JUL calls are discarded by JUL itself instead of being bridged to Logback
+ * first. Other than Logback's {@code LevelChangePropagator} it only touches
+ * the JUL loggers of the subtrees exposed. The JUL logger named after a base
+ * package gets the effective level, the ones below the level set explicitly
+ * so that they inherit just like in Logback. The JUL loggers touched are
+ * referenced strongly as JUL would otherwise drop them along with their
+ * levels. Their previous levels are restored on shutdown.
+ * <p>
+ * Sampled levels and MDC levels let events below a logger's level pass, so
+ * the lowest of them set for a logger, its ancestors or descendants lowers
+ * the level propagated. They don't change the Logback level, so changing
+ * them has to {@link #refresh(LoggerContext)} the propagated levels.
+ * 
+ * @author Oliver Gierke
+ */
+public class JulLevelPropagator implements LoggerContextListener,
+        InitializingBean, DisposableBean {
+
+    private static final Map<LoggerContext, JulLevelPropagator> INSTANCES =
+            new WeakHashMap<LoggerContext, JulLevelPropagator>();
+
+    private final LoggerContext loggerContext;
+    private final List<String> basePackages;
+
+    private final Map<java.util.logging.Logger, java.util.logging.Level> previous =
+            new IdentityHashMap<java.util.logging.Logger, java.util.logging.Level>();
+
+
+    /**
+     * Creates a new {@link JulLevelPropagator} for the given
+     * {@link LoggerContext} and base packages.
+     * 
+     * @param loggerContext
+     * @param basePackages
+     */
+    public JulLevelPropagator(LoggerContext loggerContext,
+            List<String> basePackages) {
+
+        Assert.notNull(loggerContext);
+        Assert.notNull(basePackages);
+
+        this.loggerContext = loggerContext;
+        this.basePackages = basePackages;
+    }
+
+
+    /**
+     * Propagates the levels of the base packages and the ones set explicitly
+     * below and starts listening to level changes.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public synchronized void afterPropertiesSet() {
+
+        for (Logger logger : loggerContext.getLoggerList()) {
+            if (logger.getLevel() != null && isPropagated(logger.getName())) {
+                propagate(logger);
+            }
+        }
+
+        for (String basePackage : basePackages) {
+            propagate(loggerContext.getLogger(basePackage));
+        }
+
+        loggerContext.addListener(this);
+
+        synchronized (INSTANCES) {
+            INSTANCES.put(loggerContext, this);
+        }
+    }
+
+
+    /**
+     * Propagates the levels again after sampled or MDC levels of the loggers
+     * of the given {@link LoggerContext} changed. Does nothing if no
+     * {@link JulLevelPropagator} is started for it.
+     * 
+     * @param loggerContext
+     */
+    static void refresh(LoggerContext loggerContext) {
+
+        JulLevelPropagator propagator;
+
+        synchronized (INSTANCES) {
+            propagator = INSTANCES.get(loggerContext);
+        }
+
+        if (propagator != null) {
+            propagator.refresh();
+        }
+    }
+
+
+    /**
+     * Stops listening to level changes and restores the previous levels of
+     * the JUL loggers touched.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public synchronized void destroy() {
+
+        synchronized (INSTANCES) {
+            if (INSTANCES.get(loggerContext) == this) {
+                INSTANCES.remove(loggerContext);
+            }
+        }
+
+        loggerContext.removeListener(this);
+
+        for (Map.Entry<java.util.logging.Logger, java.util.logging.Level> entry : previous
+                .entrySet()) {
+            entry.getKey().setLevel(entry.getValue());
+        }
+
+        previous.clear();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#onLevelChange(ch.qos
+     * .logback.classic.Logger, ch.qos.logback.classic.Level)
+     */
+    @Override
+    public synchronized void onLevelChange(Logger logger, Level level) {
+
+        String name = logger.getName();
+
+        if (isPropagated(name)) {
+            propagate(logger);
+        }
+
+        for (String basePackage : basePackages) {
+
+            if (basePackage.equals(name)) {
+                continue;
+            }
+
+            if (Logger.ROOT_LOGGER_NAME.equals(name)
+                    || LoggerSelector.getGroup(name, basePackage) != null) {
+                propagate(loggerContext.getLogger(basePackage));
+            }
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#isResetResistant()
+     */
+    @Override
+    public boolean isResetResistant() {
+
+        return true;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#onStart(ch.qos.logback
+     * .classic.LoggerContext)
+     */
+    @Override
+    public void onStart(LoggerContext context) {
+
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#onReset(ch.qos.logback
+     * .classic.LoggerContext)
+     */
+    @Override
+    public void onReset(LoggerContext context) {
+
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#onStop(ch.qos.logback
+     * .classic.LoggerContext)
+     */
+    @Override
+    public void onStop(LoggerContext context) {
+
+    }
+
+
+    private synchronized void refresh() {
+
+        Set<String> names = new HashSet<String>(basePackages);
+
+        for (java.util.logging.Logger julLogger : previous.keySet()) {
+            names.add(julLogger.getName());
+        }
+
+        for (String name : names) {
+            propagate(loggerContext.getLogger(name));
+        }
+    }
+
+
+    /**
+     * Sets the level of the given logger on the JUL logger of the same name.
+     * Loggers named after a base package propagate their effective level.
+     * Sampled and MDC levels lower the level propagated.
+     * 
+     * @param logger
+     */
+    private void propagate(Logger logger) {
+
+        String name = logger.getName();
+        Level level =
+                basePackages.contains(name) ? logger.getEffectiveLevel()
+                        : logger.getLevel();
+
+        if (level != null) {
+            level = getLowest(level, getFilteredLevel(name));
+        }
+
+        java.util.logging.Logger julLogger = JULHelper.asJULLogger(name);
+
+        if (!previous.containsKey(julLogger)) {
+            previous.put(julLogger, julLogger.getLevel());
+        }
+
+        julLogger.setLevel(level == null ? null : JULHelper.asJULLevel(level));
+    }
+
+
+    /**
+     * Returns the lowest sampled or MDC level set for the logger with the
+     * given name, its ancestors or descendants or {@literal null} if none set.
+     * 
+     * @param name
+     * @return
+     */
+    private Level getFilteredLevel(String name) {
+
+        SamplingTurboFilter sampling =
+                SamplingTurboFilter.getInstalled(loggerContext);
+        MdcLevelTurboFilter mdc = MdcLevelTurboFilter.getInstalled(loggerContext);
+
+        return getLowest(sampling == null ? null : sampling.getLowestLevel(name),
+                mdc == null ? null : mdc.getLowestLevel(name));
+    }
+
+
+    private static Level getLowest(Level left, Level right) {
+
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+
+        return left.levelInt <= right.levelInt ? left : right;
+    }
+
+
+    /**
+     * Returns whether the logger with the given name is located in or below
+     * one of the base packages.
+     * 
+     * @param logger
+     * @return
+     */
+    private boolean isPropagated(String logger) {
+
+        for (String basePackage : basePackages) {
+            if (LoggerSelector.getGroup(basePackage, logger) != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,142 @@
+package org.springframework.jmx.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Histogram of latencies in nanoseconds with a fixed set of buckets.
+ * Latencies below {@value #LINEAR} nanoseconds get a bucket each, above that
+ * every power of two is split into {@value #SUB_BUCKETS} buckets, so that
+ * percentiles are accurate within 25%. Recording is lock-free and doesn't
+ * allocate.
+ * 
+ * @author Oliver Gierke
+ */
+class LatencyHistogram {
+
+    private static final int LINEAR = 16;
+    private static final int SUB_BUCKETS = 4;
+    private static final int SUB_BITS = 2;
+    private static final int LINEAR_BITS = 4;
+    private static final int BUCKETS = LINEAR + (63 - LINEAR_BITS)
+            * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * Records the given latency.
+     * 
+     * @param nanos
+     */
+    public void record(long nanos) {
+
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        counts.incrementAndGet(getBucket(nanos));
+
+        long current = max.get();
+
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+
+    /**
+     * Returns the number of latencies recorded.
+     * 
+     * @return
+     */
+    public long getCount() {
+
+        long result = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            result += counts.get(i);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns the highest latency recorded.
+     * 
+     * @return
+     */
+    public long getMax() {
+
+        return max.get();
+    }
+
+
+    /**
+     * Returns the latency the given percentage of the recorded latencies
+     * doesn't exceed, {@literal 0} if none recorded. The result is the upper
+     * bound of the bucket the percentile falls into but never exceeds the
+     * highest latency recorded.
+     * 
+     * @param percentile between 0 and 100
+     * @return
+     */
+    public long getPercentile(double percentile) {
+
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++) {
+
+            seen += snapshot[i];
+
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(getUpperBound(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+
+    static int getBucket(long nanos) {
+
+        if (nanos < LINEAR) {
+            return (int) nanos;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+
+        return LINEAR + (exponent - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+
+
+    static long getUpperBound(int bucket) {
+
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + LINEAR_BITS;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+}
@@ -0,0 +1,465 @@
+package org.springframework.jmx.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+
+/**
+ * Append-only journal file of the level changes made through the MBeans of
+ * the loggers of a {@link LoggerBackend}. The levels recorded are reapplied on
+ * startup, before the logger MBeans get registered. The file is read into
+ * memory in one pass and closed before it might get rewritten, as an open or
+ * mapped file can't be replaced on every platform. Each record holds a logger
+ * name and its level, so that the file grows with every change. It is
+ * rewritten to hold a single record per logger on startup if it contains
+ * superseded or truncated records and periodically once superseded records
+ * outnumber the current ones. A rewrite goes to a temporary file replacing
+ * the journal file. Where that can't be done atomically, the journal file is
+ * deleted first and the temporary one is picked up on startup if the process
+ * died in between. Time-boxed level changes are not recorded as they would
+ * outlive their time box otherwise.
+ * 
+ * @author Oliver Gierke
+ */
+public class LevelJournal implements LevelJournalMXBean, InitializingBean,
+        DisposableBean {
+
+    private static final Logger LOG = LoggerFactory
+            .getLogger(LevelJournal.class);
+    private static final Map<Object, LevelJournal> INSTANCES =
+            new WeakHashMap<Object, LevelJournal>();
+
+    private static final int MAGIC = 0x4C564A31;
+    private static final int MIN_RECORDS = 1024;
+    private static final long COMPACTION_INTERVAL = 60 * 1000;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final LoggerBackend backend;
+    private final File file;
+    private final TimerWheel timer;
+    private final Map<String, String> levels = new HashMap<String, String>();
+
+    private FileChannel channel;
+    private int records;
+    private TimerWheel.Timeout timeout;
+
+
+    /**
+     * Creates a new {@link LevelJournal} for the given {@link LoggerBackend}
+     * writing to the file at the given location.
+     * 
+     * @param backend
+     * @param location
+     */
+    public LevelJournal(LoggerBackend backend, String location) {
+
+        this(backend, location, TimerWheel.getInstance());
+    }
+
+
+    LevelJournal(LoggerBackend backend, String location, TimerWheel timer) {
+
+        Assert.notNull(backend);
+        Assert.hasText(location);
+        Assert.notNull(timer);
+
+        this.backend = backend;
+        this.file = new File(location);
+        this.timer = timer;
+    }
+
+
+    /**
+     * Records the given level change of the logger with the given name with
+     * the {@link LevelJournal} started for the given {@link LoggerBackend}, if
+     * any. Invalid levels are not recorded.
+     * 
+     * @param backend
+     * @param name
+     * @param level
+     */
+    static void record(LoggerBackend backend, String name, String level) {
+
+        LevelJournal journal;
+
+        synchronized (INSTANCES) {
+            journal = INSTANCES.get(backend.getRepository());
+        }
+
+        if (journal != null && level != null && backend.isLevel(level)) {
+            journal.record(name, level);
+        }
+    }
+
+
+    /**
+     * Reapplies the levels recorded, compacts the journal file and starts
+     * recording level changes.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public synchronized void afterPropertiesSet() throws IOException {
+
+        File parent = file.getAbsoluteFile().getParentFile();
+
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Could not create directory " + parent);
+        }
+
+        boolean clean = read();
+
+        Map<String, String> toRestore = new HashMap<String, String>();
+
+        for (Map.Entry<String, String> entry : levels.entrySet()) {
+            if (backend.isLevel(entry.getValue())) {
+                toRestore.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        synchronized (backend.getRepository()) {
+            for (Map.Entry<String, String> entry : JmxLoggerLevels.sort(
+                    toRestore).entrySet()) {
+                backend.setLevel(entry.getKey(), entry.getValue());
+            }
+        }
+
+        LOG.debug("Restored {} levels from {}", toRestore.size(), file);
+
+        if (clean && records == levels.size()) {
+            open();
+        } else {
+            rewrite();
+        }
+
+        synchronized (INSTANCES) {
+            INSTANCES.put(backend.getRepository(), this);
+        }
+
+        schedule();
+    }
+
+
+    /**
+     * Stops recording level changes and closes the journal file.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public synchronized void destroy() throws IOException {
+
+        synchronized (INSTANCES) {
+            if (INSTANCES.get(backend.getRepository()) == this) {
+                INSTANCES.remove(backend.getRepository());
+            }
+        }
+
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LevelJournalMXBean#getFile()
+     */
+    @Override
+    public String getFile() {
+
+        return file.getAbsolutePath();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LevelJournalMXBean#getLevels()
+     */
+    @Override
+    public synchronized Map<String, String> getLevels() {
+
+        return new TreeMap<String, String>(levels);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LevelJournalMXBean#getRecords()
+     */
+    @Override
+    public synchronized int getRecords() {
+
+        return records;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LevelJournalMXBean#compact()
+     */
+    @Override
+    public synchronized void compact() {
+
+        try {
+            rewrite();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not compact " + file, e);
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LevelJournalMXBean#clear()
+     */
+    @Override
+    public synchronized void clear() {
+
+        levels.clear();
+        compact();
+    }
+
+
+    /**
+     * Appends the given level change to the journal file.
+     * 
+     * @param name
+     * @param level
+     */
+    synchronized void record(String name, String level) {
+
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.write(encode(name, level));
+            levels.put(name, level);
+            records++;
+        } catch (IOException e) {
+            LOG.warn("Could not record level {} of {} in {}", new Object[] {
+                    level, name, file, e });
+        }
+    }
+
+
+    /**
+     * Compacts the journal file if superseded records outnumber the current
+     * ones.
+     */
+    synchronized void check() {
+
+        if (channel != null && records > MIN_RECORDS
+                && records > 2 * levels.size()) {
+            compact();
+        }
+    }
+
+
+    private void schedule() {
+
+        timeout = timer.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+
+                synchronized (LevelJournal.this) {
+
+                    if (timeout == null) {
+                        return;
+                    }
+
+                    check();
+                    schedule();
+                }
+            }
+        }, COMPACTION_INTERVAL);
+    }
+
+
+    /**
+     * Reads the levels recorded in the journal file. Recovers the temporary
+     * file of a rewrite if the journal file is missing. Reading stops at a
+     * truncated record, e.g. written partially when the process died.
+     * 
+     * @return whether the file exists and ends with a complete record
+     * @throws IOException
+     */
+    private boolean read() throws IOException {
+
+        levels.clear();
+        records = 0;
+
+        File tmp = getTemporaryFile();
+
+        if (!file.exists() && tmp.exists()) {
+
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not recover " + file + " from "
+                        + tmp);
+            }
+
+            LOG.warn("Recovered {} from {}", file, tmp);
+        }
+
+        if (!file.exists() || file.length() == 0) {
+            return false;
+        }
+
+        ByteBuffer buffer;
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+
+        try {
+
+            FileChannel channel = raf.getChannel();
+            buffer = ByteBuffer.allocate((int) channel.size());
+
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                continue;
+            }
+
+            buffer.flip();
+
+        } finally {
+            raf.close();
+        }
+
+        if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+            throw new IOException(file + " is not a level journal!");
+        }
+
+        byte[] bytes = new byte[256];
+
+        while (buffer.hasRemaining()) {
+
+            if (buffer.remaining() < 2) {
+                return false;
+            }
+
+            int nameLength = buffer.getShort() & 0xFFFF;
+
+            if (buffer.remaining() < nameLength + 1) {
+                return false;
+            }
+
+            if (bytes.length < nameLength) {
+                bytes = new byte[nameLength];
+            }
+
+            buffer.get(bytes, 0, nameLength);
+            String name = new String(bytes, 0, nameLength, UTF_8);
+
+            int levelLength = buffer.get() & 0xFF;
+
+            if (buffer.remaining() < levelLength) {
+                return false;
+            }
+
+            buffer.get(bytes, 0, levelLength);
+            levels.put(name, new String(bytes, 0, levelLength, UTF_8));
+            records++;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Writes the current levels to a new file replacing the journal file and
+     * reopens the latter for appending.
+     * 
+     * @throws IOException
+     */
+    private void rewrite() throws IOException {
+
+        File tmp = getTemporaryFile();
+        RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+
+        try {
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            bytes.write(ByteBuffer.allocate(4).putInt(MAGIC).array());
+
+            for (Map.Entry<String, String> entry : levels.entrySet()) {
+                bytes.write(encode(entry.getKey(), entry.getValue()).array());
+            }
+
+            FileChannel out = raf.getChannel();
+            out.truncate(0);
+            out.write(ByteBuffer.wrap(bytes.toByteArray()));
+            out.force(true);
+
+        } finally {
+            raf.close();
+        }
+
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+
+        // not atomic, so read() recovers the temporary file if file is missing
+        if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+            throw new IOException("Could not replace " + file);
+        }
+
+        records = levels.size();
+        open();
+    }
+
+
+    private File getTemporaryFile() {
+
+        return new File(file.getPath() + ".tmp");
+    }
+
+
+    private void open() throws IOException {
+
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        channel.position(channel.size());
+    }
+
+
+    private static ByteBuffer encode(String name, String level) {
+
+        byte[] nameBytes = name.getBytes(UTF_8);
+        byte[] levelBytes = level.getBytes(UTF_8);
+
+        Assert.isTrue(nameBytes.length <= 0xFFFF, "Logger name too long!");
+        Assert.isTrue(levelBytes.length <= 0xFF, "Level too long!");
+
+        ByteBuffer result =
+                ByteBuffer.allocate(3 + nameBytes.length + levelBytes.length);
+        result.putShort((short) nameBytes.length).put(nameBytes)
+                .put((byte) levelBytes.length).put(levelBytes).flip();
+
+        return result;
+    }
+}
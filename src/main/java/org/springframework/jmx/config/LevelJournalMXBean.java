@@ -0,0 +1,49 @@
+package org.springframework.jmx.config;
+
+import java.util.Map;
+
+
+/**
+ * Management interface of the {@link LevelJournal}.
+ * 
+ * @author Oliver Gierke
+ */
+public interface LevelJournalMXBean {
+
+    /**
+     * Returns the path of the journal file.
+     * 
+     * @return
+     */
+    String getFile();
+
+
+    /**
+     * Returns the levels restored on startup by logger name.
+     * 
+     * @return
+     */
+    Map<String, String> getLevels();
+
+
+    /**
+     * Returns the number of records in the journal file, including the ones
+     * superseded by later changes of the same logger.
+     * 
+     * @return
+     */
+    int getRecords();
+
+
+    /**
+     * Rewrites the journal file to contain a single record per logger.
+     */
+    void compact();
+
+
+    /**
+     * Removes all levels from the journal without changing the current
+     * levels.
+     */
+    void clear();
+}
@@ -0,0 +1,81 @@
+package org.springframework.jmx.config;
+
+import java.beans.ConstructorProperties;
+
+
+/**
+ * Snapshot of an active time-boxed level override.
+ * 
+ * @author Oliver Gierke
+ */
+public class LevelOverride {
+
+    private final String logger;
+    private final String level;
+    private final String previousLevel;
+    private final long remainingSeconds;
+
+
+    /**
+     * Creates a new {@link LevelOverride}.
+     * 
+     * @param logger
+     * @param level
+     * @param previousLevel
+     * @param remainingSeconds
+     */
+    @ConstructorProperties({ "logger", "level", "previousLevel",
+            "remainingSeconds" })
+    public LevelOverride(String logger, String level, String previousLevel,
+            long remainingSeconds) {
+
+        this.logger = logger;
+        this.level = level;
+        this.previousLevel = previousLevel;
+        this.remainingSeconds = remainingSeconds;
+    }
+
+
+    /**
+     * Returns the name of the logger whose level is overridden.
+     * 
+     * @return
+     */
+    public String getLogger() {
+
+        return logger;
+    }
+
+
+    /**
+     * Returns the level set by the override.
+     * 
+     * @return
+     */
+    public String getLevel() {
+
+        return level;
+    }
+
+
+    /**
+     * Returns the level to be restored once the override expires.
+     * 
+     * @return
+     */
+    public String getPreviousLevel() {
+
+        return previousLevel;
+    }
+
+
+    /**
+     * Returns the number of seconds until the override expires.
+     * 
+     * @return
+     */
+    public long getRemainingSeconds() {
+
+        return remainingSeconds;
+    }
+}
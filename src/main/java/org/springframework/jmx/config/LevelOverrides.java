@@ -0,0 +1,203 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Time-boxed level overrides of the loggers of a logger repository. An
+ * override sets a level and restores the previous one once it expires unless
+ * the level was changed in the meantime. Overriding a logger again extends
+ * the override but keeps the level to be restored. All overrides are expired
+ * by the shared {@link TimerWheel}.
+ * 
+ * @author Oliver Gierke
+ */
+class LevelOverrides {
+
+    private static final Map<Object, LevelOverrides> INSTANCES =
+            new WeakHashMap<Object, LevelOverrides>();
+
+    private final TimerWheel timer;
+    private final Map<String, Entry> overrides = new TreeMap<String, Entry>();
+
+
+    LevelOverrides(TimerWheel timer) {
+
+        Assert.notNull(timer);
+        this.timer = timer;
+    }
+
+
+    /**
+     * Returns the {@link LevelOverrides} for the logger repository of the
+     * given {@link LoggerBackend}.
+     * 
+     * @param backend
+     * @return
+     */
+    public static LevelOverrides getInstance(LoggerBackend backend) {
+
+        synchronized (INSTANCES) {
+
+            LevelOverrides result = INSTANCES.get(backend.getRepository());
+
+            if (result == null) {
+                result = new LevelOverrides(TimerWheel.getInstance());
+                INSTANCES.put(backend.getRepository(), result);
+            }
+
+            return result;
+        }
+    }
+
+
+    /**
+     * Sets the given level for the given logger for the given number of
+     * seconds.
+     * 
+     * @param backend
+     * @param logger
+     * @param level
+     * @param seconds
+     * @return the level to be restored
+     * @throws IllegalArgumentException if the level is invalid or the
+     *             duration not positive
+     */
+    public String override(LoggerBackend backend, String logger, String level,
+            long seconds) {
+
+        return override(backend, Collections.singletonMap(logger, level),
+                seconds).get(logger);
+    }
+
+
+    /**
+     * Applies the given logger name to level mappings for the given number of
+     * seconds. Either all levels are applied or none if one of them is
+     * invalid.
+     * 
+     * @param backend
+     * @param levels
+     * @param seconds
+     * @return the levels to be restored
+     * @throws IllegalArgumentException if a level is invalid or the duration
+     *             not positive
+     */
+    public synchronized Map<String, String> override(LoggerBackend backend,
+            Map<String, String> levels, long seconds) {
+
+        Assert.isTrue(seconds > 0, "Duration must be positive!");
+
+        for (Map.Entry<String, String> entry : levels.entrySet()) {
+            if (!backend.isLevel(entry.getValue())) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid level %s for logger %s!", entry.getValue(),
+                        entry.getKey()));
+            }
+        }
+
+        Map<String, String> previous = new HashMap<String, String>();
+
+        synchronized (backend.getRepository()) {
+            for (Map.Entry<String, String> entry : levels.entrySet()) {
+                previous.put(entry.getKey(), apply(backend, entry.getKey(),
+                        entry.getValue(), seconds));
+            }
+        }
+
+        return previous;
+    }
+
+
+    private String apply(LoggerBackend backend, String logger, String level,
+            long seconds) {
+
+        Entry entry = overrides.get(logger);
+        String previous =
+                entry == null ? backend.getLevel(logger) : entry.previous;
+
+        if (!backend.setLevel(logger, level)) {
+            return previous;
+        }
+
+        if (entry != null) {
+            entry.timeout.cancel();
+        }
+
+        entry = new Entry(backend, logger, backend.getLevel(logger), previous);
+        entry.timeout = timer.schedule(entry, seconds * 1000);
+        overrides.put(logger, entry);
+
+        return previous;
+    }
+
+
+    /**
+     * Returns the active overrides ordered by logger name.
+     * 
+     * @return
+     */
+    public synchronized List<LevelOverride> getOverrides() {
+
+        List<LevelOverride> result =
+                new ArrayList<LevelOverride>(overrides.size());
+
+        for (Entry entry : overrides.values()) {
+            result.add(new LevelOverride(entry.logger, entry.level,
+                    entry.previous,
+                    (entry.timeout.getRemainingMillis() + 999) / 1000));
+        }
+
+        return result;
+    }
+
+
+    private synchronized void expire(Entry entry) {
+
+        if (overrides.get(entry.logger) != entry) {
+            return;
+        }
+
+        overrides.remove(entry.logger);
+
+        synchronized (entry.backend.getRepository()) {
+            if (entry.level.equals(entry.backend.getLevel(entry.logger))) {
+                entry.backend.setLevel(entry.logger, entry.previous);
+            }
+        }
+    }
+
+    private class Entry implements Runnable {
+
+        private final LoggerBackend backend;
+        private final String logger;
+        private final String level;
+        private final String previous;
+        private TimerWheel.Timeout timeout;
+
+
+        public Entry(LoggerBackend backend, String logger, String level,
+                String previous) {
+
+            this.backend = backend;
+            this.logger = logger;
+            this.level = level;
+            this.previous = previous;
+        }
+
+
+        @Override
+        public void run() {
+
+            expire(this);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jmx.export.MBeanExportException;
+import org.springframework.jmx.export.MBeanExportOperations;
+import org.springframework.util.Assert;
+
+
+/**
+ * Periodically checks the {@link LoggerBackend} for loggers created after
+ * startup and registers MBeans for the ones selected by a
+ * {@link LoggerSelector}. New loggers are registered in batches once a check
+ * doesn't find any further ones, so that a burst of new loggers results in a
+ * single batch of registrations. A batch is registered after
+ * {@value #MAX_DEFERRED_CHECKS} checks at the latest if new loggers keep
+ * appearing.
+ * <p>
+ * Loggers found are always exposed through MBeans of their own, even if the
+ * initial ones were exposed through logger groups. All registrars of a
+ * backend share the {@link JmxLoggers} exposed so that a logger selected by
+ * overlapping registrars is only exposed by the first one finding it.
+ * <p>
+ * If configured to discover, the registrar exposes all loggers currently
+ * selected right after startup in the background instead of having them
+ * registered while the configuration is parsed. With live checks disabled it
+ * stops after that discovery.
+ * 
+ * @author Oliver Gierke
+ */
+class LiveLoggerRegistrar implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory
+            .getLogger(LiveLoggerRegistrar.class);
+
+    static final int MAX_DEFERRED_CHECKS = 5;
+    private static final long DEFAULT_INTERVAL = 5000;
+
+    private final LoggerBackend backend;
+    private final LoggerSelector selector;
+    private final JmxLoggers registered;
+    private final MBeanExportOperations exporter;
+
+    private final Set<String> sources = new HashSet<String>();
+    private final List<JmxLogger> pending = new ArrayList<JmxLogger>();
+    private int deferredChecks;
+
+    private long interval = DEFAULT_INTERVAL;
+    private boolean live = true;
+    private boolean discover;
+    private JmxLoggerTree tree;
+    private ScheduledExecutorService executor;
+
+
+    /**
+     * Creates a new {@link LiveLoggerRegistrar}.
+     * 
+     * @param backend
+     * @param selector
+     * @param registered the loggers exposed for the backend, shared by all
+     *            registrars of the backend and guarded by synchronizing on it
+     * @param exporter
+     */
+    public LiveLoggerRegistrar(LoggerBackend backend, LoggerSelector selector,
+            JmxLoggers registered, MBeanExportOperations exporter) {
+
+        Assert.notNull(backend);
+        Assert.notNull(selector);
+        Assert.notNull(exporter);
+
+        this.backend = backend;
+        this.selector = selector;
+        this.registered = registered;
+        this.exporter = exporter;
+    }
+
+
+    /**
+     * Configures the interval in milliseconds to check for new loggers in.
+     * 
+     * @param interval
+     */
+    public void setInterval(long interval) {
+
+        Assert.isTrue(interval > 0, "Interval must be greater than zero!");
+        this.interval = interval;
+    }
+
+
+    /**
+     * Configures whether to periodically check for new loggers. Defaults to
+     * {@literal true}.
+     * 
+     * @param live
+     */
+    public void setLive(boolean live) {
+
+        this.live = live;
+    }
+
+
+    /**
+     * Configures whether to expose the loggers currently selected in the
+     * background right after startup. Defaults to {@literal false}.
+     * 
+     * @param discover
+     */
+    public void setDiscover(boolean discover) {
+
+        this.discover = discover;
+    }
+
+
+    /**
+     * Configures the {@link JmxLoggerTree} to add registered loggers to.
+     * Loggers already contained in it are not registered again. If discovery
+     * is enabled its completion is signaled to the tree.
+     * 
+     * @param tree
+     */
+    public void setTree(JmxLoggerTree tree) {
+
+        this.tree = tree;
+    }
+
+
+    /**
+     * Exposes all loggers currently selected right away.
+     * 
+     * @return the number of loggers registered
+     */
+    synchronized int discover() {
+
+        check();
+
+        return pending.isEmpty() ? 0 : register();
+    }
+
+
+    /**
+     * Checks the backend for new loggers and registers MBeans for the ones
+     * found once no further ones show up.
+     */
+    synchronized void check() {
+
+        boolean found = false;
+
+        for (String name : backend.getLoggerNames()) {
+
+            if (!sources.add(name) || !selector.isSource(name)) {
+                continue;
+            }
+
+            synchronized (registered) {
+                for (JmxLogger logger : selector.getLoggersFor(name,
+                        registered)) {
+                    registered.add(logger);
+                    pending.add(logger);
+                    found = true;
+                }
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        if (found && ++deferredChecks < MAX_DEFERRED_CHECKS) {
+            return;
+        }
+
+        register();
+    }
+
+
+    private int register() {
+
+        List<JmxLogger> loggers = tree == null ? pending : tree.add(pending);
+
+        for (JmxLogger logger : loggers) {
+            try {
+                exporter.registerManagedResource(
+                        backend.createMBean(logger.getName()),
+                        ObjectName.getInstance(logger.getJmxName()));
+            } catch (MBeanExportException e) {
+                LOG.warn("Could not register MBean for logger {}!",
+                        logger.getName(), e);
+            } catch (MalformedObjectNameException e) {
+                LOG.warn("Could not register MBean for logger {}!",
+                        logger.getName(), e);
+            }
+        }
+
+        int count = loggers.size();
+        LOG.debug("Registered MBeans for {} new loggers.", count);
+
+        pending.clear();
+        deferredChecks = 0;
+
+        return count;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.context.Lifecycle#start()
+     */
+    @Override
+    public synchronized void start() {
+
+        if (executor != null) {
+            return;
+        }
+
+        this.executor =
+                Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+
+                        Thread thread =
+                                new Thread(runnable, "jmx-logger-registrar");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
+        if (discover) {
+            executor.execute(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    try {
+                        LOG.debug("Discovered {} loggers.", discover());
+                    } catch (RuntimeException e) {
+                        LOG.warn("Could not discover loggers!", e);
+                    } finally {
+                        if (tree != null) {
+                            tree.discoveryCompleted();
+                        }
+                    }
+                }
+            });
+        }
+
+        if (!live) {
+            executor.shutdown();
+            return;
+        }
+
+        executor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+
+                try {
+                    check();
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not check for new loggers!", e);
+                }
+            }
+
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.context.Lifecycle#stop()
+     */
+    @Override
+    public synchronized void stop() {
+
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.context.SmartLifecycle#stop(java.lang.Runnable)
+     */
+    @Override
+    public void stop(Runnable callback) {
+
+        stop();
+        callback.run();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.context.Lifecycle#isRunning()
+     */
+    @Override
+    public synchronized boolean isRunning() {
+
+        return executor != null;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.context.SmartLifecycle#isAutoStartup()
+     */
+    @Override
+    public boolean isAutoStartup() {
+
+        return true;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.context.Phased#getPhase()
+     */
+    @Override
+    public int getPhase() {
+
+        return Integer.MAX_VALUE;
+    }
+}
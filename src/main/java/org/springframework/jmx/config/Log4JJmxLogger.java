@@ -0,0 +1,68 @@
+package org.springframework.jmx.config;
+
+import javax.management.MBeanInfo;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Simple wrapper class to easily expose a Log4J logger to JMX. Unlike Log4J's
+ * {@code LoggerDynamicMBean} it neither assembles its metadata per logger nor
+ * registers MBeans for the logger's appenders.
+ * 
+ * @author Oliver Gierke
+ */
+public class Log4JJmxLogger extends AbstractJmxLogger {
+
+    private static final LoggerBackend BACKEND = new Log4JLoggerBackend();
+    private static final MBeanInfo MBEAN_INFO = createMBeanInfo(
+            Log4JJmxLogger.class, "Log4J logger");
+
+    private final Logger logger;
+
+
+    public Log4JJmxLogger(Logger logger) {
+
+        this.logger = logger;
+    }
+
+
+    @Override
+    public String getName() {
+
+        return logger.getName();
+    }
+
+
+    @Override
+    public String getLevel() {
+
+        return Log4JLoggerBackend.getLevel(logger);
+    }
+
+
+    @Override
+    public void setLevel(String level) {
+
+        Log4JLoggerBackend.setLevel(logger, level);
+    }
+
+
+    @Override
+    LoggerBackend getBackend() {
+
+        return BACKEND;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see javax.management.DynamicMBean#getMBeanInfo()
+     */
+    @Override
+    public MBeanInfo getMBeanInfo() {
+
+        return MBEAN_INFO;
+    }
+}
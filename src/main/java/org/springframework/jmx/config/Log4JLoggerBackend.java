@@ -0,0 +1,158 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+import javax.management.DynamicMBean;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+
+/**
+ * {@link LoggerBackend} for Log4J.
+ * 
+ * @author Oliver Gierke
+ */
+class Log4JLoggerBackend implements LoggerBackend {
+
+    private static final String INHERITED = "";
+
+    /**
+     * Returns the Log4J {@link Level} for the given {@link String} or
+     * {@literal null} if the given value does not denote a level.
+     * 
+     * @param level
+     * @return
+     */
+    static Level toLevel(String level) {
+
+        return Level.toLevel(level, null);
+    }
+
+
+    @Override
+    public Object getRepository() {
+
+        return LogManager.getLoggerRepository();
+    }
+
+
+    @Override
+    public Iterable<String> getLoggerNames() {
+
+        List<String> names = new ArrayList<String>();
+
+        for (Enumeration<?> e = LogManager.getCurrentLoggers(); e
+                .hasMoreElements();) {
+            names.add(((Logger) e.nextElement()).getName());
+        }
+
+        return names;
+    }
+
+
+    /**
+     * Returns the level configured for the given {@link Logger} or an empty
+     * {@link String} if it inherits its level.
+     * 
+     * @param logger
+     * @return
+     */
+    static String getLevel(Logger logger) {
+
+        Level level = logger.getLevel();
+        return level == null ? INHERITED : level.toString();
+    }
+
+
+    @Override
+    public String getLevel(String name) {
+
+        return getLevel(Logger.getLogger(name));
+    }
+
+
+    @Override
+    public String getEffectiveLevel(String name) {
+
+        return Logger.getLogger(name).getEffectiveLevel().toString();
+    }
+
+
+    @Override
+    public boolean isLevel(String level) {
+
+        return INHERITED.equals(level) || toLevel(level) != null;
+    }
+
+
+    @Override
+    public boolean setLevel(String name, String level) {
+
+        return setLevel(Logger.getLogger(name), level);
+    }
+
+
+    /**
+     * Sets the level of the given {@link Logger}.
+     * 
+     * @param logger
+     * @param level
+     * @return whether the level was set
+     */
+    static boolean setLevel(Logger logger, String level) {
+
+        if (INHERITED.equals(level)) {
+
+            // the root logger has to have a level
+            if (logger == LogManager.getRootLogger()) {
+                return false;
+            }
+
+            logger.setLevel(null);
+            return true;
+        }
+
+        Level toSet = toLevel(level);
+
+        if (toSet == null) {
+            return false;
+        }
+
+        logger.setLevel(toSet);
+        return true;
+    }
+
+
+    @Override
+    public boolean supportsEventOperations() {
+
+        return false;
+    }
+
+
+    @Override
+    public String setMdcLevel(String name, String key, String value,
+            String level) {
+
+        throw new UnsupportedOperationException(
+                "MDC levels are not supported for Log4J!");
+    }
+
+
+    @Override
+    public String[] getMdcLevels(String name) {
+
+        return new String[0];
+    }
+
+
+    @Override
+    public DynamicMBean createMBean(String name) {
+
+        return new Log4JJmxLogger(Logger.getLogger(name));
+    }
+}
@@ -0,0 +1,211 @@
+package org.springframework.jmx.config;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.util.Assert;
+
+import ch.qos.logback.core.Appender;
+
+
+/**
+ * Exposes a Logback {@link Appender} to JMX. Queue metrics and controls are
+ * looked up as bean properties of the appender, so that any appender
+ * following the conventions of Logback's {@code AsyncAppender} gets them
+ * exposed without depending on a particular Logback version.
+ * 
+ * @author Oliver Gierke
+ */
+public class LogbackJmxAppender implements LogbackJmxAppenderMXBean {
+
+    private static final String QUEUE_SIZE = "queueSize";
+    private static final String ELEMENTS_IN_QUEUE = "numberOfElementsInQueue";
+    private static final String REMAINING_CAPACITY = "remainingCapacity";
+    private static final String DISCARDING_THRESHOLD = "discardingThreshold";
+    private static final String NEVER_BLOCK = "neverBlock";
+
+    private final Appender<?> appender;
+
+
+    /**
+     * Creates a new {@link LogbackJmxAppender} for the given {@link Appender}.
+     * 
+     * @param appender
+     */
+    public LogbackJmxAppender(Appender<?> appender) {
+
+        Assert.notNull(appender);
+        this.appender = appender;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LogbackJmxAppenderMXBean#getName()
+     */
+    @Override
+    public String getName() {
+
+        return appender.getName();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LogbackJmxAppenderMXBean#getType()
+     */
+    @Override
+    public String getType() {
+
+        return appender.getClass().getName();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LogbackJmxAppenderMXBean#isStarted()
+     */
+    @Override
+    public boolean isStarted() {
+
+        return appender.isStarted();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LogbackJmxAppenderMXBean#isQueued()
+     */
+    @Override
+    public boolean isQueued() {
+
+        BeanWrapper wrapper = new BeanWrapperImpl(appender);
+        return wrapper.isReadableProperty(QUEUE_SIZE)
+                && wrapper.isReadableProperty(REMAINING_CAPACITY);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.LogbackJmxAppenderMXBean#getQueueSize()
+     */
+    @Override
+    public int getQueueSize() {
+
+        return getIntProperty(QUEUE_SIZE);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LogbackJmxAppenderMXBean#
+     * getNumberOfElementsInQueue()
+     */
+    @Override
+    public int getNumberOfElementsInQueue() {
+
+        return getIntProperty(ELEMENTS_IN_QUEUE);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.LogbackJmxAppenderMXBean#getRemainingCapacity
+     * ()
+     */
+    @Override
+    public int getRemainingCapacity() {
+
+        return getIntProperty(REMAINING_CAPACITY);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LogbackJmxAppenderMXBean#
+     * getDiscardingThreshold()
+     */
+    @Override
+    public int getDiscardingThreshold() {
+
+        return getIntProperty(DISCARDING_THRESHOLD);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LogbackJmxAppenderMXBean#
+     * setDiscardingThreshold(int)
+     */
+    @Override
+    public void setDiscardingThreshold(int threshold) {
+
+        Assert.isTrue(threshold >= 0, "Threshold must not be negative!");
+        setProperty(DISCARDING_THRESHOLD, threshold);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.LogbackJmxAppenderMXBean#isNeverBlock()
+     */
+    @Override
+    public boolean isNeverBlock() {
+
+        BeanWrapper wrapper = new BeanWrapperImpl(appender);
+        return wrapper.isReadableProperty(NEVER_BLOCK)
+                && Boolean.TRUE.equals(wrapper.getPropertyValue(NEVER_BLOCK));
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.LogbackJmxAppenderMXBean#setNeverBlock
+     * (boolean)
+     */
+    @Override
+    public void setNeverBlock(boolean neverBlock) {
+
+        setProperty(NEVER_BLOCK, neverBlock);
+    }
+
+
+    private int getIntProperty(String property) {
+
+        BeanWrapper wrapper = new BeanWrapperImpl(appender);
+
+        if (!wrapper.isReadableProperty(property)) {
+            return -1;
+        }
+
+        return ((Number) wrapper.getPropertyValue(property)).intValue();
+    }
+
+
+    private void setProperty(String property, Object value) {
+
+        BeanWrapper wrapper = new BeanWrapperImpl(appender);
+
+        if (!wrapper.isWritableProperty(property)) {
+            throw new UnsupportedOperationException(String.format(
+                    "Appender %s does not support setting %s!", getName(),
+                    property));
+        }
+
+        wrapper.setPropertyValue(property, value);
+    }
+}
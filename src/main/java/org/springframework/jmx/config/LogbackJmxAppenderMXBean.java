@@ -0,0 +1,106 @@
+package org.springframework.jmx.config;
+
+/**
+ * Management interface of the {@link LogbackJmxAppender}. The queue related
+ * attributes are only available for appenders handing events to a queue
+ * drained by a worker thread, i.e. appenders exposing the according
+ * properties like Logback's {@code AsyncAppender}.
+ * 
+ * @author Oliver Gierke
+ */
+public interface LogbackJmxAppenderMXBean {
+
+    /**
+     * Returns the name of the appender.
+     * 
+     * @return
+     */
+    String getName();
+
+
+    /**
+     * Returns the class name of the appender.
+     * 
+     * @return
+     */
+    String getType();
+
+
+    /**
+     * Returns whether the appender is started.
+     * 
+     * @return
+     */
+    boolean isStarted();
+
+
+    /**
+     * Returns whether the appender hands events to a queue.
+     * 
+     * @return
+     */
+    boolean isQueued();
+
+
+    /**
+     * Returns the capacity of the queue or {@literal -1} if not queued.
+     * 
+     * @return
+     */
+    int getQueueSize();
+
+
+    /**
+     * Returns the number of events in the queue or {@literal -1} if not
+     * queued.
+     * 
+     * @return
+     */
+    int getNumberOfElementsInQueue();
+
+
+    /**
+     * Returns the remaining capacity of the queue or {@literal -1} if not
+     * queued.
+     * 
+     * @return
+     */
+    int getRemainingCapacity();
+
+
+    /**
+     * Returns the remaining capacity below which events of level INFO and
+     * below get discarded or {@literal -1} if not supported by the appender.
+     * 
+     * @return
+     */
+    int getDiscardingThreshold();
+
+
+    /**
+     * Sets the remaining capacity below which events of level INFO and below
+     * get discarded.
+     * 
+     * @param threshold
+     */
+    void setDiscardingThreshold(int threshold);
+
+
+    /**
+     * Returns whether events get dropped instead of blocking the logging
+     * thread if the queue is full. Returns {@literal false} if not supported
+     * by the appender.
+     * 
+     * @return
+     */
+    boolean isNeverBlock();
+
+
+    /**
+     * Sets whether events shall be dropped instead of blocking the logging
+     * thread if the queue is full.
+     * 
+     * @param neverBlock
+     */
+    void setNeverBlock(boolean neverBlock);
+}
@@ -1,21 +1,60 @@
 package org.springframework.jmx.config;
 
-import org.springframework.jmx.export.annotation.ManagedAttribute;
-import org.springframework.jmx.export.annotation.ManagedResource;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanRegistration;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 
 
 /**
- * Simple wrapper class to easily expose a Logback logger to JMX.
+ * Simple wrapper class to easily expose a Logback logger to JMX. If an
+ * {@link EventCountingTurboFilter} is installed in the logger's context when
+ * the MBean gets registered, the logger registers with it and exposes its
+ * event counts per level as additional attributes. Likewise a logger
+ * representing a logger group exposes the latencies of the appender
+ * invocations for the group's events if an {@link AppenderTimer} is
+ * installed.
  * 
  * @author Oliver Gierke
  */
-@ManagedResource
-public class LogbackJmxLogger {
+public class LogbackJmxLogger extends AbstractJmxLogger implements
+        MBeanRegistration {
+
+    static final String[] EVENT_COUNTS = { "TraceEvents", "DebugEvents",
+            "InfoEvents", "WarnEvents", "ErrorEvents" };
+
+    static final String[] APPEND_LATENCIES = { "AppendNanosMedian",
+            "AppendNanos99thPercentile", "AppendNanos999thPercentile",
+            "AppendNanosMax" };
+
+    private static final double[] PERCENTILES = { 50, 99, 99.9 };
+
+    private static final MBeanInfo MBEAN_INFO = createMBeanInfo(
+            LogbackJmxLogger.class, "Logback logger",
+            new MBeanAttributeInfo[0], getEventOperations());
+    private static final MBeanInfo COUNTING_MBEAN_INFO = createMBeanInfo(
+            LogbackJmxLogger.class, "Logback logger counting events",
+            getEventCountAttributes(), getEventOperations());
+    private static final MBeanInfo TIMING_MBEAN_INFO = createMBeanInfo(
+            LogbackJmxLogger.class, "Logback logger timing appenders",
+            getAppendLatencyAttributes(), getEventOperations());
+    private static final MBeanInfo COUNTING_TIMING_MBEAN_INFO =
+            createMBeanInfo(LogbackJmxLogger.class,
+                    "Logback logger counting events and timing appenders",
+                    concat(getEventCountAttributes(),
+                            getAppendLatencyAttributes()),
+                    getEventOperations());
 
     private final Logger logger;
+    private volatile StripedCounter events;
+    private volatile LatencyHistogram latencies;
 
 
     public LogbackJmxLogger(Logger logger) {
@@ -24,32 +63,219 @@ public class LogbackJmxLogger {
     }
 
 
-    @ManagedAttribute
+    @Override
     public String getName() {
 
         return logger.getName();
     }
 
 
-    @ManagedAttribute
+    @Override
     public String getLevel() {
 
-        Level level = logger.getLevel();
-        return level == null ? "" : level.toString();
+        return LogbackLoggerBackend.getLevel(logger);
     }
 
 
-    @ManagedAttribute
+    @Override
     public void setLevel(String level) {
 
-        Level toSet = Level.toLevel(level);
+        LogbackLoggerBackend.setLevel(logger, level);
+    }
+
+
+    @Override
+    LoggerBackend getBackend() {
+
+        return new LogbackLoggerBackend(logger.getLoggerContext());
+    }
+
+
+    /**
+     * Returns the number of events logged with the given level by the logger
+     * and its nested loggers not exposed themselves. Returns -1 if events are
+     * not counted.
+     * 
+     * @param level
+     * @return
+     */
+    public long getEventCount(Level level) {
+
+        StripedCounter events = this.events;
+
+        if (events == null) {
+            return -1;
+        }
+
+        for (int i = 0; i < EventCountingTurboFilter.LEVELS.length; i++) {
+            if (EventCountingTurboFilter.LEVELS[i].equals(level)) {
+                return events.get(i);
+            }
+        }
+
+        throw new IllegalArgumentException("Unsupported level " + level + "!");
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.AbstractJmxLogger#getAttribute(java.lang
+     * .String)
+     */
+    @Override
+    public Object getAttribute(String attribute)
+            throws AttributeNotFoundException, MBeanException,
+            ReflectionException {
+
+        StripedCounter events = this.events;
+
+        if (events != null) {
+            for (int i = 0; i < EVENT_COUNTS.length; i++) {
+                if (EVENT_COUNTS[i].equals(attribute)) {
+                    return events.get(i);
+                }
+            }
+        }
+
+        LatencyHistogram latencies = this.latencies;
+
+        if (latencies != null) {
+
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                if (APPEND_LATENCIES[i].equals(attribute)) {
+                    return latencies.getPercentile(PERCENTILES[i]);
+                }
+            }
+
+            if (APPEND_LATENCIES[PERCENTILES.length].equals(attribute)) {
+                return latencies.getMax();
+            }
+        }
+
+        return super.getAttribute(attribute);
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see javax.management.DynamicMBean#getMBeanInfo()
+     */
+    @Override
+    public MBeanInfo getMBeanInfo() {
+
+        if (latencies == null) {
+            return events == null ? MBEAN_INFO : COUNTING_MBEAN_INFO;
+        }
+
+        return events == null ? TIMING_MBEAN_INFO : COUNTING_TIMING_MBEAN_INFO;
+    }
+
+
+    /**
+     * Registers the logger with the {@link EventCountingTurboFilter} and
+     * {@link AppenderTimer} installed in its context and the
+     * {@link BurstDetector} started for it, if any.
+     * 
+     * @see javax.management.MBeanRegistration#preRegister(javax.management.MBeanServer,
+     *      javax.management.ObjectName)
+     */
+    @Override
+    public ObjectName preRegister(MBeanServer server, ObjectName name) {
+
+        EventCountingTurboFilter filter =
+                EventCountingTurboFilter.getInstalled(logger
+                        .getLoggerContext());
+
+        if (filter != null) {
+            this.events = filter.register(logger.getName());
+        }
+
+        AppenderTimer timer =
+                AppenderTimer.getInstalled(logger.getLoggerContext());
+
+        if (timer != null) {
+            this.latencies = timer.getGroupLatencies(logger.getName());
+        }
+
+        BurstDetector detector =
+                BurstDetector.getStarted(logger.getLoggerContext());
+
+        if (detector != null) {
+            detector.register(this);
+        }
+
+        return name;
+    }
+
+
+    @Override
+    public void postRegister(Boolean registrationDone) {
+
+    }
+
+
+    @Override
+    public void preDeregister() {
+
+    }
+
+
+    /**
+     * Unregisters the logger from the {@link BurstDetector} started for its
+     * context, if any.
+     * 
+     * @see javax.management.MBeanRegistration#postDeregister()
+     */
+    @Override
+    public void postDeregister() {
+
+        BurstDetector detector =
+                BurstDetector.getStarted(logger.getLoggerContext());
+
+        if (detector != null) {
+            detector.unregister(this);
+        }
+    }
+
+
+    private static MBeanAttributeInfo[] getEventCountAttributes() {
+
+        MBeanAttributeInfo[] result =
+                new MBeanAttributeInfo[EVENT_COUNTS.length];
+
+        for (int i = 0; i < EVENT_COUNTS.length; i++) {
+            result[i] =
+                    new MBeanAttributeInfo(EVENT_COUNTS[i],
+                            long.class.getName(), String.format(
+                                    "The number of %s events logged",
+                                    EventCountingTurboFilter.LEVELS[i]), true,
+                            false, false);
+        }
+
+        return result;
+    }
+
+
+    private static MBeanAttributeInfo[] getAppendLatencyAttributes() {
+
+        MBeanAttributeInfo[] result =
+                new MBeanAttributeInfo[APPEND_LATENCIES.length];
 
-        // Level.toLevel defaults to DEBUG, so only set it if input was DEBUG
-        // already
-        if (!"DEBUG".equals(level) && Level.DEBUG.equals(toSet)) {
-            return;
+        for (int i = 0; i < APPEND_LATENCIES.length; i++) {
+            result[i] =
+                    new MBeanAttributeInfo(APPEND_LATENCIES[i],
+                            long.class.getName(), i < PERCENTILES.length
+                                    ? String.format("The %sth percentile of "
+                                            + "the appender latencies in "
+                                            + "nanoseconds", PERCENTILES[i])
+                                    : "The highest appender latency in "
+                                            + "nanoseconds", true, false,
+                            false);
         }
 
-        this.logger.setLevel(toSet);
+        return result;
     }
-}
\ No newline at end of file
+}
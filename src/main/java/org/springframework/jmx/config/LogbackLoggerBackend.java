@@ -0,0 +1,228 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.DynamicMBean;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * {@link LoggerBackend} for Logback. Besides plain levels it supports sampled
+ * levels like {@literal DEBUG@1%} (see {@link SampledLevel}).
+ * 
+ * @author Oliver Gierke
+ */
+class LogbackLoggerBackend implements LoggerBackend {
+
+    private static final String INHERITED = "";
+
+    private final LoggerContext context;
+
+
+    public LogbackLoggerBackend(LoggerContext context) {
+
+        this.context = context;
+    }
+
+
+    /**
+     * Returns the Logback {@link Level} for the given {@link String} or
+     * {@literal null} if the given value does not denote a level.
+     * 
+     * @param level
+     * @return
+     */
+    static Level toLevel(String level) {
+
+        Level result = Level.toLevel(level);
+
+        // Level.toLevel defaults to DEBUG, so only use it if input was DEBUG
+        // already
+        if (!"DEBUG".equals(level) && Level.DEBUG.equals(result)) {
+            return null;
+        }
+
+        return result;
+    }
+
+
+    @Override
+    public LoggerContext getRepository() {
+
+        return context;
+    }
+
+
+    @Override
+    public Iterable<String> getLoggerNames() {
+
+        List<String> result = new ArrayList<String>();
+
+        for (Logger logger : context.getLoggerList()) {
+            result.add(logger.getName());
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns the level of the given {@link Logger}, i.e. its sampled level if
+     * set, its configured level otherwise.
+     * 
+     * @param logger
+     * @return
+     */
+    static String getLevel(Logger logger) {
+
+        SamplingTurboFilter filter =
+                SamplingTurboFilter.getInstalled(logger.getLoggerContext());
+        SampledLevel sampled =
+                filter == null ? null : filter.get(logger.getName());
+
+        if (sampled != null) {
+            return sampled.toString();
+        }
+
+        Level level = logger.getLevel();
+        return level == null ? INHERITED : level.toString();
+    }
+
+
+    /**
+     * Sets the level of the given {@link Logger}. A sampled level is set in
+     * addition to the configured level, a plain one replaces a sampled one.
+     * 
+     * @param logger
+     * @param level
+     * @return whether the level was set
+     */
+    static boolean setLevel(Logger logger, String level) {
+
+        SampledLevel sampled = SampledLevel.parse(level);
+
+        if (sampled != null) {
+            SamplingTurboFilter.getInstance(logger.getLoggerContext()).set(
+                    logger.getName(), sampled);
+            JulLevelPropagator.refresh(logger.getLoggerContext());
+            return true;
+        }
+
+        Level toSet = null;
+
+        if (INHERITED.equals(level)) {
+
+            // the root logger has to have a level
+            if (Logger.ROOT_LOGGER_NAME.equals(logger.getName())) {
+                return false;
+            }
+        } else {
+
+            toSet = toLevel(level);
+
+            if (toSet == null) {
+                return false;
+            }
+        }
+
+        SamplingTurboFilter filter =
+                SamplingTurboFilter.getInstalled(logger.getLoggerContext());
+
+        boolean unsampled =
+                filter != null && filter.remove(logger.getName()) != null;
+
+        logger.setLevel(toSet);
+
+        if (unsampled) {
+            JulLevelPropagator.refresh(logger.getLoggerContext());
+        }
+
+        return true;
+    }
+
+
+    @Override
+    public String getLevel(String name) {
+
+        return getLevel(context.getLogger(name));
+    }
+
+
+    @Override
+    public String getEffectiveLevel(String name) {
+
+        return context.getLogger(name).getEffectiveLevel().toString();
+    }
+
+
+    @Override
+    public boolean isLevel(String level) {
+
+        return INHERITED.equals(level) || toLevel(level) != null
+                || SampledLevel.parse(level) != null;
+    }
+
+
+    @Override
+    public boolean setLevel(String name, String level) {
+
+        return setLevel(context.getLogger(name), level);
+    }
+
+
+    @Override
+    public boolean supportsEventOperations() {
+
+        return true;
+    }
+
+
+    @Override
+    public String setMdcLevel(String name, String key, String value,
+            String level) {
+
+        Level toSet = null;
+
+        if (!INHERITED.equals(level)) {
+
+            toSet = toLevel(level);
+
+            if (toSet == null) {
+                throw new IllegalArgumentException(String.format(
+                        "Unknown level %s!", level));
+            }
+        }
+
+        Level previous =
+                MdcLevelTurboFilter.getInstance(context).set(name, key, value,
+                        toSet);
+        JulLevelPropagator.refresh(context);
+
+        return previous == null ? INHERITED : previous.toString();
+    }
+
+
+    @Override
+    public String[] getMdcLevels(String name) {
+
+        MdcLevelTurboFilter filter = MdcLevelTurboFilter.getInstalled(context);
+
+        if (filter == null) {
+            return new String[0];
+        }
+
+        List<String> result = filter.get(name);
+        return result.toArray(new String[result.size()]);
+    }
+
+
+    @Override
+    public DynamicMBean createMBean(String name) {
+
+        return new LogbackJmxLogger(context.getLogger(name));
+    }
+}
@@ -0,0 +1,117 @@
+package org.springframework.jmx.config;
+
+import javax.management.DynamicMBean;
+
+
+/**
+ * Abstraction of the logging library loggers get exposed for. Allows
+ * accessing the loggers of the underlying logger repository by name.
+ * 
+ * @author Oliver Gierke
+ */
+interface LoggerBackend {
+
+    /**
+     * Returns the logger repository of the backend. Used to identify the
+     * repository, e.g. to share state between elements exposing loggers of
+     * the same repository.
+     * 
+     * @return
+     */
+    Object getRepository();
+
+
+    /**
+     * Returns the names of all loggers currently known to the repository.
+     * 
+     * @return
+     */
+    Iterable<String> getLoggerNames();
+
+
+    /**
+     * Returns the level configured for the logger with the given name or an
+     * empty {@link String} if the logger inherits its level.
+     * 
+     * @param name
+     * @return
+     */
+    String getLevel(String name);
+
+
+    /**
+     * Returns the level effectively in use for the logger with the given name.
+     * 
+     * @param name
+     * @return
+     */
+    String getEffectiveLevel(String name);
+
+
+    /**
+     * Returns whether the given {@link String} denotes a level of the backend
+     * or is empty to denote an inherited level.
+     * 
+     * @param level
+     * @return
+     */
+    boolean isLevel(String level);
+
+
+    /**
+     * Sets the level of the logger with the given name. An empty
+     * {@link String} makes the logger inherit its level again. Unknown levels
+     * are ignored.
+     * 
+     * @param name
+     * @param level
+     * @return whether the level was applied
+     */
+    boolean setLevel(String name, String level);
+
+
+    /**
+     * Returns whether the loggers of the backend support operations on the
+     * events logged, i.e. MDC levels and keeping recent events.
+     * 
+     * @return
+     */
+    boolean supportsEventOperations();
+
+
+    /**
+     * Sets the level of the logger with the given name for events logged
+     * while the MDC holds the given value for the given key only. An empty
+     * {@link String} removes the level set for the MDC value.
+     * 
+     * @param name
+     * @param key
+     * @param value
+     * @param level
+     * @return the level previously set for the MDC value or an empty
+     *         {@link String} if none set
+     * @throws IllegalArgumentException if the level is unknown
+     * @throws UnsupportedOperationException if the backend does not support
+     *             MDC levels
+     */
+    String setMdcLevel(String name, String key, String value, String level);
+
+
+    /**
+     * Returns the MDC levels set for the logger with the given name formatted
+     * as {@literal key=value:LEVEL}.
+     * 
+     * @param name
+     * @return
+     */
+    String[] getMdcLevels(String name);
+
+
+    /**
+     * Creates a {@link DynamicMBean} exposing the logger with the given name.
+     * 
+     * @param name
+     * @return
+     */
+    DynamicMBean createMBean(String name);
+}
@@ -0,0 +1,167 @@
+package org.springframework.jmx.config;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Resolves the logger group a logger belongs to given a list of rules
+ * defining base packages and keeps a value per group. A logger group is the
+ * logger named after the first package segment below a base package, just
+ * like the groups selected by {@link LoggerSelector}. If a logger is located
+ * below multiple base packages the longest one wins. Values are created when
+ * the first logger of their group is resolved. The result is cached per
+ * logger name, so that repeated lookups are lock-free and don't allocate.
+ * 
+ * @author Oliver Gierke
+ */
+abstract class LoggerGroupResolver<R, T> {
+
+    private final Object none = new Object();
+    private final List<R> rules;
+    private final Map<String, T> groups = new ConcurrentHashMap<String, T>();
+    private final Map<String, Object> resolved =
+            new ConcurrentHashMap<String, Object>();
+
+
+    /**
+     * Creates a new {@link LoggerGroupResolver} for the given rules.
+     * 
+     * @param rules
+     */
+    public LoggerGroupResolver(List<R> rules) {
+
+        Assert.notNull(rules);
+        this.rules = rules;
+    }
+
+
+    /**
+     * Returns the values of the groups resolved so far by group name.
+     * 
+     * @return
+     */
+    public Map<String, T> getGroups() {
+
+        return Collections.unmodifiableMap(groups);
+    }
+
+
+    /**
+     * Returns the value of the given group or {@literal null} if no logger of
+     * the group was resolved yet.
+     * 
+     * @param group
+     * @return
+     */
+    public T get(String group) {
+
+        return groups.get(group);
+    }
+
+
+    /**
+     * Returns the value of the group the logger with the given name belongs to
+     * or {@literal null} if it's not part of a group.
+     * 
+     * @param logger
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public T resolve(String logger) {
+
+        Object result = resolved.get(logger);
+
+        if (result == null) {
+            result = lookup(logger);
+        }
+
+        return result == none ? null : (T) result;
+    }
+
+
+    /**
+     * Returns the name of the group the logger with the given name belongs to
+     * or {@literal null} if it's not located in or below any base package.
+     * 
+     * @param logger
+     * @return
+     */
+    public String getGroup(String logger) {
+
+        R rule = getRule(logger);
+        return rule == null ? null : LoggerSelector.getGroup(
+                getBasePackage(rule), logger);
+    }
+
+
+    /**
+     * Returns the base package of the given rule.
+     * 
+     * @param rule
+     * @return
+     */
+    protected abstract String getBasePackage(R rule);
+
+
+    /**
+     * Creates the value of the given group defined by the given rule.
+     * 
+     * @param group
+     * @param rule
+     * @return
+     */
+    protected abstract T createGroup(String group, R rule);
+
+
+    private synchronized Object lookup(String logger) {
+
+        Object result = resolved.get(logger);
+
+        if (result != null) {
+            return result;
+        }
+
+        R rule = getRule(logger);
+        result = none;
+
+        if (rule != null) {
+
+            String group = LoggerSelector.getGroup(getBasePackage(rule), logger);
+            T value = groups.get(group);
+
+            if (value == null) {
+                value = createGroup(group, rule);
+                groups.put(group, value);
+            }
+
+            result = value;
+        }
+
+        resolved.put(logger, result);
+        return result;
+    }
+
+
+    private R getRule(String logger) {
+
+        R result = null;
+
+        for (R candidate : rules) {
+
+            String basePackage = getBasePackage(candidate);
+
+            if (LoggerSelector.getGroup(basePackage, logger) != null
+                    && (result == null || basePackage.length() > getBasePackage(
+                            result).length())) {
+                result = candidate;
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,214 @@
+package org.springframework.jmx.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+
+/**
+ * Index of logger names organized as trie of their dot separated name
+ * segments. Built once from a logger repository it allows looking up the
+ * loggers below a given base package by only walking the matching subtree
+ * instead of scanning all loggers of the repository. Alternatively it can be
+ * loaded from logger index files written at compile time.
+ * 
+ * @author Oliver Gierke
+ */
+class LoggerNameIndex {
+
+    private final Node root = new Node(null);
+
+
+    /**
+     * Creates a new {@link LoggerNameIndex} containing the given logger names.
+     * 
+     * @param names
+     */
+    public LoggerNameIndex(Iterable<String> names) {
+
+        for (String name : names) {
+            add(name);
+        }
+    }
+
+
+    /**
+     * Creates a new {@link LoggerNameIndex} from the given logger index files.
+     * The files contain a logger name per line, blank lines and lines starting
+     * with {@literal #} are ignored.
+     * 
+     * @param resources
+     * @return
+     * @throws IOException
+     */
+    public static LoggerNameIndex load(Resource... resources)
+            throws IOException {
+
+        LoggerNameIndex index = new LoggerNameIndex(new ArrayList<String>());
+
+        for (Resource resource : resources) {
+
+            BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(
+                            resource.getInputStream(), "UTF-8"));
+
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+
+                    line = line.trim();
+
+                    if (line.length() != 0 && !line.startsWith("#")) {
+                        index.add(line);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+
+        return index;
+    }
+
+
+    /**
+     * Adds the logger with the given name to the index.
+     * 
+     * @param name
+     */
+    public void add(String name) {
+
+        Assert.hasText(name);
+
+        Node current = root;
+        int start = 0;
+
+        while (start <= name.length()) {
+
+            int end = name.indexOf('.', start);
+            end = end == -1 ? name.length() : end;
+
+            current = current.getOrCreateChild(name, start, end);
+            start = end + 1;
+        }
+
+        current.logger = true;
+    }
+
+
+    /**
+     * Returns the logger names to be used as source to detect loggers below
+     * the given base package up to the given depth. Loggers nested deeper than
+     * the given depth are represented by a single name per subtree as they
+     * result in the very same candidates up to the given depth.
+     * 
+     * @param basePackage
+     * @param depth
+     * @return
+     */
+    public Collection<String> getSourcesBelow(String basePackage, int depth) {
+
+        List<String> result = new ArrayList<String>();
+        Node node = find(basePackage);
+
+        if (node != null) {
+            node.collectSources(depth, result);
+        }
+
+        return result;
+    }
+
+
+    private Node find(String name) {
+
+        Node current = root;
+        int start = 0;
+
+        while (current != null && start <= name.length()) {
+
+            int end = name.indexOf('.', start);
+            end = end == -1 ? name.length() : end;
+
+            current = current.getChild(name.substring(start, end));
+            start = end + 1;
+        }
+
+        return current;
+    }
+
+    /**
+     * A single name segment within the index.
+     * 
+     * @author Oliver Gierke
+     */
+    private static class Node {
+
+        private final String name;
+        private Map<String, Node> children;
+        private boolean logger;
+
+
+        public Node(String name) {
+
+            this.name = name;
+        }
+
+
+        public Node getChild(String segment) {
+
+            return children == null ? null : children.get(segment);
+        }
+
+
+        public Node getOrCreateChild(String source, int start, int end) {
+
+            String segment = source.substring(start, end);
+            Node child = getChild(segment);
+
+            if (child == null) {
+
+                if (children == null) {
+                    children = new HashMap<String, Node>();
+                }
+
+                child = new Node(end == source.length() ? source : source
+                        .substring(0, end));
+                children.put(segment, child);
+            }
+
+            return child;
+        }
+
+
+        public void collectSources(int depth, List<String> result) {
+
+            if (logger) {
+                result.add(name);
+            }
+
+            if (children == null) {
+                return;
+            }
+
+            if (depth > 0) {
+
+                for (Node child : children.values()) {
+                    child.collectSources(depth - 1, result);
+                }
+
+            } else {
+
+                // any nested logger produces the same candidates
+                result.add(children.values().iterator().next().name);
+            }
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package org.springframework.jmx.config;
 
-import static org.springframework.util.StringUtils.*;
-
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -13,7 +11,8 @@ import java.util.Set;
  * Helper class to find logger names above a certain base package with a sertain
  * deepness. So given a base package of {@code foo} and a level of 2 it would
  * select all loggers form a given candidate that match the base package and
- * have two more levels of nesting.
+ * have two more levels of nesting. Instances are not thread-safe as they
+ * reuse internal buffers across invocations.
  * 
  * @author Oliver Gierke
  */
@@ -21,7 +20,7 @@ class LoggerSelector {
 
     private final String basePackage;
     private final int levels;
-    private final boolean omitClassLoggers;
+    private final CandidateSource candidateSource;
 
 
     public LoggerSelector(String basePackage, int levels,
@@ -29,7 +28,56 @@ class LoggerSelector {
 
         this.basePackage = basePackage;
         this.levels = levels;
-        this.omitClassLoggers = omitClassLoggers;
+        this.candidateSource =
+                new CandidateSource(basePackage, omitClassLoggers);
+    }
+
+
+    /**
+     * Returns whether the logger with the given name is located in or below
+     * the base package and thus can serve as source for
+     * {@link #getLoggersFor(String)}.
+     * 
+     * @param name
+     * @return
+     */
+    public boolean isSource(String name) {
+
+        return name.startsWith(basePackage)
+                && (name.length() == basePackage.length() || name
+                        .charAt(basePackage.length()) == '.');
+    }
+
+
+    /**
+     * Returns the name of the logger group the logger with the given name
+     * belongs to, i.e. the logger named after the first package segment below
+     * the given base package, or {@literal null} if it's not located in or
+     * below the base package. Loggers directly named after the base package
+     * form a group of their own.
+     * 
+     * @param basePackage
+     * @param logger
+     * @return
+     */
+    public static String getGroup(String basePackage, String logger) {
+
+        if (!logger.startsWith(basePackage)) {
+            return null;
+        }
+
+        int length = basePackage.length();
+
+        if (logger.length() == length) {
+            return logger;
+        }
+
+        if (logger.charAt(length) != '.') {
+            return null;
+        }
+
+        int end = logger.indexOf('.', length + 1);
+        return end == -1 ? logger : logger.substring(0, end);
     }
 
 
@@ -47,7 +95,8 @@ class LoggerSelector {
 
     /**
      * Returns all logger names for the given source logger but omitting the
-     * ones also given.
+     * ones also given. Candidates are enumerated as prefixes of the source
+     * logger's name so that names are only created for loggers not found yet.
      * 
      * @param source
      * @param alreadyFound
@@ -55,87 +104,179 @@ class LoggerSelector {
      */
     public Set<JmxLogger> getLoggersFor(String source, JmxLoggers alreadyFound) {
 
-        CandidateSource loggerSource =
-                new CandidateSource(basePackage, source, omitClassLoggers);
-        Candidate groupCandidate = Candidate.NO_GROUP_CANDIDATE;
-        Set<JmxLogger> result = new HashSet<JmxLogger>();
+        CandidateSource loggerSource = candidateSource.reset(source);
+        Set<JmxLogger> result = null;
+        String group = null;
+
+        int candidates = loggerSource.getCandidateCount(levels);
 
-        for (org.springframework.jmx.config.Candidate candidate : loggerSource
-                .getCandidatesUpToLevel(levels)) {
+        for (int level = 0; level < candidates; level++) {
 
-            if (candidate.isGroupCandidate()) {
-                groupCandidate = candidate;
+            if (alreadyFound.containsLoggerFor(source,
+                    loggerSource.getCandidateEnd(level))) {
+                continue;
             }
 
-            if (!alreadyFound.containsLoggerFor(candidate)) {
+            if (result == null) {
+                result = new HashSet<JmxLogger>();
+            }
 
-                JmxLogger jmxLogger =
-                        new JmxLogger(candidate.getName(),
-                                groupCandidate.getName());
-                result.add(jmxLogger);
+            if (level > 0 && group == null) {
+                group = loggerSource.getCandidateName(1);
             }
+
+            result.add(new JmxLogger(loggerSource.getCandidateName(level),
+                    level == 0 ? null : group));
         }
 
-        return result;
+        return result == null ? Collections.<JmxLogger> emptySet() : result;
     }
 
     /**
      * Class to provide {@link JmxLogger} {@link Candidate}s given a base
      * package and the {@link String} source to retrieve {@link Candidate}s
-     * from.
+     * from. Candidates are tracked as end offsets into the source so that a
+     * single instance can be {@link #reset(String)} and reused for many
+     * sources without creating garbage per candidate.
      * 
      * @author Oliver Gierke
      */
     static class CandidateSource {
 
-        private String basePackage;
-        private String[] subParts;
+        private final String basePackage;
+        private final boolean omitClassLoggers;
+
+        private String source;
+        private int[] ends = new int[8];
+        private int count;
 
 
         public CandidateSource(String basePackage, String source,
                 boolean omitClassLoggers) {
 
+            this(basePackage, omitClassLoggers);
+            reset(source);
+        }
+
+
+        CandidateSource(String basePackage, boolean omitClassLoggers) {
+
             this.basePackage = basePackage;
+            this.omitClassLoggers = omitClassLoggers;
+        }
 
-            if (source.equals(basePackage)) {
-                this.subParts = new String[0];
-            } else {
-                String toChop =
-                        source.substring(basePackage.length() + 1,
-                                source.length());
-                this.subParts = delimitedListToStringArray(toChop, ".");
-
-                if (lastPartIsClass(subParts) && omitClassLoggers) {
-                    this.subParts =
-                            Arrays.copyOf(this.subParts, subParts.length - 1);
-                }
+
+        /**
+         * Points the {@link CandidateSource} to the given source logger name.
+         * 
+         * @param source
+         * @return the {@link CandidateSource} itself
+         */
+        CandidateSource reset(String source) {
+
+            this.source = source;
+            this.count = 0;
+
+            addEnd(basePackage.length());
+
+            if (source.length() <= basePackage.length()) {
+                return this;
+            }
+
+            int start = basePackage.length() + 1;
+            int dot;
+
+            while ((dot = source.indexOf('.', start)) != -1) {
+                addEnd(dot);
+                start = dot + 1;
+            }
+
+            if (!(omitClassLoggers && isClass(source, start))) {
+                addEnd(source.length());
             }
+
+            return this;
         }
 
 
-        private final boolean lastPartIsClass(String[] parts) {
+        private void addEnd(int end) {
+
+            if (count == ends.length) {
+                int[] grown = new int[ends.length * 2];
+                System.arraycopy(ends, 0, grown, 0, count);
+                this.ends = grown;
+            }
 
-            return parts[parts.length - 1].matches("[A-Z].*");
+            ends[count++] = end;
         }
 
 
-        public List<Candidate> getCandidatesUpToLevel(int levels) {
+        private static boolean isClass(String source, int segmentStart) {
+
+            if (segmentStart >= source.length()) {
+                return false;
+            }
+
+            char first = source.charAt(segmentStart);
+            return first >= 'A' && first <= 'Z';
+        }
 
-            List<Candidate> candidates = new ArrayList<Candidate>();
 
-            for (int i = 0; i <= levels && i <= subParts.length; i++) {
+        /**
+         * Returns the number of candidates available up to the given level.
+         * 
+         * @param levels
+         * @return
+         */
+        int getCandidateCount(int levels) {
+
+            return Math.min(levels + 1, count);
+        }
+
+
+        /**
+         * Returns the end offset of the candidate of the given level within
+         * the source, i.e. the candidate's name is the source's prefix up to
+         * that offset.
+         * 
+         * @param level
+         * @return
+         */
+        int getCandidateEnd(int level) {
+
+            return ends[level];
+        }
+
+
+        /**
+         * Returns the name of the candidate of the given level.
+         * 
+         * @param level
+         * @return
+         */
+        String getCandidateName(int level) {
+
+            int end = ends[level];
+
+            if (level == 0) {
+                return basePackage;
+            }
+
+            return end == source.length() ? source : source.substring(0, end);
+        }
+
+
+        public List<Candidate> getCandidatesUpToLevel(int levels) {
 
-                String suffix =
-                        i > subParts.length ? null : arrayToDelimitedString(
-                                Arrays.copyOf(subParts, i), ".");
-                String candidateString =
-                        hasText(suffix) ? String.format("%s.%s", basePackage,
-                                suffix) : basePackage;
+            int candidateCount = getCandidateCount(levels);
+            List<Candidate> candidates =
+                    new ArrayList<Candidate>(candidateCount);
 
-                candidates.add(new Candidate(candidateString, i));
+            for (int i = 0; i < candidateCount; i++) {
+                candidates.add(new Candidate(getCandidateName(i), i));
             }
 
             return candidates;
         }
     }
-}
\ No newline at end of file
+}
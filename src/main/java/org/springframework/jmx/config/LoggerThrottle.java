@@ -0,0 +1,291 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanNotificationInfo;
+import javax.management.Notification;
+import javax.management.NotificationBroadcasterSupport;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jmx.config.EventRateTurboFilter.GroupRate;
+import org.springframework.util.Assert;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Raises the level of Logback logger groups exceeding their events per
+ * second budget as defined by {@link ThrottleRule}s. Rates are checked once
+ * per second on the shared {@link TimerWheel} and averaged over a sliding
+ * window of {@value #WINDOW_SECONDS} seconds. A throttled group gets its
+ * previous level restored once its rate stayed within the budget for the
+ * cool-down period, unless the level was changed in the meantime. The logger
+ * named after a base package is never throttled as raising its level would
+ * throttle all groups inheriting it. Throttling
+ * and actually restoring a group is published as JMX notification with the
+ * group name as user data.
+ * 
+ * @author Oliver Gierke
+ */
+public class LoggerThrottle extends NotificationBroadcasterSupport implements
+        LoggerThrottleMXBean, InitializingBean, DisposableBean {
+
+    public static final String THROTTLED = "jmx.logger.throttled";
+    public static final String RESTORED = "jmx.logger.restored";
+
+    static final int WINDOW_SECONDS = 10;
+
+    private static final MBeanNotificationInfo[] NOTIFICATIONS =
+            { new MBeanNotificationInfo(new String[] { THROTTLED, RESTORED },
+                    Notification.class.getName(),
+                    "Logger group throttled or restored") };
+
+    private final LoggerContext loggerContext;
+    private final LogbackLoggerBackend backend;
+    private final EventRateTurboFilter filter;
+    private final TimerWheel timer;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private TimerWheel.Timeout timeout;
+
+
+    /**
+     * Creates a new {@link LoggerThrottle} for the given {@link LoggerContext}
+     * and {@link ThrottleRule}s.
+     * 
+     * @param loggerContext
+     * @param rules
+     */
+    public LoggerThrottle(LoggerContext loggerContext, List<ThrottleRule> rules) {
+
+        this(loggerContext, rules, TimerWheel.getInstance());
+    }
+
+
+    LoggerThrottle(LoggerContext loggerContext, List<ThrottleRule> rules,
+            TimerWheel timer) {
+
+        super(NOTIFICATIONS);
+
+        Assert.notNull(loggerContext);
+        Assert.notNull(timer);
+
+        for (ThrottleRule rule : rules) {
+            Assert.notNull(LogbackLoggerBackend.toLevel(rule.getLevel()),
+                    "Invalid throttle level " + rule.getLevel() + "!");
+        }
+
+        this.loggerContext = loggerContext;
+        this.backend = new LogbackLoggerBackend(loggerContext);
+        this.filter = new EventRateTurboFilter(rules, WINDOW_SECONDS);
+        this.filter.setContext(loggerContext);
+        this.timer = timer;
+    }
+
+
+    /**
+     * Installs the filter counting events in the {@link LoggerContext} and
+     * starts checking rates.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        filter.start();
+        loggerContext.addTurboFilter(filter);
+
+        synchronized (this) {
+            schedule();
+        }
+    }
+
+
+    /**
+     * Stops checking rates, removes the filter and restores the levels of
+     * throttled groups.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public synchronized void destroy() {
+
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+
+        loggerContext.getTurboFilterList().remove(filter);
+        filter.stop();
+
+        for (GroupRate group : filter.getGroups()) {
+            if (group.isThrottled()) {
+                restore(group);
+            }
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.springframework.jmx.config.LoggerThrottleMXBean#getRates()
+     */
+    @Override
+    public synchronized Map<String, Long> getRates() {
+
+        Map<String, Long> result = new TreeMap<String, Long>();
+
+        for (GroupRate group : filter.getGroups()) {
+            result.put(group.getName(), group.getRate());
+        }
+
+        return result;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.springframework.jmx.config.LoggerThrottleMXBean#getThrottledGroups()
+     */
+    @Override
+    public synchronized String[] getThrottledGroups() {
+
+        List<String> result = new ArrayList<String>();
+
+        for (GroupRate group : filter.getGroups()) {
+            if (group.isThrottled()) {
+                result.add(group.getName());
+            }
+        }
+
+        return result.toArray(new String[result.size()]);
+    }
+
+
+    /**
+     * Returns the filter counting the events.
+     * 
+     * @return
+     */
+    EventRateTurboFilter getFilter() {
+
+        return filter;
+    }
+
+
+    /**
+     * Records the events counted since the last check and throttles or
+     * restores groups accordingly. To be invoked once per second.
+     */
+    synchronized void check() {
+
+        for (GroupRate group : filter.getGroups()) {
+
+            long rate = group.record();
+            ThrottleRule rule = group.getRule();
+
+            if (!group.isThrottled()) {
+                if (rate > rule.getBudget()) {
+                    throttle(group, rate);
+                }
+            } else if (rate > rule.getBudget()) {
+                group.noisy();
+            } else if (group.quiet() >= rule.getCoolDownSeconds()) {
+                restore(group);
+            }
+        }
+    }
+
+
+    private void schedule() {
+
+        timeout = timer.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+
+                synchronized (LoggerThrottle.this) {
+
+                    if (timeout == null) {
+                        return;
+                    }
+
+                    check();
+                    schedule();
+                }
+            }
+        }, 1000);
+    }
+
+
+    private void throttle(GroupRate group, long rate) {
+
+        ThrottleRule rule = group.getRule();
+        String name = group.getName();
+
+        // the groups below inherit the level of the base package
+        if (name.equals(rule.getBasePackage())) {
+            return;
+        }
+
+        int effective =
+                loggerContext.getLogger(name).getEffectiveLevel().levelInt;
+
+        if (LogbackLoggerBackend.toLevel(rule.getLevel()).levelInt <= effective) {
+            return;
+        }
+
+        String previous = backend.getLevel(name);
+
+        if (!backend.setLevel(name, rule.getLevel())) {
+            return;
+        }
+
+        group.throttled(previous, effective);
+        publish(THROTTLED, name, String.format(
+                "Throttled logger group %s to %s at %d events per second "
+                        + "exceeding budget of %d!", name, rule.getLevel(),
+                rate, rule.getBudget()));
+    }
+
+
+    private void restore(GroupRate group) {
+
+        String name = group.getName();
+        String previous = group.getPreviousLevel();
+
+        boolean unchanged =
+                group.getRule().getLevel()
+                        .equalsIgnoreCase(backend.getLevel(name));
+
+        group.restored();
+
+        // the level was changed in the meantime, so there's nothing restored
+        if (!unchanged || !backend.setLevel(name, previous)) {
+            return;
+        }
+
+        publish(RESTORED, name, String.format(
+                "Restored level %s of logger group %s!", previous, name));
+    }
+
+
+    private void publish(String type, String group, String message) {
+
+        Notification notification =
+                new Notification(type, this, sequence.incrementAndGet(),
+                        System.currentTimeMillis(), message);
+        notification.setUserData(group);
+
+        sendNotification(notification);
+    }
+}
@@ -0,0 +1,28 @@
+package org.springframework.jmx.config;
+
+import java.util.Map;
+
+
+/**
+ * Management interface of the {@link LoggerThrottle}.
+ * 
+ * @author Oliver Gierke
+ */
+public interface LoggerThrottleMXBean {
+
+    /**
+     * Returns the events per second of the logger groups events were logged
+     * for so far.
+     * 
+     * @return
+     */
+    Map<String, Long> getRates();
+
+
+    /**
+     * Returns the names of the logger groups currently throttled.
+     * 
+     * @return
+     */
+    String[] getThrottledGroups();
+}
@@ -0,0 +1,327 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+
+/**
+ * {@link TurboFilter} enabling lower levels for the events of a logger only
+ * if the value the current thread's MDC holds for a given key matches, e.g.
+ * {@literal DEBUG} for {@literal tenant=acme}. Like plain levels, the MDC
+ * levels set for the closest logger apply. Installed into a
+ * {@link LoggerContext} the first time an MDC level is set. Without any MDC
+ * levels set the filter returns after a single volatile read, otherwise the
+ * MDC levels of a logger are resolved once and cached so that each event
+ * costs an MDC and a map lookup per MDC key in use.
+ * 
+ * @author Oliver Gierke
+ */
+class MdcLevelTurboFilter extends TurboFilter {
+
+    private final ClosestLoggerMap<MdcLevels> levels =
+            new ClosestLoggerMap<MdcLevels>();
+
+
+    /**
+     * Returns the {@link MdcLevelTurboFilter} installed in the given
+     * {@link LoggerContext} or {@literal null} if none installed.
+     * 
+     * @param context
+     * @return
+     */
+    public static MdcLevelTurboFilter getInstalled(LoggerContext context) {
+
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof MdcLevelTurboFilter) {
+                return (MdcLevelTurboFilter) filter;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Returns the {@link MdcLevelTurboFilter} installed in the given
+     * {@link LoggerContext} and installs one if none installed yet.
+     * 
+     * @param context
+     * @return
+     */
+    public static MdcLevelTurboFilter getInstance(LoggerContext context) {
+
+        synchronized (context) {
+
+            MdcLevelTurboFilter filter = getInstalled(context);
+
+            if (filter == null) {
+                filter = new MdcLevelTurboFilter();
+                filter.setName(MdcLevelTurboFilter.class.getSimpleName());
+                filter.setContext(context);
+                filter.start();
+                context.addTurboFilter(filter);
+            }
+
+            return filter;
+        }
+    }
+
+
+    /**
+     * Sets the level of the logger with the given name for events logged
+     * while the MDC holds the given value for the given key. A {@literal null}
+     * level removes the MDC level.
+     * 
+     * @param name
+     * @param key
+     * @param value
+     * @param level
+     * @return the level previously set or {@literal null} if none set
+     */
+    public synchronized Level set(String name, String key, String value,
+            Level level) {
+
+        MdcLevels current = levels.get(name);
+        Level previous = current == null ? null : current.get(key, value);
+        MdcLevels updated =
+                (current == null ? MdcLevels.NONE : current).with(key, value,
+                        level);
+
+        if (updated.isEmpty()) {
+            levels.remove(name);
+        } else {
+            levels.put(name, updated);
+        }
+
+        return previous;
+    }
+
+
+    /**
+     * Returns the MDC levels set for the logger with the given name formatted
+     * as {@literal key=value:LEVEL}.
+     * 
+     * @param name
+     * @return
+     */
+    public List<String> get(String name) {
+
+        MdcLevels current = levels.get(name);
+        return current == null ? Collections.<String> emptyList() : current
+                .toStrings();
+    }
+
+
+    /**
+     * Returns the lowest MDC level set for the logger with the given name, its
+     * ancestors or descendants or {@literal null} if none set.
+     * 
+     * @param name
+     * @return
+     */
+    public Level getLowestLevel(String name) {
+
+        Level result = null;
+
+        for (MdcLevels scoped : levels.getRelated(name)) {
+
+            Level level = scoped.getLowest();
+
+            if (level != null
+                    && (result == null || level.levelInt < result.levelInt)) {
+                result = level;
+            }
+        }
+
+        return result;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.turbo.TurboFilter#decide(org.slf4j.Marker,
+     * ch.qos.logback.classic.Logger, ch.qos.logback.classic.Level,
+     * java.lang.String, java.lang.Object[], java.lang.Throwable)
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level,
+            String format, Object[] params, Throwable t) {
+
+        if (levels.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+
+        MdcLevels scoped = levels.resolve(logger);
+
+        if (scoped == null
+                || level.levelInt >= logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Level threshold = scoped.resolve();
+
+        return threshold != null && level.levelInt >= threshold.levelInt
+                ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+
+    /**
+     * Immutable MDC levels of a logger by MDC key and value.
+     * 
+     * @author Oliver Gierke
+     */
+    private static class MdcLevels {
+
+        static final MdcLevels NONE = new MdcLevels(new String[0],
+                Collections.<Map<String, Level>> emptyList());
+
+        private final String[] keys;
+        private final List<Map<String, Level>> levels;
+
+
+        private MdcLevels(String[] keys, List<Map<String, Level>> levels) {
+
+            this.keys = keys;
+            this.levels = levels;
+        }
+
+
+        public boolean isEmpty() {
+
+            return keys.length == 0;
+        }
+
+
+        public Level get(String key, String value) {
+
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return levels.get(i).get(value);
+                }
+            }
+
+            return null;
+        }
+
+
+        /**
+         * Returns the lowest level set for any MDC value.
+         * 
+         * @return
+         */
+        public Level getLowest() {
+
+            Level result = null;
+
+            for (Map<String, Level> values : levels) {
+                for (Level level : values.values()) {
+                    if (result == null || level.levelInt < result.levelInt) {
+                        result = level;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+
+        /**
+         * Returns the lowest level set for the values the current thread's
+         * MDC holds.
+         * 
+         * @return
+         */
+        public Level resolve() {
+
+            Level result = null;
+
+            for (int i = 0; i < keys.length; i++) {
+
+                String value = MDC.get(keys[i]);
+
+                if (value == null) {
+                    continue;
+                }
+
+                Level level = levels.get(i).get(value);
+
+                if (level != null
+                        && (result == null || level.levelInt < result.levelInt)) {
+                    result = level;
+                }
+            }
+
+            return result;
+        }
+
+
+        /**
+         * Returns a copy with the given level set for the given MDC key and
+         * value, removed if {@literal null}.
+         * 
+         * @param key
+         * @param value
+         * @param level
+         * @return
+         */
+        public MdcLevels with(String key, String value, Level level) {
+
+            Map<String, Map<String, Level>> copy =
+                    new TreeMap<String, Map<String, Level>>();
+
+            for (int i = 0; i < keys.length; i++) {
+                copy.put(keys[i], new HashMap<String, Level>(levels.get(i)));
+            }
+
+            Map<String, Level> values = copy.get(key);
+
+            if (values == null) {
+                values = new HashMap<String, Level>();
+                copy.put(key, values);
+            }
+
+            if (level == null) {
+                values.remove(value);
+            } else {
+                values.put(value, level);
+            }
+
+            if (values.isEmpty()) {
+                copy.remove(key);
+            }
+
+            return new MdcLevels(copy.keySet().toArray(new String[copy.size()]),
+                    new ArrayList<Map<String, Level>>(copy.values()));
+        }
+
+
+        public List<String> toStrings() {
+
+            List<String> result = new ArrayList<String>();
+
+            for (int i = 0; i < keys.length; i++) {
+                for (Map.Entry<String, Level> entry : new TreeMap<String, Level>(
+                        levels.get(i)).entrySet()) {
+                    result.add(String.format("%s=%s:%s", keys[i],
+                            entry.getKey(), entry.getValue()));
+                }
+            }
+
+            return result;
+        }
+    }
+}
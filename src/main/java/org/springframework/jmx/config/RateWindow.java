@@ -0,0 +1,82 @@
+package org.springframework.jmx.config;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Sliding window over snapshots of a monotonically increasing event count
+ * taken once per second. The rate is the difference between the latest and
+ * the oldest snapshot in the window divided by the seconds in between.
+ * Recording a snapshot doesn't allocate. Instances are not thread-safe.
+ * 
+ * @author Oliver Gierke
+ */
+class RateWindow {
+
+    private final long[] snapshots;
+    private int next;
+    private int recorded;
+
+
+    /**
+     * Creates a new {@link RateWindow} spanning the given number of seconds.
+     * 
+     * @param seconds
+     */
+    public RateWindow(int seconds) {
+
+        Assert.isTrue(seconds > 0, "Window must span at least a second!");
+        this.snapshots = new long[seconds + 1];
+    }
+
+
+    /**
+     * Records the given event count and returns the events per second over
+     * the window.
+     * 
+     * @param count
+     * @return
+     */
+    public long record(long count) {
+
+        snapshots[next] = count;
+        next = (next + 1) % snapshots.length;
+
+        if (recorded < snapshots.length) {
+            recorded++;
+        }
+
+        return getRate();
+    }
+
+
+    /**
+     * Returns the events per second over the window, {@literal 0} until two
+     * snapshots were recorded.
+     * 
+     * @return
+     */
+    public long getRate() {
+
+        return recorded < 2 ? 0 : getCount() / (recorded - 1);
+    }
+
+
+    /**
+     * Returns the number of events within the window, {@literal 0} until two
+     * snapshots were recorded.
+     * 
+     * @return
+     */
+    public long getCount() {
+
+        if (recorded < 2) {
+            return 0;
+        }
+
+        int latest = (next + snapshots.length - 1) % snapshots.length;
+        int oldest = (next + snapshots.length - recorded) % snapshots.length;
+
+        return snapshots[latest] - snapshots[oldest];
+    }
+}
@@ -0,0 +1,135 @@
+package org.springframework.jmx.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * The {@link EventRing}s of recent events of the logger groups defined by
+ * {@link RecentEventsRule}s. A group's ring is allocated when the first event
+ * of the group is written. The events are written by a backend specific
+ * appender and read through the MBean exposing the group.
+ * 
+ * @author Oliver Gierke
+ */
+class RecentEvents {
+
+    private static final Map<Object, RecentEvents> INSTANCES =
+            new WeakHashMap<Object, RecentEvents>();
+
+    private final List<RecentEventsRule> rules;
+    private final LoggerGroupResolver<RecentEventsRule, EventRing> rings;
+
+
+    /**
+     * Creates a new {@link RecentEvents}.
+     * 
+     * @param rules
+     */
+    public RecentEvents(List<RecentEventsRule> rules) {
+
+        Assert.notNull(rules);
+
+        this.rules = rules;
+        this.rings = new LoggerGroupResolver<RecentEventsRule, EventRing>(rules) {
+
+            @Override
+            protected String getBasePackage(RecentEventsRule rule) {
+
+                return rule.getBasePackage();
+            }
+
+
+            @Override
+            protected EventRing createGroup(String group, RecentEventsRule rule) {
+
+                return new EventRing(rule.getBytes());
+            }
+        };
+    }
+
+
+    /**
+     * Returns the {@link RecentEvents} started for the given logger repository
+     * or {@literal null} if none started.
+     * 
+     * @param repository
+     * @return
+     */
+    public static RecentEvents getStarted(Object repository) {
+
+        synchronized (INSTANCES) {
+            return INSTANCES.get(repository);
+        }
+    }
+
+
+    /**
+     * Makes the recent events available to the MBeans of the loggers of the
+     * given repository.
+     * 
+     * @param repository
+     */
+    public void start(Object repository) {
+
+        synchronized (INSTANCES) {
+            INSTANCES.put(repository, this);
+        }
+    }
+
+
+    /**
+     * Stops making the recent events available.
+     * 
+     * @param repository
+     */
+    public void stop(Object repository) {
+
+        synchronized (INSTANCES) {
+            if (INSTANCES.get(repository) == this) {
+                INSTANCES.remove(repository);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the rules the recent events are kept for.
+     * 
+     * @return
+     */
+    public List<RecentEventsRule> getRules() {
+
+        return rules;
+    }
+
+
+    /**
+     * Returns the most recent events of the given logger group, oldest first.
+     * 
+     * @param group
+     * @param count
+     * @return
+     */
+    public String[] tail(String group, int count) {
+
+        EventRing ring = rings.get(group);
+        return ring == null ? new String[0] : ring.tail(count);
+    }
+
+
+    /**
+     * Returns the ring to write the events of the logger with the given name
+     * to or {@literal null} if it's not part of a group.
+     * 
+     * @param logger
+     * @return
+     */
+    public EventRing getRing(String logger) {
+
+        return rings.resolve(logger);
+    }
+}
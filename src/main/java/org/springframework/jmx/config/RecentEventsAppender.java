@@ -0,0 +1,142 @@
+package org.springframework.jmx.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+
+/**
+ * Appender keeping the recent events of logger groups in the off-heap
+ * {@link EventRing}s of a {@link RecentEvents}. The appender attaches itself
+ * to the loggers of the base packages of the {@link RecentEventsRule}s, so it
+ * sees the events of all loggers below that don't disable additivity.
+ * <p>
+ * Writing to the ring doesn't allocate but the event's message is formatted
+ * before, which allocates for events with arguments unless another appender
+ * formatted it already.
+ * 
+ * @author Oliver Gierke
+ */
+public class RecentEventsAppender extends
+        UnsynchronizedAppenderBase<ILoggingEvent> implements InitializingBean,
+        DisposableBean {
+
+    private final LoggerContext loggerContext;
+    private final RecentEvents events;
+
+
+    /**
+     * Creates a new {@link RecentEventsAppender} for the given
+     * {@link LoggerContext} and {@link RecentEventsRule}s.
+     * 
+     * @param loggerContext
+     * @param rules
+     */
+    public RecentEventsAppender(LoggerContext loggerContext,
+            List<RecentEventsRule> rules) {
+
+        this(loggerContext, new RecentEvents(rules));
+    }
+
+
+    RecentEventsAppender(LoggerContext loggerContext, RecentEvents events) {
+
+        Assert.notNull(loggerContext);
+        Assert.notNull(events);
+
+        this.loggerContext = loggerContext;
+        this.events = events;
+        setName(RecentEventsAppender.class.getSimpleName());
+        setContext(loggerContext);
+    }
+
+
+    /**
+     * Starts the appender and attaches it to the loggers of the outermost
+     * base packages.
+     * 
+     * @see org.springframework.beans.factory.InitializingBean#afterPropertiesSet()
+     */
+    @Override
+    public void afterPropertiesSet() {
+
+        start();
+
+        for (Logger logger : getBaseLoggers()) {
+            logger.addAppender(this);
+        }
+
+        events.start(loggerContext);
+    }
+
+
+    /**
+     * Detaches the appender from the loggers and stops it.
+     * 
+     * @see org.springframework.beans.factory.DisposableBean#destroy()
+     */
+    @Override
+    public void destroy() {
+
+        events.stop(loggerContext);
+
+        for (Logger logger : getBaseLoggers()) {
+            logger.detachAppender(this);
+        }
+
+        stop();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see ch.qos.logback.core.UnsynchronizedAppenderBase#append(java.lang.Object)
+     */
+    @Override
+    protected void append(ILoggingEvent event) {
+
+        String name = event.getLoggerName();
+        EventRing ring = events.getRing(name);
+
+        if (ring != null) {
+            ring.write(event.getTimeStamp(), event.getLevel()
+                    .toString(), name, event.getFormattedMessage());
+        }
+    }
+
+
+    private Iterable<Logger> getBaseLoggers() {
+
+        Map<String, Logger> result = new LinkedHashMap<String, Logger>();
+
+        for (RecentEventsRule rule : events.getRules()) {
+
+            boolean nested = false;
+
+            for (RecentEventsRule other : events.getRules()) {
+                if (other != rule
+                        && !other.getBasePackage().equals(rule.getBasePackage())
+                        && other.getGroup(rule.getBasePackage()) != null) {
+                    nested = true;
+                }
+            }
+
+            if (!nested) {
+                result.put(rule.getBasePackage(), loggerContext.getLogger(rule
+                        .getBasePackage()));
+            }
+        }
+
+        return result.values();
+    }
+}
@@ -0,0 +1,60 @@
+package org.springframework.jmx.config;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Size of the rings of recent events kept for the logger groups below a base
+ * package. A logger group is the logger named after the first package
+ * segment below the base package, just like the groups selected by
+ * {@link LoggerSelector}.
+ * 
+ * @author Oliver Gierke
+ */
+class RecentEventsRule {
+
+    private final String basePackage;
+    private final int bytes;
+
+
+    /**
+     * Creates a new {@link RecentEventsRule}.
+     * 
+     * @param basePackage
+     * @param bytes the size of the ring per group
+     */
+    public RecentEventsRule(String basePackage, int bytes) {
+
+        Assert.hasText(basePackage);
+        Assert.isTrue(bytes > 0, "Size must be positive!");
+
+        this.basePackage = basePackage;
+        this.bytes = bytes;
+    }
+
+
+    public String getBasePackage() {
+
+        return basePackage;
+    }
+
+
+    public int getBytes() {
+
+        return bytes;
+    }
+
+
+    /**
+     * Returns the name of the group the logger with the given name belongs to
+     * or {@literal null} if it's not located in or below the base package.
+     * 
+     * @param logger
+     * @return
+     * @see LoggerSelector#getGroup(String, String)
+     */
+    public String getGroup(String logger) {
+
+        return LoggerSelector.getGroup(basePackage, logger);
+    }
+}
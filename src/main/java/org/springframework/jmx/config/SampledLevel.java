@@ -0,0 +1,152 @@
+package org.springframework.jmx.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ch.qos.logback.classic.Level;
+
+
+/**
+ * Level whose events are only logged in samples. Specified as level followed
+ * by {@literal @} and either a percentage (e.g. {@literal DEBUG@1%}) or a
+ * number of events per second (e.g. {@literal DEBUG@10/s}). A percentage is
+ * applied exactly by letting evenly spread events pass, e.g. every 100th one
+ * for {@literal 1%} or three out of four for {@literal 75%}. Percentages are
+ * supported down to a precision of {@value #PRECISION_DIGITS} decimal places.
+ * Sampling uses a single atomic counter and doesn't block.
+ * 
+ * @author Oliver Gierke
+ */
+class SampledLevel {
+
+    private static final Pattern SPEC = Pattern
+            .compile("([A-Za-z]+)@(\\d+(?:\\.\\d+)?)(%|/s)");
+
+    private static final int PRECISION_DIGITS = 4;
+
+    // the number of parts a percentage of 100 is divided into
+    private static final long PARTS = 1000000;
+
+    private final Level level;
+    private final String spec;
+    private final long parts;
+    private final long perSecond;
+    private final AtomicLong state = new AtomicLong();
+
+
+    private SampledLevel(Level level, String spec, long parts, long perSecond) {
+
+        this.level = level;
+        this.spec = spec;
+        this.parts = parts;
+        this.perSecond = perSecond;
+    }
+
+
+    /**
+     * Parses the given sampling specification. Returns {@literal null} if the
+     * given value is not a valid specification.
+     * 
+     * @param spec
+     * @return
+     */
+    public static SampledLevel parse(String spec) {
+
+        if (spec == null) {
+            return null;
+        }
+
+        Matcher matcher = SPEC.matcher(spec.trim());
+
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        String levelName = matcher.group(1).toUpperCase();
+        Level level = LogbackLoggerBackend.toLevel(levelName);
+        double rate = Double.parseDouble(matcher.group(2));
+
+        if (level == null || rate <= 0) {
+            return null;
+        }
+
+        String normalized =
+                levelName + "@" + matcher.group(2) + matcher.group(3);
+
+        if ("%".equals(matcher.group(3))) {
+
+            String digits = matcher.group(2);
+            int dot = digits.indexOf('.');
+
+            if (rate > 100 || dot != -1
+                    && digits.length() - dot - 1 > PRECISION_DIGITS) {
+                return null;
+            }
+
+            return new SampledLevel(level, normalized, Math.round(rate
+                    * PARTS / 100), 0);
+        }
+
+        return rate != Math.floor(rate) || rate > Integer.MAX_VALUE ? null
+                : new SampledLevel(level, normalized, 0, (long) rate);
+    }
+
+
+    /**
+     * Returns the lowest level whose events are sampled.
+     * 
+     * @return
+     */
+    public Level getLevel() {
+
+        return level;
+    }
+
+
+    /**
+     * Returns whether the current event shall be logged.
+     * 
+     * @return
+     */
+    public boolean sample() {
+
+        if (perSecond == 0) {
+            // lets exactly parts out of PARTS events pass, evenly spread
+            long event = state.getAndIncrement() % PARTS;
+            return event * parts % PARTS < parts;
+        }
+
+        long second = System.currentTimeMillis() / 1000;
+
+        while (true) {
+
+            long current = state.get();
+            long next;
+
+            if (current >>> 32 != second) {
+                next = second << 32 | 1;
+            } else if ((current & 0xFFFFFFFFL) < perSecond) {
+                next = current + 1;
+            } else {
+                return false;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+
+        return spec;
+    }
+}
@@ -0,0 +1,232 @@
+package org.springframework.jmx.config;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+
+/**
+ * {@link TurboFilter} letting samples of the events below the effective level
+ * of a logger pass according to the {@link SampledLevel} set for the logger
+ * or its closest ancestor, unless a logger in between has an explicit level
+ * of its own. Level checks like {@link Logger#isDebugEnabled()}
+ * succeed for sampled levels so that guarded log statements get sampled as
+ * well. Installed into a {@link LoggerContext} the first time a sampled level
+ * is set. Without any sampled levels set the filter returns right away.
+ * 
+ * @author Oliver Gierke
+ */
+class SamplingTurboFilter extends TurboFilter implements
+        LoggerContextListener {
+
+    private final ClosestLoggerMap<SampledLevel> levels =
+            new ClosestLoggerMap<SampledLevel>(true);
+
+
+    /**
+     * Returns the {@link SamplingTurboFilter} installed in the given
+     * {@link LoggerContext} or {@literal null} if none installed.
+     * 
+     * @param context
+     * @return
+     */
+    public static SamplingTurboFilter getInstalled(LoggerContext context) {
+
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof SamplingTurboFilter) {
+                return (SamplingTurboFilter) filter;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Returns the {@link SamplingTurboFilter} installed in the given
+     * {@link LoggerContext} and installs one if none installed yet.
+     * 
+     * @param context
+     * @return
+     */
+    public static SamplingTurboFilter getInstance(LoggerContext context) {
+
+        synchronized (context) {
+
+            SamplingTurboFilter filter = getInstalled(context);
+
+            if (filter == null) {
+                filter = new SamplingTurboFilter();
+                filter.setName(SamplingTurboFilter.class.getSimpleName());
+                filter.setContext(context);
+                filter.start();
+                context.addTurboFilter(filter);
+                context.addListener(filter);
+            }
+
+            return filter;
+        }
+    }
+
+
+    /**
+     * Returns the {@link SampledLevel} set for the logger with the given name.
+     * 
+     * @param name
+     * @return
+     */
+    public SampledLevel get(String name) {
+
+        return levels.get(name);
+    }
+
+
+    /**
+     * Sets the {@link SampledLevel} for the logger with the given name.
+     * 
+     * @param name
+     * @param level
+     */
+    public void set(String name, SampledLevel level) {
+
+        levels.put(name, level);
+    }
+
+
+    /**
+     * Removes the {@link SampledLevel} set for the logger with the given name.
+     * 
+     * @param name
+     * @return the {@link SampledLevel} removed or {@literal null} if none set
+     */
+    public SampledLevel remove(String name) {
+
+        return levels.remove(name);
+    }
+
+
+    /**
+     * Returns the lowest sampled level set for the logger with the given name,
+     * its ancestors or descendants or {@literal null} if none set.
+     * 
+     * @param name
+     * @return
+     */
+    public Level getLowestLevel(String name) {
+
+        Level result = null;
+
+        for (SampledLevel sampled : levels.getRelated(name)) {
+
+            Level level = sampled.getLevel();
+
+            if (result == null || level.levelInt < result.levelInt) {
+                result = level;
+            }
+        }
+
+        return result;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.turbo.TurboFilter#decide(org.slf4j.Marker,
+     * ch.qos.logback.classic.Logger, ch.qos.logback.classic.Level,
+     * java.lang.String, java.lang.Object[], java.lang.Throwable)
+     */
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level,
+            String format, Object[] params, Throwable t) {
+
+        if (levels.isEmpty()
+                || level.levelInt >= logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+
+        SampledLevel sampled = levels.resolve(logger);
+
+        if (sampled == null || level.levelInt < sampled.getLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (format == null && t == null) {
+            return FilterReply.ACCEPT;
+        }
+
+        return sampled.sample() ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#onLevelChange(ch.qos
+     * .logback.classic.Logger, ch.qos.logback.classic.Level)
+     */
+    @Override
+    public void onLevelChange(Logger logger, Level level) {
+
+        levels.invalidate();
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#isResetResistant()
+     */
+    @Override
+    public boolean isResetResistant() {
+
+        return false;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#onStart(ch.qos.logback
+     * .classic.LoggerContext)
+     */
+    @Override
+    public void onStart(LoggerContext context) {
+
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#onReset(ch.qos.logback
+     * .classic.LoggerContext)
+     */
+    @Override
+    public void onReset(LoggerContext context) {
+
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * ch.qos.logback.classic.spi.LoggerContextListener#onStop(ch.qos.logback
+     * .classic.LoggerContext)
+     */
+    @Override
+    public void onStop(LoggerContext context) {
+
+    }
+}
@@ -0,0 +1,123 @@
+package org.springframework.jmx.config;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Fixed number of counters to be incremented concurrently. Increments go to a
+ * single base cell until two threads contend for it. From then on each thread
+ * increments the cells of the stripe selected by its id. Each stripe holds 8
+ * longs and is surrounded by 8 longs of padding, i.e. a full cache line, so
+ * that no two stripes share a cache line with each other or with the memory
+ * around the array no matter how the array is aligned. Reading a counter sums
+ * up all cells. Incrementing doesn't allocate.
+ * 
+ * @author Oliver Gierke
+ */
+class StripedCounter {
+
+    static final int MAX_SLOTS = 8;
+    private static final int PADDING = 8;
+    private static final int STRIDE = MAX_SLOTS + PADDING;
+    private static final int STRIPES = getStripes();
+
+    private final int slots;
+    private final AtomicLongArray base;
+    private volatile AtomicLongArray stripes;
+
+
+    /**
+     * Creates a new {@link StripedCounter} with the given number of counters.
+     * 
+     * @param slots
+     */
+    public StripedCounter(int slots) {
+
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException(String.format(
+                    "Slots must be between 1 and %d!", MAX_SLOTS));
+        }
+
+        this.slots = slots;
+        this.base = new AtomicLongArray(slots);
+    }
+
+
+    /**
+     * Increments the counter in the given slot.
+     * 
+     * @param slot
+     */
+    public void increment(int slot) {
+
+        AtomicLongArray cells = stripes;
+
+        if (cells == null) {
+
+            long value = base.get(slot);
+
+            if (base.compareAndSet(slot, value, value + 1)) {
+                return;
+            }
+
+            cells = getOrCreateStripes();
+        }
+
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        cells.incrementAndGet(getCell(stripe, slot));
+    }
+
+
+    /**
+     * Returns the current value of the counter in the given slot.
+     * 
+     * @param slot
+     * @return
+     */
+    public long get(int slot) {
+
+        if (slot < 0 || slot >= slots) {
+            throw new IndexOutOfBoundsException("No slot " + slot + "!");
+        }
+
+        long result = base.get(slot);
+        AtomicLongArray cells = stripes;
+
+        if (cells != null) {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                result += cells.get(getCell(stripe, slot));
+            }
+        }
+
+        return result;
+    }
+
+
+    private synchronized AtomicLongArray getOrCreateStripes() {
+
+        if (stripes == null) {
+            stripes = new AtomicLongArray(PADDING + STRIPES * STRIDE);
+        }
+
+        return stripes;
+    }
+
+
+    private static int getCell(int stripe, int slot) {
+
+        return PADDING + stripe * STRIDE + slot;
+    }
+
+
+    private static int getStripes() {
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+
+        while (stripes < processors && stripes < 64) {
+            stripes <<= 1;
+        }
+
+        return stripes;
+    }
+}
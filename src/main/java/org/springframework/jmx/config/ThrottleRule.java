@@ -0,0 +1,68 @@
+package org.springframework.jmx.config;
+
+import org.springframework.util.Assert;
+
+
+/**
+ * Events per second budget for the logger groups below a base package. A
+ * logger group is the logger named after the first package segment below
+ * the base package, just like the groups selected by {@link LoggerSelector}.
+ * A group exceeding the budget gets its level raised to the throttle level
+ * until its rate stayed within the budget for the cool-down period.
+ * 
+ * @author Oliver Gierke
+ */
+class ThrottleRule {
+
+    private final String basePackage;
+    private final long budget;
+    private final String level;
+    private final int coolDownSeconds;
+
+
+    /**
+     * Creates a new {@link ThrottleRule}.
+     * 
+     * @param basePackage
+     * @param budget the number of events per second allowed per group
+     * @param level the level to raise a group's level to
+     * @param coolDownSeconds
+     */
+    public ThrottleRule(String basePackage, long budget, String level,
+            int coolDownSeconds) {
+
+        Assert.hasText(basePackage);
+        Assert.isTrue(budget > 0, "Budget must be positive!");
+        Assert.hasText(level);
+        Assert.isTrue(coolDownSeconds > 0, "Cool-down must be positive!");
+
+        this.basePackage = basePackage;
+        this.budget = budget;
+        this.level = level;
+        this.coolDownSeconds = coolDownSeconds;
+    }
+
+
+    public String getBasePackage() {
+
+        return basePackage;
+    }
+
+
+    public long getBudget() {
+
+        return budget;
+    }
+
+
+    public String getLevel() {
+
+        return level;
+    }
+
+
+    public int getCoolDownSeconds() {
+
+        return coolDownSeconds;
+    }
+}
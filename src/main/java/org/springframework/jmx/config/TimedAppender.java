@@ -0,0 +1,87 @@
+package org.springframework.jmx.config;
+
+import org.springframework.util.Assert;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+
+/**
+ * Appender wrapping another one to record the latency of its invocations
+ * with the {@link AppenderTimer} for the appender and the logger group of the
+ * event. Takes over the name of the wrapped appender.
+ * 
+ * @author Oliver Gierke
+ */
+class TimedAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private final Appender<ILoggingEvent> delegate;
+    private final AppenderTimer timer;
+    private final LatencyHistogram latencies;
+
+
+    public TimedAppender(Appender<ILoggingEvent> delegate, AppenderTimer timer) {
+
+        Assert.notNull(delegate);
+        Assert.notNull(timer);
+
+        this.delegate = delegate;
+        this.timer = timer;
+        this.latencies = timer.getAppenderLatencies(delegate.getName());
+
+        setName(delegate.getName());
+        setContext(delegate.getContext());
+    }
+
+
+    /**
+     * Returns the wrapped appender.
+     * 
+     * @return
+     */
+    public Appender<ILoggingEvent> getDelegate() {
+
+        return delegate;
+    }
+
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see ch.qos.logback.core.UnsynchronizedAppenderBase#append(java.lang.Object)
+     */
+    @Override
+    protected void append(ILoggingEvent event) {
+
+        long start = System.nanoTime();
+
+        try {
+            delegate.doAppend(event);
+        } finally {
+
+            long nanos = System.nanoTime() - start;
+            latencies.record(nanos);
+
+            LatencyHistogram group =
+                    timer.resolveGroupLatencies(event.getLoggerName());
+
+            if (group != null) {
+                group.record(nanos);
+            }
+        }
+    }
+
+
+    /**
+     * Stops the wrapped appender as well.
+     * 
+     * @see ch.qos.logback.core.UnsynchronizedAppenderBase#stop()
+     */
+    @Override
+    public void stop() {
+
+        super.stop();
+        delegate.stop();
+    }
+}
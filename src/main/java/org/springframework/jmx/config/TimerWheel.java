@@ -0,0 +1,260 @@
+package org.springframework.jmx.config;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+
+/**
+ * Hashed timer wheel executing tasks after a given delay. Timeouts are put
+ * into the bucket of the tick they expire in, a single daemon thread advances
+ * the wheel tick by tick and runs the tasks expired. Scheduling and
+ * cancelling are constant time operations, the accuracy is limited to the
+ * tick duration. The thread is started on first use and waits while no
+ * timeouts are pending.
+ * 
+ * @author Oliver Gierke
+ */
+class TimerWheel {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimerWheel.class);
+
+    private static final TimerWheel INSTANCE = new TimerWheel(100, 512);
+
+    private final long tickMillis;
+    private final List<Set<Timeout>> buckets;
+    private final long start = System.currentTimeMillis();
+
+    private long tick;
+    private int pending;
+    private Thread worker;
+
+
+    /**
+     * Creates a new {@link TimerWheel}.
+     * 
+     * @param tickMillis the duration of a tick in milliseconds
+     * @param size the number of buckets, has to be a power of two
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int size) {
+
+        Assert.isTrue(tickMillis > 0, "Tick duration must be positive!");
+        Assert.isTrue(size > 0 && (size & size - 1) == 0,
+                "Size must be a power of two!");
+
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<Set<Timeout>>(size);
+
+        for (int i = 0; i < size; i++) {
+            buckets.add(new LinkedHashSet<Timeout>());
+        }
+    }
+
+
+    /**
+     * Returns the {@link TimerWheel} shared by all components.
+     * 
+     * @return
+     */
+    public static TimerWheel getInstance() {
+
+        return INSTANCE;
+    }
+
+
+    /**
+     * Schedules the given task to be run after the given delay.
+     * 
+     * @param task
+     * @param delayMillis
+     * @return
+     */
+    public synchronized Timeout schedule(Runnable task, long delayMillis) {
+
+        Assert.notNull(task);
+
+        if (pending == 0) {
+            tick = currentTick();
+        }
+
+        Timeout timeout =
+                new Timeout(task, System.currentTimeMillis()
+                        + Math.max(0, delayMillis));
+        long expiry =
+                Math.max(tick + 1, (timeout.deadline - start + tickMillis - 1)
+                        / tickMillis);
+
+        timeout.rounds = (expiry - tick - 1) / buckets.size();
+        timeout.bucket = buckets.get((int) (expiry & buckets.size() - 1));
+        timeout.bucket.add(timeout);
+        pending++;
+
+        if (worker == null) {
+            worker = new Thread(new Worker(), "jmx-logger-timer");
+            worker.setDaemon(true);
+            worker.start();
+        } else {
+            notifyAll();
+        }
+
+        return timeout;
+    }
+
+
+    /**
+     * Returns the number of timeouts pending.
+     * 
+     * @return
+     */
+    public synchronized int getPending() {
+
+        return pending;
+    }
+
+
+    private synchronized boolean cancel(Timeout timeout) {
+
+        if (timeout.bucket == null || !timeout.bucket.remove(timeout)) {
+            return false;
+        }
+
+        timeout.bucket = null;
+        pending--;
+        return true;
+    }
+
+
+    private long currentTick() {
+
+        return (System.currentTimeMillis() - start) / tickMillis;
+    }
+
+
+    /**
+     * Advances the wheel up to the current tick and returns the timeouts
+     * expired. Waits while no timeouts are pending or the current tick was
+     * already processed.
+     * 
+     * @return
+     * @throws InterruptedException
+     */
+    private synchronized List<Timeout> advance() throws InterruptedException {
+
+        while (pending == 0) {
+            wait();
+        }
+
+        long target = currentTick();
+
+        if (target <= tick) {
+            wait(tickMillis - (System.currentTimeMillis() - start) % tickMillis);
+            return null;
+        }
+
+        List<Timeout> expired = new ArrayList<Timeout>();
+
+        while (tick < target && pending > 0) {
+
+            tick++;
+            Set<Timeout> bucket = buckets.get((int) (tick & buckets.size() - 1));
+
+            for (Iterator<Timeout> iterator = bucket.iterator(); iterator
+                    .hasNext();) {
+
+                Timeout timeout = iterator.next();
+
+                if (timeout.rounds > 0) {
+                    timeout.rounds--;
+                    continue;
+                }
+
+                iterator.remove();
+                timeout.bucket = null;
+                pending--;
+                expired.add(timeout);
+            }
+        }
+
+        tick = target;
+        return expired;
+    }
+
+    /**
+     * Handle of a scheduled task.
+     * 
+     * @author Oliver Gierke
+     */
+    public class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private long rounds;
+        private Set<Timeout> bucket;
+
+
+        private Timeout(Runnable task, long deadline) {
+
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+
+        /**
+         * Cancels the timeout.
+         * 
+         * @return whether the timeout was pending
+         */
+        public boolean cancel() {
+
+            return TimerWheel.this.cancel(this);
+        }
+
+
+        /**
+         * Returns the milliseconds left until the task gets run.
+         * 
+         * @return
+         */
+        public long getRemainingMillis() {
+
+            return Math.max(0, deadline - System.currentTimeMillis());
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        @Override
+        public void run() {
+
+            while (true) {
+
+                List<Timeout> expired;
+
+                try {
+                    expired = advance();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                if (expired == null) {
+                    continue;
+                }
+
+                for (Timeout timeout : expired) {
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException e) {
+                        LOG.warn("Could not run timed task!", e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.read.ListAppender;
+
+
+/**
+ * Unit tests for {@link AppenderTimer} and {@link TimedAppender}.
+ * 
+ * @author Oliver Gierke
+ */
+public class AppenderTimerUnitTest {
+
+    LoggerContext context = new LoggerContext();
+    ListAppender<ILoggingEvent> appender = new ListAppender<ILoggingEvent>();
+    Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+    AppenderTimer timer = new AppenderTimer(context, Arrays.asList("org.foo"));
+
+
+    @Before
+    public void setUp() {
+
+        appender.setName("list");
+        appender.setContext(context);
+        appender.start();
+        root.addAppender(appender);
+
+        context.getLogger("org.foo.bar.Bar");
+        timer.afterPropertiesSet();
+    }
+
+
+    @After
+    public void tearDown() {
+
+        timer.destroy();
+    }
+
+
+    @Test
+    public void wrapsAndUnwrapsAppenders() throws Exception {
+
+        Appender<ILoggingEvent> wrapped = getOnlyAppender(root);
+        assertThat(wrapped, is(instanceOf(TimedAppender.class)));
+        assertThat(wrapped.getName(), is("list"));
+        assertThat(AppenderTimer.getInstalled(context), is(timer));
+
+        timer.destroy();
+
+        assertThat(getOnlyAppender(root), is((Object) appender));
+        assertThat(AppenderTimer.getInstalled(context), is(nullValue()));
+    }
+
+
+    @Test
+    public void recordsLatenciesPerAppenderAndGroup() throws Exception {
+
+        context.getLogger("org.foo.bar.Bar").info("first");
+        context.getLogger("org.foo.baz").info("second");
+        context.getLogger("org.other").info("third");
+
+        assertThat(appender.list.size(), is(3));
+        assertThat(timer.getAppenderLatencies("list").getCount(), is(3L));
+        assertThat(timer.getGroupLatencies("org.foo.bar").getCount(), is(1L));
+        assertThat(timer.getGroupLatencies("org.foo.baz").getCount(), is(1L));
+        assertThat(timer.getGroupLatencies("org.foo.bar.Bar"), is(nullValue()));
+        assertThat(timer.getGroupLatencies("org.other"), is(nullValue()));
+
+        List<AppenderLatency> groups = timer.getGroups();
+        assertThat(groups.size(), is(2));
+        assertThat(groups.get(0).getName(), is("org.foo.bar"));
+        assertThat(groups.get(0).getCount(), is(1L));
+        assertThat(timer.getAppenders().get(0).getName(), is("list"));
+    }
+
+
+    @Test
+    public void exposesGroupLatenciesThroughLoggerMBean() throws Exception {
+
+        LogbackJmxLogger group =
+                new LogbackJmxLogger(context.getLogger("org.foo.bar"));
+        group.preRegister(null, null);
+
+        context.getLogger("org.foo.bar.Bar").info("event");
+
+        Object max = group.getAttribute("AppendNanosMax");
+        assertThat(max, is(instanceOf(Long.class)));
+        assertThat((Long) group.getAttribute("AppendNanosMedian"),
+                is(lessThanOrEqualTo((Long) max)));
+        assertThat(group.getMBeanInfo().getAttributes().length,
+                is(greaterThan(new LogbackJmxLogger(context
+                        .getLogger("org.foo.bar.Bar")).getMBeanInfo()
+                        .getAttributes().length)));
+    }
+
+
+    private static Appender<ILoggingEvent> getOnlyAppender(Logger logger) {
+
+        Iterator<Appender<ILoggingEvent>> iterator =
+                logger.iteratorForAppenders();
+        Appender<ILoggingEvent> result = iterator.next();
+        assertFalse(iterator.hasNext());
+
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import ch.qos.logback.core.ConsoleAppender;
+
+
+/**
+ * Integration test for {@link JmxAppendersBeanDefinitionParser}.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-appenders.xml")
+public class AppendersBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void exposesConfiguredAppenders() throws Exception {
+
+        ObjectName name =
+                new ObjectName(JmxLogger.OVERALL_NAME
+                        + ":appender=STDOUT,backend=Logback");
+
+        assertThat(server.getAttribute(name, "Type"),
+                is((Object) ConsoleAppender.class.getName()));
+        assertThat(server.getAttribute(name, "Started"), is((Object) true));
+        assertThat(server.getAttribute(name, "Queued"), is((Object) false));
+        assertThat(server.getAttribute(name, "QueueSize"), is((Object) (-1)));
+    }
+}
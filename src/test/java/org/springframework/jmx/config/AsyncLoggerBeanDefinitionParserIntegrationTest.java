@@ -0,0 +1,50 @@
+package org.springframework.jmx.config;
+
+import static org.junit.Assert.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} discovering
+ * loggers in the background.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-async-logger.xml")
+public class AsyncLoggerBeanDefinitionParserIntegrationTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void exposesLoggersOnceReady() throws Exception {
+
+        ObjectName tree =
+                new ObjectName(
+                        "Spring JMX loggers:service=Loggers,backend=Logback");
+        long timeout = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (!(Boolean) server.getAttribute(tree, "Ready")) {
+            assertTrue(System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+
+        assertTrue((Integer) server.getAttribute(tree, "LoggerCount") > 0);
+        assertTrue(server.isRegistered(new ObjectName(
+                "Spring JMX loggers:name=org.springframework")));
+    }
+}
@@ -0,0 +1,187 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link BurstDetector} and {@link BurstCountingTurboFilter}.
+ * 
+ * @author Oliver Gierke
+ */
+public class BurstDetectorUnitTest {
+
+    private static final int EVENTS = 100000;
+
+    LoggerContext context = new LoggerContext();
+    BurstDetector detector = new BurstDetector(Arrays.asList(new BurstRule(
+            "org.foo", 10, 3)), new TimerWheel(1000, 8));
+    BurstCountingTurboFilter filter = new BurstCountingTurboFilter(context,
+            detector);
+    Logger logger = context.getLogger("org.foo.bar.Bar");
+    List<Notification> notifications = new ArrayList<Notification>();
+
+
+    @Before
+    public void setUp() {
+
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        context.addTurboFilter(filter);
+
+        LogbackJmxLogger group =
+                new LogbackJmxLogger(context.getLogger("org.foo.bar"));
+        group.addNotificationListener(new NotificationListener() {
+
+            @Override
+            public void handleNotification(Notification notification,
+                    Object handback) {
+
+                notifications.add(notification);
+            }
+        }, null, null);
+
+        detector.register(group);
+    }
+
+
+    @Test
+    public void publishesNotificationThroughGroupMBean() throws Exception {
+
+        log(Level.ERROR, 6);
+        log(Level.WARN, 4);
+        detector.check();
+
+        assertThat(notifications.size(), is(1));
+        assertThat(notifications.get(0).getType(), is(AbstractJmxLogger.BURST));
+        assertThat(notifications.get(0).getUserData(), is((Object) 10L));
+        assertThat(notifications.get(0).getMessage(), allOf(
+                containsString("6 ERROR"), containsString("4 WARN")));
+    }
+
+
+    @Test
+    public void ignoresEventsBelowWarn() throws Exception {
+
+        log(Level.INFO, 100);
+        log(Level.ERROR, 9);
+        detector.check();
+
+        assertTrue(notifications.isEmpty());
+    }
+
+
+    @Test
+    public void coalescesNotificationsPerWindow() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            log(Level.ERROR, 1000);
+            detector.check();
+        }
+
+        assertThat(notifications.size(), is(1));
+
+        log(Level.ERROR, 1000);
+        detector.check();
+
+        assertThat(notifications.size(), is(2));
+    }
+
+
+    @Test
+    public void doesNotPublishForGroupsWithoutMBean() throws Exception {
+
+        Logger other = context.getLogger("org.foo.baz.Baz");
+
+        for (int i = 0; i < 100; i++) {
+            other.error("error");
+        }
+
+        detector.check();
+
+        assertTrue(notifications.isEmpty());
+    }
+
+
+    @Test
+    public void onlyRegistersGroupMBeans() throws Exception {
+
+        LogbackJmxLogger nested = new LogbackJmxLogger(logger);
+        nested.addNotificationListener(new NotificationListener() {
+
+            @Override
+            public void handleNotification(Notification notification,
+                    Object handback) {
+
+                fail("Nested logger must not publish notifications!");
+            }
+        }, null, null);
+
+        detector.register(nested);
+        log(Level.ERROR, 100);
+        detector.check();
+
+        assertThat(notifications.size(), is(1));
+    }
+
+
+    @Test
+    public void countsEventsWithoutAllocating() throws Exception {
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean allocations =
+                (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        // warm up
+        for (int i = 0; i < EVENTS; i++) {
+            filter.decide(null, logger, Level.ERROR, "error", null, null);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < EVENTS; i++) {
+            filter.decide(null, logger, Level.ERROR, "error", null, null);
+        }
+
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(detector.getCounter(logger.getName()).get(
+                BurstDetector.ERROR), is(2L * EVENTS));
+        assertThat(allocated, is(lessThan((long) EVENTS)));
+    }
+
+
+    private void log(Level level, int events) {
+
+        for (int i = 0; i < events; i++) {
+            if (Level.ERROR.equals(level)) {
+                logger.error("error");
+            } else if (Level.WARN.equals(level)) {
+                logger.warn("warn");
+            } else {
+                logger.info("info");
+            }
+        }
+    }
+}
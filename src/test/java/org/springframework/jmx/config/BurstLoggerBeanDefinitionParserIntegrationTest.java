@@ -0,0 +1,68 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} setting up group
+ * MBeans to publish notifications on bursts of ERROR and WARN events.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-burst-logger.xml")
+public class BurstLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void publishesBurstNotificationsThroughGroupMBean() throws Exception {
+
+        ObjectName name =
+                new ObjectName(
+                        "Spring JMX loggers:name=org.springframework.test,type=org.springframework.test");
+        final List<Notification> notifications =
+                Collections.synchronizedList(new ArrayList<Notification>());
+
+        server.addNotificationListener(name, new NotificationListener() {
+
+            @Override
+            public void handleNotification(Notification notification,
+                    Object handback) {
+
+                notifications.add(notification);
+            }
+        }, null, null);
+
+        for (int i = 0; i < 3; i++) {
+            LoggerFactory.getLogger("org.springframework.test.Burst").warn(
+                    "Burst");
+        }
+
+        BurstDetector.getStarted(LoggerFactory.getILoggerFactory()).check();
+
+        assertThat(notifications.size(), is(1));
+        assertThat(notifications.get(0).getSource(), is((Object) name));
+    }
+}
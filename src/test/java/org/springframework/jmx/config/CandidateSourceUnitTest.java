@@ -2,7 +2,10 @@ package org.springframework.jmx.config;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
+import static org.junit.Assume.*;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.List;
 
 import org.junit.Test;
@@ -49,4 +52,96 @@ public class CandidateSourceUnitTest {
         assertThat(result, hasItem(new Candidate("org.foo.bar", 1)));
         assertThat(result, not(hasItem(new Candidate("org.foo.bar.FooBar", 2))));
     }
+
+
+    @Test
+    public void keepsClassLoggersIfConfigured() throws Exception {
+
+        CandidateSource source =
+                new CandidateSource("org.foo", "org.foo.bar.FooBar", false);
+        List<Candidate> result = source.getCandidatesUpToLevel(2);
+
+        assertThat(result.size(), is(3));
+        assertThat(result, hasItem(new Candidate("org.foo.bar.FooBar", 2)));
+    }
+
+
+    @Test
+    public void enumeratesCandidatesAsPrefixesOfSource() throws Exception {
+
+        CandidateSource source = new CandidateSource("org.foo", true);
+        source.reset("org.foo.bar.baz.Baz");
+
+        assertThat(source.getCandidateCount(5), is(3));
+        assertThat(source.getCandidateEnd(1), is("org.foo.bar".length()));
+        assertThat(source.getCandidateName(2), is("org.foo.bar.baz"));
+
+        source.reset("org.foo");
+
+        assertThat(source.getCandidateCount(5), is(1));
+        assertThat(source.getCandidateName(0), is("org.foo"));
+    }
+
+
+    @Test
+    public void enumeratesCandidatesWithoutAllocating() throws Exception {
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean allocations =
+                (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        String[] sources = new String[1000];
+        JmxLoggers registered = new JmxLoggers();
+        LoggerSelector selector = new LoggerSelector("org.foo", 3, true);
+
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] =
+                    String.format("org.foo.group%d.module%d.Type%d", i % 10,
+                            i % 100, i);
+            for (JmxLogger logger : selector.getLoggersFor(sources[i],
+                    registered)) {
+                registered.add(logger);
+            }
+        }
+
+        CandidateSource source = new CandidateSource("org.foo", true);
+
+        // warm up
+        for (int i = 0; i < 20; i++) {
+            enumerate(source, sources, registered);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        long candidates = enumerate(source, sources, registered);
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(candidates, is(3000L));
+        assertThat(allocated, is(lessThan(candidates)));
+    }
+
+
+    private static long enumerate(CandidateSource source, String[] sources,
+            JmxLoggers registered) {
+
+        long result = 0;
+
+        for (String name : sources) {
+
+            source.reset(name);
+
+            for (int level = 0; level < source.getCandidateCount(3); level++) {
+                if (registered.containsLoggerFor(name,
+                        source.getCandidateEnd(level))) {
+                    result++;
+                }
+            }
+        }
+
+        return result;
+    }
 }
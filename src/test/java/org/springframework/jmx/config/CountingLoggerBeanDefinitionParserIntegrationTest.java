@@ -0,0 +1,43 @@
+package org.springframework.jmx.config;
+
+import static org.junit.Assert.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} setting up the
+ * logger MBeans to count the events per level.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-counting-logger.xml")
+public class CountingLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void countsEventsOfExposedLoggers() throws Exception {
+
+        ObjectName name =
+                new ObjectName("Spring JMX loggers:name=org.springframework");
+        long before = (Long) server.getAttribute(name, "WarnEvents");
+
+        LoggerFactory.getLogger("org.springframework.Counted").warn("Counted");
+
+        assertEquals(before + 1, server.getAttribute(name, "WarnEvents"));
+    }
+}
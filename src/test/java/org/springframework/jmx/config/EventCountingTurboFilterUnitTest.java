@@ -0,0 +1,132 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link EventCountingTurboFilter}.
+ * 
+ * @author Oliver Gierke
+ */
+public class EventCountingTurboFilterUnitTest {
+
+    private static final int EVENTS = 100000;
+
+    LoggerContext context = new LoggerContext();
+    EventCountingTurboFilter filter = new EventCountingTurboFilter(context);
+
+
+    @Before
+    public void setUp() {
+
+        filter.afterPropertiesSet();
+        context.getLogger("org.foo").setLevel(Level.INFO);
+    }
+
+
+    @After
+    public void tearDown() {
+
+        filter.destroy();
+    }
+
+
+    @Test
+    public void countsEventsForClosestRegisteredLogger() throws Exception {
+
+        StripedCounter group = filter.register("org.foo");
+        StripedCounter nested = filter.register("org.foo.bar");
+
+        context.getLogger("org.foo.Foo").info("info");
+        context.getLogger("org.foo.Foo").warn("warn");
+        context.getLogger("org.foo.bar.Bar").error("error");
+        context.getLogger("org.qux.Qux").error("error");
+
+        assertThat(group.get(2), is(1L));
+        assertThat(group.get(3), is(1L));
+        assertThat(group.get(4), is(0L));
+        assertThat(nested.get(4), is(1L));
+    }
+
+
+    @Test
+    public void ignoresDisabledEventsAndLevelChecks() throws Exception {
+
+        StripedCounter counter = filter.register("org.foo");
+        Logger logger = context.getLogger("org.foo.Foo");
+
+        logger.debug("debug");
+        logger.isInfoEnabled();
+
+        assertThat(counter.get(1), is(0L));
+        assertThat(counter.get(2), is(0L));
+    }
+
+
+    @Test
+    public void exposesCountsThroughRegisteredLoggerMBean() throws Exception {
+
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:name=org.foo");
+        LogbackJmxLogger logger =
+                new LogbackJmxLogger(context.getLogger("org.foo"));
+
+        assertThat(logger.getEventCount(Level.WARN), is(-1L));
+
+        server.registerMBean(logger, name);
+        context.getLogger("org.foo.Foo").warn("warn");
+
+        assertThat(server.getAttribute(name, "WarnEvents"), is((Object) 1L));
+        assertThat(logger.getEventCount(Level.WARN), is(1L));
+    }
+
+
+    @Test
+    public void countsEventsWithoutAllocating() throws Exception {
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean allocations =
+                (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        StripedCounter counter = filter.register("org.foo");
+        Logger logger = context.getLogger("org.foo.Foo");
+
+        // warm up
+        for (int i = 0; i < EVENTS; i++) {
+            filter.decide(null, logger, Level.INFO, "info", null, null);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < EVENTS; i++) {
+            filter.decide(null, logger, Level.INFO, "info", null, null);
+        }
+
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(counter.get(2), is(2L * EVENTS));
+        assertThat(allocated, is(lessThan((long) EVENTS)));
+    }
+}
@@ -0,0 +1,156 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link EventRing}.
+ * 
+ * @author Oliver Gierke
+ */
+public class EventRingUnitTest {
+
+    private static final int EVENTS = 100000;
+
+    EventRing ring = new EventRing(EventRing.MIN_CAPACITY);
+
+
+    @Test
+    public void roundsCapacityUpToPowerOfTwo() throws Exception {
+
+        assertThat(new EventRing(1).getCapacity(), is(EventRing.MIN_CAPACITY));
+        assertThat(new EventRing(5000).getCapacity(), is(8192));
+    }
+
+
+    @Test
+    public void returnsMostRecentEventsOldestFirst() throws Exception {
+
+        for (int i = 0; i < 5; i++) {
+            ring.write(0, "INFO", "org.foo.Foo", "Event " + i);
+        }
+
+        String[] result = ring.tail(2);
+
+        assertThat(result.length, is(2));
+        assertThat(result[0], endsWith("INFO  org.foo.Foo - Event 3"));
+        assertThat(result[1], endsWith("INFO  org.foo.Foo - Event 4"));
+        assertThat(ring.tail(10).length, is(5));
+    }
+
+
+    @Test
+    public void dropsOverwrittenEvents() throws Exception {
+
+        for (int i = 0; i < 1000; i++) {
+            ring.write(0, "INFO", "org.foo.Foo", "Event " + i);
+        }
+
+        String[] result = ring.tail(1000);
+
+        assertThat(result.length, is(allOf(greaterThan(10), lessThan(1000))));
+        assertThat(result[result.length - 1], endsWith("Event 999"));
+    }
+
+
+    @Test
+    public void truncatesLongMessages() throws Exception {
+
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < EventRing.MIN_CAPACITY; i++) {
+            builder.append('x');
+        }
+
+        ring.write(0, "WARN", "org.foo.Foo", builder.toString());
+        ring.write(0, "WARN", "org.foo.Foo", null);
+
+        String[] result = ring.tail(2);
+
+        assertThat(result.length, is(2));
+        assertThat(result[0].length(), is(lessThan(EventRing.MIN_CAPACITY / 4)));
+        assertThat(result[1], endsWith("org.foo.Foo - "));
+    }
+
+
+    @Test
+    public void keepsEventsOfConcurrentWritersIntact() throws Exception {
+
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++) {
+
+            final String message = "Thread " + i;
+
+            threads[i] = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (int j = 0; j < 10000; j++) {
+                        ring.write(j, "INFO", "org.foo.Foo", message);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+
+        for (int i = 0; i < 100; i++) {
+            for (String event : ring.tail(100)) {
+                assertThat(event, containsString("org.foo.Foo - Thread "));
+            }
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ring.tail(10).length, is(10));
+    }
+
+
+    @Test
+    public void writesEventsWithoutAllocating() throws Exception {
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean allocations =
+                (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        // warm up
+        for (int i = 0; i < EVENTS; i++) {
+            ring.write(i, "INFO", "org.foo.Foo", "Event");
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < EVENTS; i++) {
+            ring.write(i, "INFO", "org.foo.Foo", "Event");
+        }
+
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated, is(lessThan((long) EVENTS)));
+    }
+}
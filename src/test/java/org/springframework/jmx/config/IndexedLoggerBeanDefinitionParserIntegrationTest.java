@@ -0,0 +1,43 @@
+package org.springframework.jmx.config;
+
+import static org.junit.Assert.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} detecting
+ * loggers from a logger index file.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-indexed-logger.xml")
+public class IndexedLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void exposesIndexedLoggers() throws Exception {
+
+        assertTrue(server.isRegistered(new ObjectName(
+                "Spring JMX loggers:name=org.indexed")));
+        assertTrue(server.isRegistered(new ObjectName(
+                "Spring JMX loggers:name=org.indexed.alpha,type=org.indexed.alpha")));
+        assertTrue(server.isRegistered(new ObjectName(
+                "Spring JMX loggers:name=org.indexed.alpha.nested,type=org.indexed.alpha")));
+        assertTrue(server.isRegistered(new ObjectName(
+                "Spring JMX loggers:name=org.indexed.beta,type=org.indexed.beta")));
+    }
+}
@@ -4,10 +4,10 @@ import static org.junit.Assert.*;
 
 import java.util.List;
 
-import org.apache.log4j.jmx.LoggerDynamicMBean;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
@@ -18,11 +18,12 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
  * @author Oliver Gierke
  */
 @RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
 @ContextConfiguration("classpath:jmx-logger.xml")
 public class JmxLoggerBeanDefinitionParserIntegrationTest {
 
     @Autowired
-    List<LoggerDynamicMBean> logger;
+    List<Log4JJmxLogger> logger;
 
 
     @Test
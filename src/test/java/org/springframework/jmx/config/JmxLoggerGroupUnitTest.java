@@ -0,0 +1,112 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link JmxLoggerGroup}.
+ * 
+ * @author Oliver Gierke
+ */
+public class JmxLoggerGroupUnitTest {
+
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    MBeanServer server = MBeanServerFactory.newMBeanServer();
+    ObjectName groupName;
+    ObjectName childName;
+
+
+    @Before
+    public void setUp() throws Exception {
+
+        JmxLoggerGroup group =
+                new JmxLoggerGroup(new LogbackLoggerBackend(context),
+                        "org.foo.group", Arrays.asList("org.foo.group.child"));
+
+        groupName =
+                new ObjectName(new JmxLogger("org.foo.group", "org.foo.group")
+                        .getJmxName());
+        childName =
+                new ObjectName(new JmxLogger("org.foo.group.child",
+                        "org.foo.group").getJmxName());
+
+        server.registerMBean(group, groupName);
+    }
+
+
+    @After
+    public void tearDown() {
+
+        context.getLogger("org.foo.group.child").setLevel(null);
+    }
+
+
+    @Test
+    public void listsNestedLoggersWithoutRegisteringThem() throws Exception {
+
+        assertThat((String[]) server.getAttribute(groupName, "Loggers"),
+                is(new String[] { "org.foo.group.child" }));
+        assertFalse(server.isRegistered(childName));
+    }
+
+
+    @Test
+    public void materializesNestedLoggerOnFirstAccess() throws Exception {
+
+        server.invoke(groupName, "setLoggerLevel", new Object[] {
+                "org.foo.group.child", "WARN" }, new String[] {
+                String.class.getName(), String.class.getName() });
+
+        assertTrue(server.isRegistered(childName));
+        assertThat(context.getLogger("org.foo.group.child").getLevel(),
+                is(Level.WARN));
+        assertThat(server.getAttribute(childName, "Level"), is((Object) "WARN"));
+    }
+
+
+    @Test
+    public void readsNestedLoggerLevelWithoutRegisteringIt() throws Exception {
+
+        context.getLogger("org.foo.group.child").setLevel(Level.ERROR);
+
+        assertThat(server.invoke(groupName, "getLoggerLevel",
+                new Object[] { "org.foo.group.child" },
+                new String[] { String.class.getName() }), is((Object) "ERROR"));
+        assertFalse(server.isRegistered(childName));
+    }
+
+
+    @Test
+    public void unregistersMaterializedLoggersWithGroup() throws Exception {
+
+        server.invoke(groupName, "expose",
+                new Object[] { "org.foo.group.child" },
+                new String[] { String.class.getName() });
+        server.unregisterMBean(groupName);
+
+        assertFalse(server.isRegistered(childName));
+    }
+
+
+    @Test(expected = Exception.class)
+    public void rejectsLoggersOutsideTheGroup() throws Exception {
+
+        server.invoke(groupName, "expose", new Object[] { "org.bar" },
+                new String[] { String.class.getName() });
+    }
+}
@@ -0,0 +1,179 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link JmxLoggerLevels}.
+ * 
+ * @author Oliver Gierke
+ */
+public class JmxLoggerLevelsUnitTest {
+
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    JmxLoggerLevels levels = new JmxLoggerLevels(new LogbackLoggerBackend(
+            context));
+
+
+    @After
+    public void tearDown() {
+
+        context.getLogger("org.foo.levels").setLevel(null);
+        context.getLogger("org.foo.levels.nested").setLevel(null);
+        context.getLogger("org.foo.levels.nested.deep").setLevel(null);
+    }
+
+
+    @Test
+    public void appliesAllLevelsAndReturnsPreviousOnes() throws Exception {
+
+        context.getLogger("org.foo.levels").setLevel(Level.INFO);
+
+        Map<String, String> toSet = new HashMap<String, String>();
+        toSet.put("org.foo.levels", "WARN");
+        toSet.put("org.foo.levels.nested", "DEBUG");
+
+        Map<String, String> previous = levels.setLevels(toSet);
+
+        assertThat(previous.get("org.foo.levels"), is("INFO"));
+        assertThat(previous.get("org.foo.levels.nested"), is(""));
+        assertThat(levels.getLevels(
+                new String[] { "org.foo.levels", "org.foo.levels.nested" }),
+                is(toSet));
+
+        levels.setLevels(previous);
+
+        assertThat(context.getLogger("org.foo.levels").getLevel(),
+                is(Level.INFO));
+        assertThat(context.getLogger("org.foo.levels.nested").getLevel(),
+                is(nullValue()));
+    }
+
+
+    @Test
+    public void appliesNoLevelIfOneIsInvalid() throws Exception {
+
+        Map<String, String> toSet = new HashMap<String, String>();
+        toSet.put("org.foo.levels", "WARN");
+        toSet.put("org.foo.levels.nested", "FOO");
+
+        try {
+            levels.setLevels(toSet);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException e) {
+            assertThat(context.getLogger("org.foo.levels").getLevel(),
+                    is(nullValue()));
+        }
+    }
+
+
+    @Test
+    public void ordersLevelsDeepestFirstAndInheritedLevelsTopmostFirst()
+            throws Exception {
+
+        Map<String, String> toSet = new HashMap<String, String>();
+        toSet.put("org.foo.levels", "");
+        toSet.put("org.foo.levels.nested.deep", "");
+        toSet.put("org.foo", "WARN");
+        toSet.put("org.foo.levels.nested", "DEBUG");
+        toSet.put("ROOT", "INFO");
+
+        assertThat(new ArrayList<String>(JmxLoggerLevels.sort(toSet).keySet()),
+                is(Arrays.asList("org.foo.levels.nested", "org.foo",
+                        "ROOT", "org.foo.levels", "org.foo.levels.nested.deep")));
+    }
+
+
+    @Test
+    public void activatesAndDeactivatesProfileAsUnit() throws Exception {
+
+        context.getLogger("org.foo.levels").setLevel(Level.INFO);
+
+        Map<String, String> profile = new HashMap<String, String>();
+        profile.put("org.foo.levels", "DEBUG");
+        profile.put("org.foo.levels.nested", "TRACE");
+        levels.defineProfile("incident", profile);
+
+        Map<String, String> previous = levels.activateProfile("incident");
+
+        assertThat(previous.get("org.foo.levels"), is("INFO"));
+        assertThat(previous.get("org.foo.levels.nested"), is(""));
+        assertThat(levels.getActiveProfiles(),
+                is(new String[] { "incident" }));
+        assertThat(context.getLogger("org.foo.levels.nested").getLevel(),
+                is(Level.TRACE));
+
+        levels.deactivateProfile("incident");
+
+        assertThat(levels.getActiveProfiles().length, is(0));
+        assertThat(context.getLogger("org.foo.levels").getLevel(),
+                is(Level.INFO));
+        assertThat(context.getLogger("org.foo.levels.nested").getLevel(),
+                is(nullValue()));
+    }
+
+
+    @Test
+    public void keepsLevelsChangedWhileProfileActive() throws Exception {
+
+        levels.defineProfile("incident",
+                Collections.singletonMap("org.foo.levels", "DEBUG"));
+        levels.activateProfile("incident");
+
+        context.getLogger("org.foo.levels").setLevel(Level.ERROR);
+
+        assertTrue(levels.deactivateProfile("incident").isEmpty());
+        assertThat(context.getLogger("org.foo.levels").getLevel(),
+                is(Level.ERROR));
+    }
+
+
+    @Test
+    public void rejectsProfileWithInvalidLevel() throws Exception {
+
+        try {
+            levels.defineProfile("incident",
+                    Collections.singletonMap("org.foo.levels", "FOO"));
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException e) {
+            assertTrue(levels.getProfiles().isEmpty());
+        }
+    }
+
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsRedefiningActiveProfile() throws Exception {
+
+        levels.defineProfile("incident",
+                Collections.singletonMap("org.foo.levels", "DEBUG"));
+        levels.activateProfile("incident");
+
+        try {
+            levels.defineProfile("incident",
+                    Collections.singletonMap("org.foo.levels", "WARN"));
+        } finally {
+            levels.deactivateProfile("incident");
+        }
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownProfile() throws Exception {
+
+        levels.activateProfile("unknown");
+    }
+}
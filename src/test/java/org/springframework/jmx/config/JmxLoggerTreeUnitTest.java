@@ -0,0 +1,117 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link JmxLoggerTree}.
+ * 
+ * @author Oliver Gierke
+ */
+public class JmxLoggerTreeUnitTest {
+
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+    JmxLoggerTree tree = new JmxLoggerTree(new LogbackLoggerBackend(context),
+            new JmxLoggers(Arrays.asList(new JmxLogger("org.foo", null),
+                    new JmxLogger("org.foo.bar", "org.foo.bar"),
+                    new JmxLogger("org.foo.bar.baz", "org.foo.bar"),
+                    new JmxLogger("org.foo.qux", "org.foo.qux"))));
+
+
+    @Test
+    public void returnsLoggersPageByPage() throws Exception {
+
+        TabularData first = tree.getLoggers(null, null, 3);
+        assertThat(getNames(first), is(Arrays.asList("org.foo",
+                "org.foo.bar", "org.foo.bar.baz")));
+
+        TabularData second = tree.getLoggers(null, "org.foo.bar.baz", 3);
+        assertThat(getNames(second), is(Arrays.asList("org.foo.qux")));
+    }
+
+
+    @Test
+    public void filtersByPrefix() throws Exception {
+
+        TabularData result = tree.getLoggers("org.foo.bar", null, 10);
+        assertThat(getNames(result), is(Arrays.asList("org.foo.bar",
+                "org.foo.bar.baz")));
+
+        result = tree.getLoggers("org.foo.bar", "org.foo.bar", 10);
+        assertThat(getNames(result), is(Arrays.asList("org.foo.bar.baz")));
+    }
+
+
+    @Test
+    public void exposesLevelsAndGroup() throws Exception {
+
+        CompositeData row =
+                tree.getLoggers("org.foo.bar.baz", null, 1).get(
+                        new Object[] { "org.foo.bar.baz" });
+
+        assertThat(row.get("group"), is((Object) "org.foo.bar"));
+        assertThat(row.get("level"), is((Object) ""));
+        assertThat(row.get("effectiveLevel"), is((Object) context.getLogger(
+                "org.foo.bar.baz").getEffectiveLevel().toString()));
+        assertThat(tree.getLoggerCount(), is(4));
+    }
+
+
+    @Test
+    public void addsUnknownLoggersOnly() throws Exception {
+
+        List<JmxLogger> added =
+                tree.add(Arrays.asList(new JmxLogger("org.foo.bar", null),
+                        new JmxLogger("org.foo.baz", "org.foo.baz"),
+                        new JmxLogger("org.foo.baz", "org.foo.baz")));
+
+        assertThat(added.size(), is(1));
+        assertThat(added.get(0).getName(), is("org.foo.baz"));
+        assertThat(tree.getLoggerCount(), is(5));
+        assertThat(getNames(tree.getLoggers("org.foo.ba", null, 10)),
+                is(Arrays.asList("org.foo.bar", "org.foo.bar.baz",
+                        "org.foo.baz")));
+    }
+
+
+    @Test
+    public void isReadyOnceAllDiscoveriesCompleted() throws Exception {
+
+        assertTrue(tree.isReady());
+
+        tree.setPendingDiscoveries(2);
+        tree.discoveryCompleted();
+        assertFalse(tree.isReady());
+
+        tree.discoveryCompleted();
+        assertTrue(tree.isReady());
+    }
+
+
+    private static List<String> getNames(TabularData data) {
+
+        List<String> result = new ArrayList<String>();
+
+        for (Object row : data.values()) {
+            result.add((String) ((CompositeData) row).get("name"));
+        }
+
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link JmxLoggers}.
+ * 
+ * @author Oliver Gierke
+ */
+public class JmxLoggersUnitTest {
+
+    private static final int SYNTHETIC_LOGGERS = 100000;
+    private static final long TIME_BUDGET_MILLIS = 10000;
+
+
+    @Test
+    public void detectsLoggerForCandidateByName() throws Exception {
+
+        JmxLoggers loggers =
+                new JmxLoggers(Arrays.asList(new JmxLogger("org.foo", null)));
+
+        assertTrue(loggers.containsLoggerFor(new Candidate("org.foo", 0)));
+        assertFalse(loggers.containsLoggerFor(new Candidate("org.foo.bar", 1)));
+    }
+
+
+    @Test
+    public void keepsFirstLoggerRegisteredForName() throws Exception {
+
+        JmxLogger first = new JmxLogger("org.foo.bar", "org.foo.bar");
+        JmxLoggers loggers = new JmxLoggers();
+
+        assertTrue(loggers.add(first));
+        assertFalse(loggers.add(new JmxLogger("org.foo.bar", null)));
+        assertThat(loggers.getLogger("org.foo.bar"), is(first));
+        assertThat(loggers.size(), is(1));
+    }
+
+
+    @Test
+    public void mergesLoggers() throws Exception {
+
+        JmxLoggers loggers =
+                new JmxLoggers(Arrays.asList(new JmxLogger("org.foo", null)));
+        JmxLoggers other =
+                new JmxLoggers(Arrays.asList(new JmxLogger("org.foo", null),
+                        new JmxLogger("org.bar", null)));
+
+        loggers.addAll(other);
+
+        assertThat(loggers.size(), is(2));
+        assertThat(loggers.getLogger("org.bar"), is(notNullValue()));
+    }
+
+
+    @Test
+    public void discoversHundredThousandLoggersWithinBudget() throws Exception {
+
+        List<String> names = new ArrayList<String>(SYNTHETIC_LOGGERS);
+
+        for (int i = 0; i < SYNTHETIC_LOGGERS; i++) {
+            names.add(String.format("org.synthetic.group%d.module%d.Type%d",
+                    i / 1000, i, i));
+        }
+
+        long start = System.currentTimeMillis();
+
+        LoggerSelector selector = new LoggerSelector("org.synthetic", 2, true);
+        LoggerNameIndex index = new LoggerNameIndex(names);
+        JmxLoggers registered = new JmxLoggers();
+
+        for (String source : index.getSourcesBelow("org.synthetic", 2)) {
+            for (JmxLogger logger : selector.getLoggersFor(source, registered)) {
+                registered.add(logger);
+            }
+        }
+
+        long duration = System.currentTimeMillis() - start;
+
+        assertThat(registered.size(), is(1 + SYNTHETIC_LOGGERS / 1000
+                + SYNTHETIC_LOGGERS));
+        assertThat(duration, is(lessThan(TIME_BUDGET_MILLIS)));
+    }
+}
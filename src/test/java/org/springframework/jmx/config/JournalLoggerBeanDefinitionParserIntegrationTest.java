@@ -0,0 +1,68 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import javax.management.Attribute;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} recording level
+ * changes in a journal.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-journal-logger.xml")
+public class JournalLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @After
+    public void tearDown() {
+
+        journal().clear();
+    }
+
+
+    @Test
+    public void recordsLevelChangesMadeThroughMBeans() throws Exception {
+
+        ObjectName name =
+                new ObjectName(
+                        "Spring JMX loggers:name=org.springframework.test,type=org.springframework.test");
+        server.setAttribute(name, new Attribute("Level", "INFO"));
+
+        assertThat(journal().getLevels().get("org.springframework.test"),
+                is("INFO"));
+
+        server.setAttribute(name, new Attribute("Level", ""));
+    }
+
+
+    private LevelJournalMXBean journal() {
+
+        try {
+            return JMX.newMXBeanProxy(server, new ObjectName(
+                    JmxLogger.OVERALL_NAME
+                            + ":service=LevelJournal,backend=Logback"),
+                    LevelJournalMXBean.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
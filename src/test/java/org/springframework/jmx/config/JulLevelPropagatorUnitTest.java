@@ -0,0 +1,133 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link JulLevelPropagator}.
+ * 
+ * @author Oliver Gierke
+ */
+public class JulLevelPropagatorUnitTest {
+
+    LoggerContext context = new LoggerContext();
+    Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+    JulLevelPropagator propagator = new JulLevelPropagator(context, Arrays
+            .asList("jul.foo"));
+
+
+    @Before
+    public void setUp() {
+
+        root.setLevel(Level.WARN);
+        context.getLogger("jul.foo.bar").setLevel(Level.DEBUG);
+        context.getLogger("jul.other").setLevel(Level.TRACE);
+
+        propagator.afterPropertiesSet();
+    }
+
+
+    @After
+    public void tearDown() {
+
+        propagator.destroy();
+    }
+
+
+    @Test
+    public void propagatesInitialLevels() throws Exception {
+
+        assertThat(jul("jul.foo").getLevel(), is(java.util.logging.Level.WARNING));
+        assertThat(jul("jul.foo.bar").getLevel(), is(java.util.logging.Level.FINE));
+        assertThat(jul("jul.other").getLevel(), is(nullValue()));
+    }
+
+
+    @Test
+    public void propagatesLevelChangesInsideBasePackage() throws Exception {
+
+        context.getLogger("jul.foo.baz").setLevel(Level.ERROR);
+        context.getLogger("jul.foo.bar").setLevel(null);
+        context.getLogger("jul.other").setLevel(Level.DEBUG);
+
+        assertThat(jul("jul.foo.baz").getLevel(),
+                is(java.util.logging.Level.SEVERE));
+        assertThat(jul("jul.foo.bar").getLevel(), is(nullValue()));
+        assertThat(jul("jul.other").getLevel(), is(nullValue()));
+    }
+
+
+    @Test
+    public void propagatesEffectiveLevelOfBasePackage() throws Exception {
+
+        root.setLevel(Level.INFO);
+        assertThat(jul("jul.foo").getLevel(), is(java.util.logging.Level.INFO));
+
+        context.getLogger("jul").setLevel(Level.TRACE);
+        assertThat(jul("jul.foo").getLevel(), is(java.util.logging.Level.FINEST));
+    }
+
+
+    @Test
+    public void restoresPreviousLevelsOnDestroy() throws Exception {
+
+        propagator.destroy();
+
+        assertThat(jul("jul.foo").getLevel(), is(nullValue()));
+        assertThat(jul("jul.foo.bar").getLevel(), is(nullValue()));
+
+        context.getLogger("jul.foo").setLevel(Level.ERROR);
+        assertThat(jul("jul.foo").getLevel(), is(nullValue()));
+    }
+
+
+    @Test
+    public void propagatesSampledLevels() throws Exception {
+
+        LogbackLoggerBackend backend = new LogbackLoggerBackend(context);
+
+        backend.setLevel("jul.foo.baz", "DEBUG@1%");
+
+        assertThat(jul("jul.foo").getLevel(), is(java.util.logging.Level.FINE));
+        assertTrue(jul("jul.foo.baz.Baz").isLoggable(java.util.logging.Level.FINE));
+
+        backend.setLevel("jul.foo.baz", "");
+
+        assertThat(jul("jul.foo").getLevel(), is(java.util.logging.Level.WARNING));
+    }
+
+
+    @Test
+    public void propagatesMdcLevels() throws Exception {
+
+        LogbackLoggerBackend backend = new LogbackLoggerBackend(context);
+
+        backend.setMdcLevel("jul", "tenant", "acme", "TRACE");
+
+        assertThat(jul("jul.foo").getLevel(), is(java.util.logging.Level.FINEST));
+        assertThat(jul("jul.foo.bar").getLevel(),
+                is(java.util.logging.Level.FINEST));
+
+        backend.setMdcLevel("jul", "tenant", "acme", "");
+
+        assertThat(jul("jul.foo").getLevel(), is(java.util.logging.Level.WARNING));
+        assertThat(jul("jul.foo.bar").getLevel(), is(java.util.logging.Level.FINE));
+    }
+
+
+    private static java.util.logging.Logger jul(String name) {
+
+        return java.util.logging.Logger.getLogger(name);
+    }
+}
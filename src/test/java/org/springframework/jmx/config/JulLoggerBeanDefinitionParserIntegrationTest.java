@@ -0,0 +1,58 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.logging.Level;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} propagating
+ * levels to java.util.logging.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-jul-logger.xml")
+public class JulLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void propagatesLevelsToJul() throws Exception {
+
+        assertThat(java.util.logging.Logger.getLogger("org.springframework")
+                .getLevel(), is(Level.INFO));
+
+        ObjectName name =
+                new ObjectName(
+                        "Spring JMX loggers:name=org.springframework.test,type=org.springframework.test");
+        server.setAttribute(name, new Attribute("Level", "DEBUG"));
+
+        java.util.logging.Logger logger =
+                java.util.logging.Logger.getLogger("org.springframework.test");
+
+        assertThat(logger.getLevel(), is(Level.FINE));
+        assertThat(logger.isLoggable(Level.FINE), is(true));
+        assertThat(logger.isLoggable(Level.FINER), is(false));
+
+        server.setAttribute(name, new Attribute("Level", ""));
+
+        assertThat(logger.getLevel(), is(nullValue()));
+        assertThat(logger.isLoggable(Level.FINE), is(false));
+    }
+}
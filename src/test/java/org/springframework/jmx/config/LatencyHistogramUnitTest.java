@@ -0,0 +1,98 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LatencyHistogramUnitTest {
+
+    private static final int EVENTS = 100000;
+
+    LatencyHistogram histogram = new LatencyHistogram();
+
+
+    @Test
+    public void bucketsContainTheirUpperBounds() throws Exception {
+
+        long[] values =
+                { 0, 1, 15, 16, 17, 19, 20, 31, 32, 1000, 123456789,
+                        Long.MAX_VALUE };
+
+        for (long value : values) {
+
+            int bucket = LatencyHistogram.getBucket(value);
+
+            assertThat(LatencyHistogram.getUpperBound(bucket),
+                    is(greaterThanOrEqualTo(value)));
+            assertThat(LatencyHistogram.getBucket(LatencyHistogram
+                    .getUpperBound(bucket)), is(bucket));
+        }
+    }
+
+
+    @Test
+    public void percentilesAreAccurateWithinBucketWidth() throws Exception {
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertThat(histogram.getCount(), is(1000L));
+        assertThat(histogram.getMax(), is(1000000L));
+        assertThat(histogram.getPercentile(50), is(allOf(
+                greaterThanOrEqualTo(500000L), lessThan(625000L))));
+        assertThat(histogram.getPercentile(99), is(allOf(
+                greaterThanOrEqualTo(990000L), lessThanOrEqualTo(1000000L))));
+        assertThat(histogram.getPercentile(100), is(1000000L));
+    }
+
+
+    @Test
+    public void returnsZeroIfNothingRecorded() throws Exception {
+
+        assertThat(histogram.getCount(), is(0L));
+        assertThat(histogram.getMax(), is(0L));
+        assertThat(histogram.getPercentile(99), is(0L));
+    }
+
+
+    @Test
+    public void recordsWithoutAllocating() throws Exception {
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean allocations =
+                (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        // warm up
+        for (int i = 0; i < EVENTS; i++) {
+            histogram.record(i);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < EVENTS; i++) {
+            histogram.record(i);
+        }
+
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(histogram.getCount(), is(2L * EVENTS));
+        assertThat(allocated, is(lessThan((long) EVENTS)));
+    }
+}
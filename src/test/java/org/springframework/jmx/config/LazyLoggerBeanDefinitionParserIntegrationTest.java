@@ -0,0 +1,57 @@
+package org.springframework.jmx.config;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} using lazy
+ * logger groups.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-lazy-logger.xml")
+public class LazyLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    List<JmxLoggerGroup> groups;
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void registersGroupMBeansOnly() throws Exception {
+
+        assertFalse(groups.isEmpty());
+
+        for (JmxLoggerGroup group : groups) {
+
+            ObjectName name =
+                    new ObjectName(new JmxLogger(group.getName(),
+                            group.getName()).getJmxName());
+            assertTrue(server.isRegistered(name));
+
+            for (String logger : group.getLoggers()) {
+                assertFalse(server.isRegistered(new ObjectName(new JmxLogger(
+                        logger, group.getName()).getJmxName())));
+            }
+        }
+
+        assertTrue(server.isRegistered(new ObjectName(
+                "Spring JMX loggers:name=org.springframework")));
+    }
+}
@@ -0,0 +1,216 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+
+import javax.management.Attribute;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link LevelJournal}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LevelJournalUnitTest {
+
+    File file;
+    LoggerContext context = new LoggerContext();
+    LogbackLoggerBackend backend = new LogbackLoggerBackend(context);
+    LevelJournal journal;
+
+
+    @Before
+    public void setUp() throws Exception {
+
+        file = File.createTempFile("levels", ".journal");
+        file.delete();
+
+        journal = new LevelJournal(backend, file.getPath());
+        journal.afterPropertiesSet();
+    }
+
+
+    @After
+    public void tearDown() throws Exception {
+
+        journal.destroy();
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+
+    @Test
+    public void restoresLevelsRecordedThroughMBeans() throws Exception {
+
+        new LogbackJmxLogger(context.getLogger("org.foo")).setAttribute(
+                new Attribute("Level", "DEBUG"));
+        new JmxLoggerLevels(backend).setLevels(Collections.singletonMap(
+                "org.foo.bar", "WARN"));
+        new JmxLoggerGroup(backend, "org.baz", Collections.<String> emptySet())
+                .setAttribute(new Attribute("Level", "ERROR"));
+
+        LoggerContext restarted = restart();
+
+        assertThat(restarted.getLogger("org.foo").getLevel(), is(Level.DEBUG));
+        assertThat(restarted.getLogger("org.foo.bar").getLevel(),
+                is(Level.WARN));
+        assertThat(restarted.getLogger("org.baz").getLevel(),
+                is(Level.ERROR));
+    }
+
+
+    @Test
+    public void restoresLatestLevelAndInheritedLevels() throws Exception {
+
+        LogbackJmxLogger logger =
+                new LogbackJmxLogger(context.getLogger("org.foo"));
+        logger.setAttribute(new Attribute("Level", "DEBUG"));
+        logger.setAttribute(new Attribute("Level", "WARN"));
+
+        LogbackJmxLogger nested =
+                new LogbackJmxLogger(context.getLogger("org.foo.bar"));
+        nested.setAttribute(new Attribute("Level", "DEBUG"));
+        nested.setAttribute(new Attribute("Level", ""));
+
+        LoggerContext restarted = new LoggerContext();
+        restarted.getLogger("org.foo.bar").setLevel(Level.INFO);
+        restart(restarted);
+
+        assertThat(restarted.getLogger("org.foo").getLevel(), is(Level.WARN));
+        assertThat(restarted.getLogger("org.foo.bar").getLevel(),
+                is(nullValue()));
+        assertThat(journal.getRecords(), is(2));
+    }
+
+
+    @Test
+    public void doesNotRecordTimeBoxedOrInvalidLevels() throws Exception {
+
+        LogbackJmxLogger logger =
+                new LogbackJmxLogger(context.getLogger("org.foo"));
+        logger.setLevelFor("DEBUG", 60);
+        logger.setAttribute(new Attribute("Level", "FOO"));
+
+        assertTrue(journal.getLevels().isEmpty());
+        assertThat(journal.getRecords(), is(0));
+    }
+
+
+    @Test
+    public void compactsJournal() throws Exception {
+
+        for (int i = 0; i < 100; i++) {
+            journal.record("org.foo", i % 2 == 0 ? "DEBUG" : "WARN");
+        }
+
+        long length = file.length();
+        assertThat(journal.getRecords(), is(100));
+
+        journal.compact();
+
+        assertThat(journal.getRecords(), is(1));
+        assertThat(file.length(), is(lessThan(length)));
+        assertThat(journal.getLevels(), is(Collections.singletonMap(
+                "org.foo", "WARN")));
+
+        journal.record("org.bar", "ERROR");
+
+        assertThat(restart().getLogger("org.bar").getLevel(),
+                is(Level.ERROR));
+    }
+
+
+    @Test
+    public void ignoresTruncatedRecord() throws Exception {
+
+        journal.record("org.foo", "DEBUG");
+        journal.record("org.bar", "WARN");
+        journal.destroy();
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(file.length() - 2);
+        raf.close();
+
+        LoggerContext restarted = restart();
+
+        assertThat(restarted.getLogger("org.foo").getLevel(), is(Level.DEBUG));
+        assertThat(restarted.getLogger("org.bar").getLevel(), is(nullValue()));
+        assertThat(journal.getRecords(), is(1));
+    }
+
+
+    @Test
+    public void recoversJournalFromTemporaryFileOfRewrite() throws Exception {
+
+        journal.record("org.foo", "DEBUG");
+        journal.compact();
+        journal.destroy();
+
+        File tmp = new File(file.getPath() + ".tmp");
+        assertTrue(file.renameTo(tmp));
+
+        LoggerContext restarted = restart();
+
+        assertThat(restarted.getLogger("org.foo").getLevel(), is(Level.DEBUG));
+        assertTrue(file.exists());
+        assertFalse(tmp.exists());
+
+        journal.record("org.bar", "WARN");
+
+        assertThat(restart().getLogger("org.bar").getLevel(), is(Level.WARN));
+    }
+
+
+    @Test
+    public void doesNotRecordLevelsOfProfiles() throws Exception {
+
+        JmxLoggerLevels levels =
+                new JmxLoggerLevels(backend, Collections.singletonMap(
+                        "incident", Collections.singletonMap("org.foo", "DEBUG")));
+
+        levels.activateProfile("incident");
+
+        assertThat(context.getLogger("org.foo").getLevel(), is(Level.DEBUG));
+        assertThat(restart().getLogger("org.foo").getLevel(), is(nullValue()));
+        assertTrue(journal.getLevels().isEmpty());
+    }
+
+
+    @Test
+    public void clearsJournal() throws Exception {
+
+        journal.record("org.foo", "DEBUG");
+        journal.clear();
+
+        assertThat(restart().getLogger("org.foo").getLevel(), is(nullValue()));
+    }
+
+
+    private LoggerContext restart() throws Exception {
+
+        LoggerContext restarted = new LoggerContext();
+        restart(restarted);
+        return restarted;
+    }
+
+
+    private void restart(LoggerContext restarted) throws Exception {
+
+        journal.destroy();
+        journal =
+                new LevelJournal(new LogbackLoggerBackend(restarted), file
+                        .getPath());
+        journal.afterPropertiesSet();
+    }
+}
@@ -0,0 +1,134 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link LevelOverrides}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LevelOverridesUnitTest {
+
+    LoggerContext context = new LoggerContext();
+    LogbackLoggerBackend backend = new LogbackLoggerBackend(context);
+    LevelOverrides overrides = new LevelOverrides(new TimerWheel(10, 64));
+
+
+    @Before
+    public void setUp() {
+
+        context.getLogger("org.foo").setLevel(Level.INFO);
+        context.getLogger("org.bar").setLevel(Level.WARN);
+    }
+
+
+    @Test
+    public void restoresPreviousLevelOnExpiry() throws Exception {
+
+        assertThat(overrides.override(backend, "org.foo", "DEBUG", 1),
+                is("INFO"));
+        assertThat(backend.getLevel("org.foo"), is("DEBUG"));
+
+        awaitExpiry();
+
+        assertThat(backend.getLevel("org.foo"), is("INFO"));
+    }
+
+
+    @Test
+    public void keepsOriginalLevelWhenOverriddenAgain() throws Exception {
+
+        overrides.override(backend, "org.foo", "DEBUG", 60);
+
+        assertThat(overrides.override(backend, "org.foo", "TRACE", 1),
+                is("INFO"));
+        assertThat(overrides.getOverrides().size(), is(1));
+
+        awaitExpiry();
+
+        assertThat(backend.getLevel("org.foo"), is("INFO"));
+    }
+
+
+    @Test
+    public void doesNotRevertLevelChangedInTheMeantime() throws Exception {
+
+        overrides.override(backend, "org.foo", "DEBUG", 1);
+        backend.setLevel("org.foo", "ERROR");
+
+        awaitExpiry();
+
+        assertThat(backend.getLevel("org.foo"), is("ERROR"));
+    }
+
+
+    @Test
+    public void appliesAllOrNoLevels() throws Exception {
+
+        Map<String, String> levels = new HashMap<String, String>();
+        levels.put("org.foo", "DEBUG");
+        levels.put("org.bar", "FOO");
+
+        try {
+            overrides.override(backend, levels, 60);
+            fail("Expected IllegalArgumentException!");
+        } catch (IllegalArgumentException e) {
+            assertThat(backend.getLevel("org.foo"), is("INFO"));
+        }
+
+        levels.put("org.bar", "ERROR");
+        Map<String, String> previous = overrides.override(backend, levels, 60);
+
+        assertThat(previous.get("org.foo"), is("INFO"));
+        assertThat(previous.get("org.bar"), is("WARN"));
+        assertThat(backend.getLevel("org.bar"), is("ERROR"));
+    }
+
+
+    @Test
+    public void listsActiveOverrides() throws Exception {
+
+        overrides.override(backend, "org.foo", "DEBUG", 60);
+
+        List<LevelOverride> result = overrides.getOverrides();
+
+        assertThat(result.size(), is(1));
+        assertThat(result.get(0).getLogger(), is("org.foo"));
+        assertThat(result.get(0).getLevel(), is("DEBUG"));
+        assertThat(result.get(0).getPreviousLevel(), is("INFO"));
+        assertThat(result.get(0).getRemainingSeconds(), is(allOf(
+                greaterThan(58L), lessThanOrEqualTo(60L))));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveDuration() throws Exception {
+
+        overrides.override(backend, "org.foo", "DEBUG", 0);
+    }
+
+
+    private void awaitExpiry() throws InterruptedException {
+
+        long timeout = System.currentTimeMillis() + 5000;
+
+        while (!overrides.getOverrides().isEmpty()
+                && System.currentTimeMillis() < timeout) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(overrides.getOverrides().isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.MBeanExporter;
+
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link LiveLoggerRegistrar}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LiveLoggerRegistrarUnitTest {
+
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    MBeanServer server = MBeanServerFactory.newMBeanServer();
+    MBeanExporter exporter = new MBeanExporter();
+    LoggerSelector selector = new LoggerSelector("org.foo.live", 1, true);
+    JmxLoggers registered = new JmxLoggers();
+    LiveLoggerRegistrar registrar;
+
+
+    @Before
+    public void setUp() {
+
+        exporter.setServer(server);
+
+        context.getLogger("org.foo.live");
+
+        registered.addAll(new JmxLoggers(selector
+                .getLoggersFor("org.foo.live")));
+
+        registrar =
+                new LiveLoggerRegistrar(new LogbackLoggerBackend(context),
+                        selector, registered, exporter);
+    }
+
+
+    @Test
+    public void registersNewLoggersOnceNoFurtherOnesShowUp() throws Exception {
+
+        ObjectName first = getObjectName("org.foo.live.first");
+        ObjectName second = getObjectName("org.foo.live.second");
+
+        registrar.check();
+        context.getLogger("org.foo.live.first.Foo");
+        registrar.check();
+
+        assertFalse(server.isRegistered(first));
+
+        context.getLogger("org.foo.live.second.Bar");
+        registrar.check();
+
+        assertFalse(server.isRegistered(first));
+
+        registrar.check();
+
+        assertTrue(server.isRegistered(first));
+        assertTrue(server.isRegistered(second));
+        assertFalse(server.isRegistered(getObjectName("org.foo.live")));
+    }
+
+
+    @Test
+    public void exposesLoggerSelectedByOverlappingRegistrarsOnce()
+            throws Exception {
+
+        LiveLoggerRegistrar overlapping =
+                new LiveLoggerRegistrar(new LogbackLoggerBackend(context),
+                        new LoggerSelector("org.foo.live", 2, true),
+                        registered, exporter);
+
+        context.getLogger("org.foo.live.shared.Baz");
+
+        assertThat(registrar.discover(), is(greaterThan(0)));
+        assertThat(overlapping.discover(), is(0));
+        assertTrue(server.isRegistered(getObjectName("org.foo.live.shared")));
+    }
+
+
+    @Test
+    public void registersBatchAfterMaximumNumberOfDeferredChecks()
+            throws Exception {
+
+        for (int i = 0; i < LiveLoggerRegistrar.MAX_DEFERRED_CHECKS; i++) {
+            context.getLogger("org.foo.live.burst" + i + ".Foo");
+            registrar.check();
+        }
+
+        assertTrue(server.isRegistered(getObjectName("org.foo.live.burst0")));
+    }
+
+
+    @Test
+    public void discoversLoggersRightAway() throws Exception {
+
+        context.getLogger("org.foo.live.known.Foo");
+        context.getLogger("org.foo.live.unknown.Bar");
+
+        JmxLoggerTree tree =
+                new JmxLoggerTree(new LogbackLoggerBackend(context),
+                        new JmxLoggers(Arrays.asList(new JmxLogger(
+                                "org.foo.live.known", "org.foo.live.known"))));
+        registrar.setTree(tree);
+
+        int discovered = registrar.discover();
+
+        assertTrue(server.isRegistered(getObjectName("org.foo.live.unknown")));
+        assertFalse(server.isRegistered(getObjectName("org.foo.live.known")));
+        assertThat(tree.getLoggerCount(), is(1 + discovered));
+    }
+
+
+    private static ObjectName getObjectName(String logger) throws Exception {
+
+        return new ObjectName(new JmxLogger(logger, logger).getJmxName());
+    }
+}
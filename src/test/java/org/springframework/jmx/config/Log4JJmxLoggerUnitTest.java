@@ -0,0 +1,86 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import javax.management.Attribute;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link Log4JJmxLogger}.
+ * 
+ * @author Oliver Gierke
+ */
+public class Log4JJmxLoggerUnitTest {
+
+    Logger logger = Logger.getLogger("org.foo.log4j");
+
+
+    @After
+    public void tearDown() {
+
+        logger.setLevel(null);
+    }
+
+
+    @Test
+    public void sharesMBeanInfoBetweenLoggers() throws Exception {
+
+        Log4JJmxLogger first = new Log4JJmxLogger(logger);
+        Log4JJmxLogger second = new Log4JJmxLogger(Logger.getLogger("org.bar"));
+
+        assertThat(first.getMBeanInfo(), is(sameInstance(second
+                .getMBeanInfo())));
+    }
+
+
+    @Test
+    public void exposesNameAndLevelThroughMBeanServer() throws Exception {
+
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:name=org.foo.log4j");
+        server.registerMBean(new Log4JJmxLogger(logger), name);
+
+        assertThat(server.getAttribute(name, "Name"),
+                is((Object) "org.foo.log4j"));
+        assertThat(server.getAttribute(name, "Level"), is((Object) ""));
+
+        server.setAttribute(name, new Attribute("Level", "WARN"));
+
+        assertThat(logger.getLevel(), is(Level.WARN));
+        assertThat(server.getAttribute(name, "Level"), is((Object) "WARN"));
+        assertThat(server.queryNames(new ObjectName("test:*"), null).size(),
+                is(1));
+    }
+
+
+    @Test
+    public void doesNotAdvertiseEventOperations() throws Exception {
+
+        MBeanOperationInfo[] operations =
+                new Log4JJmxLogger(logger).getMBeanInfo().getOperations();
+
+        assertThat(operations.length, is(1));
+        assertThat(operations[0].getName(), is("setLevelFor"));
+    }
+
+
+    @Test
+    public void ignoresUnknownLevel() throws Exception {
+
+        Log4JJmxLogger jmxLogger = new Log4JJmxLogger(logger);
+        jmxLogger.setLevel("ERROR");
+        jmxLogger.setLevel("FOO");
+
+        assertThat(logger.getLevel(), is(Level.ERROR));
+    }
+}
@@ -0,0 +1,153 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.junit.Test;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+
+
+/**
+ * Unit tests for {@link LogbackJmxAppender}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LogbackJmxAppenderUnitTest {
+
+    @Test
+    public void exposesQueueOfQueueingAppender() throws Exception {
+
+        QueueingAppender appender = new QueueingAppender();
+        appender.setName("queue");
+        appender.start();
+        appender.doAppend(null);
+
+        LogbackJmxAppender mbean = new LogbackJmxAppender(appender);
+
+        assertThat(mbean.getName(), is("queue"));
+        assertThat(mbean.getType(), is(QueueingAppender.class.getName()));
+        assertThat(mbean.isStarted(), is(true));
+        assertThat(mbean.isQueued(), is(true));
+        assertThat(mbean.getQueueSize(), is(4));
+        assertThat(mbean.getNumberOfElementsInQueue(), is(1));
+        assertThat(mbean.getRemainingCapacity(), is(3));
+        assertThat(mbean.getDiscardingThreshold(), is(1));
+        assertThat(mbean.isNeverBlock(), is(false));
+    }
+
+
+    @Test
+    public void changesQueueSettingsAtRuntime() throws Exception {
+
+        QueueingAppender appender = new QueueingAppender();
+        LogbackJmxAppender mbean = new LogbackJmxAppender(appender);
+
+        mbean.setDiscardingThreshold(0);
+        mbean.setNeverBlock(true);
+
+        assertThat(appender.getDiscardingThreshold(), is(0));
+        assertThat(appender.isNeverBlock(), is(true));
+        assertThat(mbean.isNeverBlock(), is(true));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeDiscardingThreshold() throws Exception {
+
+        new LogbackJmxAppender(new QueueingAppender())
+                .setDiscardingThreshold(-1);
+    }
+
+
+    @Test
+    public void exposesAppenderWithoutQueue() throws Exception {
+
+        LogbackJmxAppender mbean =
+                new LogbackJmxAppender(new ListAppender<ILoggingEvent>());
+
+        assertThat(mbean.isStarted(), is(false));
+        assertThat(mbean.isQueued(), is(false));
+        assertThat(mbean.getQueueSize(), is(-1));
+        assertThat(mbean.getRemainingCapacity(), is(-1));
+        assertThat(mbean.getDiscardingThreshold(), is(-1));
+        assertThat(mbean.isNeverBlock(), is(false));
+    }
+
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void rejectsQueueSettingsForAppenderWithoutQueue() throws Exception {
+
+        new LogbackJmxAppender(new ListAppender<ILoggingEvent>())
+                .setNeverBlock(true);
+    }
+
+    /**
+     * Appender following the property conventions of Logback's
+     * {@code AsyncAppender}.
+     * 
+     * @author Oliver Gierke
+     */
+    public static class QueueingAppender extends
+            UnsynchronizedAppenderBase<ILoggingEvent> {
+
+        private final BlockingQueue<Object> queue =
+                new ArrayBlockingQueue<Object>(4);
+        private int discardingThreshold = 1;
+        private boolean neverBlock;
+
+
+        public int getQueueSize() {
+
+            return 4;
+        }
+
+
+        public int getNumberOfElementsInQueue() {
+
+            return queue.size();
+        }
+
+
+        public int getRemainingCapacity() {
+
+            return queue.remainingCapacity();
+        }
+
+
+        public int getDiscardingThreshold() {
+
+            return discardingThreshold;
+        }
+
+
+        public void setDiscardingThreshold(int discardingThreshold) {
+
+            this.discardingThreshold = discardingThreshold;
+        }
+
+
+        public boolean isNeverBlock() {
+
+            return neverBlock;
+        }
+
+
+        public void setNeverBlock(boolean neverBlock) {
+
+            this.neverBlock = neverBlock;
+        }
+
+
+        @Override
+        protected void append(ILoggingEvent event) {
+
+            queue.offer(new Object());
+        }
+    }
+}
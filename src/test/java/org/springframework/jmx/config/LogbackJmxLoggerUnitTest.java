@@ -0,0 +1,97 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link LogbackJmxLogger}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LogbackJmxLoggerUnitTest {
+
+    LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+    Logger logger = context.getLogger("org.foo.logback");
+
+
+    @After
+    public void tearDown() {
+
+        logger.setLevel(null);
+    }
+
+
+    @Test
+    public void sharesMBeanInfoBetweenLoggers() throws Exception {
+
+        LogbackJmxLogger first = new LogbackJmxLogger(logger);
+        LogbackJmxLogger second =
+                new LogbackJmxLogger(context.getLogger("org.bar"));
+
+        assertThat(first.getMBeanInfo(), is(sameInstance(second
+                .getMBeanInfo())));
+    }
+
+
+    @Test
+    public void exposesNameAndLevelThroughMBeanServer() throws Exception {
+
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:name=org.foo.logback");
+        server.registerMBean(new LogbackJmxLogger(logger), name);
+
+        assertThat(server.getAttribute(name, "Name"),
+                is((Object) "org.foo.logback"));
+        assertThat(server.getAttribute(name, "Level"), is((Object) ""));
+
+        server.setAttribute(name, new Attribute("Level", "WARN"));
+
+        assertThat(logger.getLevel(), is(Level.WARN));
+        assertThat(server.getAttribute(name, "Level"), is((Object) "WARN"));
+    }
+
+
+    @Test
+    public void ignoresUnknownLevel() throws Exception {
+
+        LogbackJmxLogger jmxLogger = new LogbackJmxLogger(logger);
+        jmxLogger.setLevel("ERROR");
+        jmxLogger.setLevel("FOO");
+
+        assertThat(logger.getLevel(), is(Level.ERROR));
+    }
+
+
+    @Test
+    public void setsLevelForDurationThroughMBeanServer() throws Exception {
+
+        Logger other = new LoggerContext().getLogger("org.foo.timed");
+        other.setLevel(Level.INFO);
+
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:name=org.foo.timed");
+        server.registerMBean(new LogbackJmxLogger(other), name);
+
+        Object previous =
+                server.invoke(name, "setLevelFor", new Object[] { "DEBUG",
+                        60L }, new String[] { String.class.getName(),
+                        long.class.getName() });
+
+        assertThat(previous, is((Object) "INFO"));
+        assertThat(other.getLevel(), is(Level.DEBUG));
+    }
+}
@@ -4,9 +4,13 @@ import static org.junit.Assert.*;
 
 import java.util.List;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
@@ -17,12 +21,16 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
  * @author Oliver Gierke
  */
 @RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
 @ContextConfiguration("classpath:logback-logger.xml")
 public class LogbackLoggerBeanDefinitionParserIntegrationTest {
 
     @Autowired
     List<LogbackJmxLogger> logger;
 
+    @Autowired
+    MBeanServer server;
+
 
     @Test
     public void testname() throws Exception {
@@ -30,4 +38,35 @@ public class LogbackLoggerBeanDefinitionParserIntegrationTest {
         assertNotNull(logger);
         assertFalse(logger.isEmpty());
     }
+
+
+    @Test
+    public void registersLoggersAsDynamicMBeans() throws Exception {
+
+        ObjectName name =
+                new ObjectName("Spring JMX loggers:name=org.springframework");
+
+        assertTrue(server.isRegistered(name));
+        assertEquals(LogbackJmxLogger.class.getName(), server
+                .getMBeanInfo(name).getClassName());
+        assertEquals("INFO", server.getAttribute(name, "Level"));
+    }
+
+
+    @Test
+    public void registersLevelsMBean() throws Exception {
+
+        assertTrue(server.isRegistered(new ObjectName(
+                "Spring JMX loggers:service=Levels,backend=Logback")));
+    }
+
+
+    @Test
+    public void registersLoggerTreeMBean() throws Exception {
+
+        ObjectName name =
+                new ObjectName("Spring JMX loggers:service=Loggers,backend=Logback");
+
+        assertEquals(logger.size(), server.getAttribute(name, "LoggerCount"));
+    }
 }
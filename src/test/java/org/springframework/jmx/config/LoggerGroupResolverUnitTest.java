@@ -0,0 +1,71 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link LoggerGroupResolver}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LoggerGroupResolverUnitTest {
+
+    List<String> created = new ArrayList<String>();
+
+    LoggerGroupResolver<String, String> resolver =
+            new LoggerGroupResolver<String, String>(Arrays.asList("org",
+                    "org.foo")) {
+
+                @Override
+                protected String getBasePackage(String basePackage) {
+
+                    return basePackage;
+                }
+
+
+                @Override
+                protected String createGroup(String group, String basePackage) {
+
+                    created.add(group);
+                    return basePackage + ":" + group;
+                }
+            };
+
+
+    @Test
+    public void resolvesGroupOfLongestMatchingBasePackage() throws Exception {
+
+        assertThat(resolver.resolve("org.foo.bar.Bar"), is("org.foo:org.foo.bar"));
+        assertThat(resolver.resolve("org.fooz.Bar"), is("org:org.fooz"));
+        assertThat(resolver.getGroup("org.foo.bar.Bar"), is("org.foo.bar"));
+    }
+
+
+    @Test
+    public void returnsNullForLoggersOutsideBasePackages() throws Exception {
+
+        assertThat(resolver.resolve("com.foo.Bar"), is(nullValue()));
+        assertThat(resolver.getGroup("com.foo.Bar"), is(nullValue()));
+        assertThat(resolver.getGroups().isEmpty(), is(true));
+    }
+
+
+    @Test
+    public void createsValueOncePerGroup() throws Exception {
+
+        resolver.resolve("org.foo.bar.Bar");
+        resolver.resolve("org.foo.bar.Baz");
+        resolver.resolve("org.foo.bar");
+
+        assertThat(created, is(Arrays.asList("org.foo.bar")));
+        assertThat(resolver.get("org.foo.bar"), is("org.foo:org.foo.bar"));
+        assertThat(resolver.getGroups().keySet(), hasItem("org.foo.bar"));
+    }
+}
@@ -0,0 +1,97 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+
+/**
+ * Unit tests for {@link LoggerNameIndex}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LoggerNameIndexUnitTest {
+
+    LoggerNameIndex index = new LoggerNameIndex(Arrays.asList("org.foo",
+            "org.foo.bar.FooBar", "org.foo.bar.baz.Baz", "org.foobar.Foo",
+            "com.acme.Acme"));
+
+
+    @Test
+    public void returnsLoggersBelowBasePackageOnly() throws Exception {
+
+        Collection<String> result = index.getSourcesBelow("org.foo", 3);
+
+        assertThat(result.size(), is(3));
+        assertThat(result, hasItems("org.foo", "org.foo.bar.FooBar",
+                "org.foo.bar.baz.Baz"));
+    }
+
+
+    @Test
+    public void doesNotMatchPartialSegments() throws Exception {
+
+        assertThat(index.getSourcesBelow("org.foo", 3),
+                not(hasItem("org.foobar.Foo")));
+        assertThat(index.getSourcesBelow("org.fo", 3).isEmpty(), is(true));
+    }
+
+
+    @Test
+    public void representsDeeperLoggersBySingleSource() throws Exception {
+
+        Collection<String> result = index.getSourcesBelow("org.foo", 1);
+
+        assertThat(result.size(), is(2));
+        assertThat(result, hasItem("org.foo"));
+        assertThat(result, hasItem(startsWith("org.foo.bar.")));
+    }
+
+
+    @Test
+    public void returnsEmptyResultForUnknownPackage() throws Exception {
+
+        assertThat(index.getSourcesBelow("net.unknown", 2).isEmpty(), is(true));
+    }
+
+
+    @Test
+    public void loadsIndexFiles() throws Exception {
+
+        LoggerNameIndex index =
+                LoggerNameIndex.load(new ByteArrayResource(
+                        "# comment\norg.foo.bar.FooBar\n\n org.foo.Foo \n"
+                                .getBytes("UTF-8")), new ByteArrayResource(
+                        "com.acme.Acme".getBytes("UTF-8")));
+
+        assertThat(index.getSourcesBelow("org.foo", 2), hasItems(
+                "org.foo.bar.FooBar", "org.foo.Foo"));
+        assertThat(index.getSourcesBelow("com.acme", 1),
+                hasItem("com.acme.Acme"));
+        assertTrue(index.getSourcesBelow("#", 1).isEmpty());
+    }
+
+
+    @Test
+    public void producesSameLoggersAsFullScan() throws Exception {
+
+        LoggerSelector selector = new LoggerSelector("org.foo", 1, true);
+        JmxLoggers fromIndex = new JmxLoggers();
+
+        for (String source : index.getSourcesBelow("org.foo", 1)) {
+            for (JmxLogger logger : selector.getLoggersFor(source, fromIndex)) {
+                fromIndex.add(logger);
+            }
+        }
+
+        assertTrue(selector.getLoggersFor("org.foo.bar.baz.Baz", fromIndex)
+                .isEmpty());
+        assertTrue(selector.getLoggersFor("org.foo.bar.FooBar", fromIndex)
+                .isEmpty());
+    }
+}
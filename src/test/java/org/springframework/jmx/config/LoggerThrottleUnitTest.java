@@ -0,0 +1,209 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link LoggerThrottle}.
+ * 
+ * @author Oliver Gierke
+ */
+public class LoggerThrottleUnitTest {
+
+    private static final int EVENTS = 100000;
+
+    LoggerContext context = new LoggerContext();
+    LoggerThrottle throttle = new LoggerThrottle(context,
+            Arrays.asList(new ThrottleRule("org.foo", 10, "WARN", 2)),
+            new TimerWheel(1000, 8));
+    Logger logger = context.getLogger("org.foo.bar.Bar");
+    List<Notification> notifications = new ArrayList<Notification>();
+
+
+    @Before
+    public void setUp() {
+
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        context.addTurboFilter(throttle.getFilter());
+
+        throttle.addNotificationListener(new NotificationListener() {
+
+            @Override
+            public void handleNotification(Notification notification,
+                    Object handback) {
+
+                notifications.add(notification);
+            }
+        }, null, null);
+    }
+
+
+    @Test
+    public void throttlesGroupExceedingBudget() throws Exception {
+
+        log(100);
+        throttle.check();
+
+        assertThat(context.getLogger("org.foo.bar").getLevel(), is(Level.WARN));
+        assertThat(throttle.getThrottledGroups(),
+                is(new String[] { "org.foo.bar" }));
+        assertThat(throttle.getRates().get("org.foo.bar"), is(100L));
+        assertThat(notifications.size(), is(1));
+        assertThat(notifications.get(0).getType(), is(LoggerThrottle.THROTTLED));
+        assertThat(notifications.get(0).getUserData(), is((Object) "org.foo.bar"));
+    }
+
+
+    @Test
+    public void doesNotThrottleBasePackageLogger() throws Exception {
+
+        for (int i = 0; i < 100; i++) {
+            context.getLogger("org.foo").info("info");
+        }
+
+        throttle.check();
+
+        assertThat(throttle.getRates().get("org.foo"), is(100L));
+        assertThat(context.getLogger("org.foo").getLevel(), is(nullValue()));
+        assertThat(throttle.getThrottledGroups().length, is(0));
+        assertTrue(notifications.isEmpty());
+    }
+
+
+    @Test
+    public void doesNotThrottleGroupWithinBudget() throws Exception {
+
+        log(5);
+        throttle.check();
+        context.getLogger("org.foo.baz.Baz").info("info");
+        throttle.check();
+
+        assertThat(throttle.getThrottledGroups().length, is(0));
+        assertThat(throttle.getRates().keySet(), hasItems("org.foo.bar",
+                "org.foo.baz"));
+        assertTrue(notifications.isEmpty());
+    }
+
+
+    @Test
+    public void keepsCountingEventsSuppressedByThrottling() throws Exception {
+
+        log(100);
+        throttle.check();
+        log(100);
+        throttle.check();
+
+        assertThat(throttle.getRates().get("org.foo.bar"), is(100L));
+        assertThat(throttle.getThrottledGroups().length, is(1));
+    }
+
+
+    @Test
+    public void restoresLevelAfterCoolDown() throws Exception {
+
+        log(100);
+        throttle.check();
+
+        for (int i = 0; i <= LoggerThrottle.WINDOW_SECONDS + 2; i++) {
+            throttle.check();
+        }
+
+        assertThat(context.getLogger("org.foo.bar").getLevel(),
+                is(nullValue()));
+        assertThat(throttle.getThrottledGroups().length, is(0));
+        assertThat(notifications.size(), is(2));
+        assertThat(notifications.get(1).getType(), is(LoggerThrottle.RESTORED));
+    }
+
+
+    @Test
+    public void doesNotRestoreLevelChangedInTheMeantime() throws Exception {
+
+        log(100);
+        throttle.check();
+        context.getLogger("org.foo.bar").setLevel(Level.ERROR);
+
+        for (int i = 0; i <= LoggerThrottle.WINDOW_SECONDS + 2; i++) {
+            throttle.check();
+        }
+
+        assertThat(context.getLogger("org.foo.bar").getLevel(),
+                is(Level.ERROR));
+        assertThat(throttle.getThrottledGroups().length, is(0));
+        assertThat(notifications.size(), is(1));
+        assertThat(notifications.get(0).getType(), is(LoggerThrottle.THROTTLED));
+    }
+
+
+    @Test
+    public void ignoresLoggersOutsideBasePackage() throws Exception {
+
+        for (int i = 0; i < 100; i++) {
+            context.getLogger("org.foobar.Foo").info("info");
+        }
+
+        throttle.check();
+
+        assertTrue(throttle.getRates().isEmpty());
+    }
+
+
+    @Test
+    public void countsEventsWithoutAllocating() throws Exception {
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean allocations =
+                (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        EventRateTurboFilter filter = throttle.getFilter();
+
+        // warm up
+        for (int i = 0; i < EVENTS; i++) {
+            filter.decide(null, logger, Level.INFO, "info", null, null);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < EVENTS; i++) {
+            filter.decide(null, logger, Level.INFO, "info", null, null);
+        }
+
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        throttle.check();
+
+        assertThat(throttle.getRates().get("org.foo.bar"), is(2L * EVENTS));
+        assertThat(allocated, is(lessThan((long) EVENTS)));
+    }
+
+
+    private void log(int events) {
+
+        for (int i = 0; i < events; i++) {
+            logger.info("info");
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import javax.management.MBeanException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+
+/**
+ * Unit tests for {@link MdcLevelTurboFilter} and MDC levels set through
+ * {@link LogbackJmxLogger}.
+ * 
+ * @author Oliver Gierke
+ */
+public class MdcLevelTurboFilterUnitTest {
+
+    private static final int EVENTS = 100000;
+
+    LoggerContext context = new LoggerContext();
+    ListAppender<ILoggingEvent> appender = new ListAppender<ILoggingEvent>();
+    Logger logger = context.getLogger("org.foo.Foo");
+    LogbackJmxLogger mbean = new LogbackJmxLogger(context.getLogger("org.foo"));
+
+
+    @Before
+    public void setUp() {
+
+        appender.setContext(context);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        context.getLogger("org.foo").setLevel(Level.INFO);
+    }
+
+
+    @After
+    public void tearDown() {
+
+        MDC.clear();
+    }
+
+
+    @Test
+    public void enablesLevelForMatchingMdcValueOnly() throws Exception {
+
+        assertThat(mbean.setMdcLevel("tenant=acme", "DEBUG"), is(""));
+
+        MDC.put("tenant", "acme");
+        logger.debug("acme");
+        logger.trace("acme");
+        assertTrue(logger.isDebugEnabled());
+
+        MDC.put("tenant", "other");
+        logger.debug("other");
+        assertFalse(logger.isDebugEnabled());
+
+        MDC.remove("tenant");
+        logger.debug("none");
+
+        assertThat(appender.list.size(), is(1));
+        assertThat(appender.list.get(0).getMessage(), is("acme"));
+        assertThat(context.getLogger("org.foo").getLevel(), is(Level.INFO));
+    }
+
+
+    @Test
+    public void appliesMdcLevelsOfClosestLogger() throws Exception {
+
+        mbean.setMdcLevel("tenant=acme", "DEBUG");
+        new LogbackJmxLogger(logger).setMdcLevel("tenant=other", "DEBUG");
+
+        MDC.put("tenant", "acme");
+        assertTrue(context.getLogger("org.foo.Bar").isDebugEnabled());
+        assertFalse(logger.isDebugEnabled());
+    }
+
+
+    @Test
+    public void removesMdcLevels() throws Exception {
+
+        mbean.setMdcLevel("tenant=acme", "DEBUG");
+        mbean.setMdcLevel("user=jdoe", "TRACE");
+
+        assertThat(mbean.getMdcLevels(), is(new String[] {
+                "tenant=acme:DEBUG", "user=jdoe:TRACE" }));
+
+        assertThat(mbean.setMdcLevel("tenant=acme", ""), is("DEBUG"));
+        assertThat(mbean.getMdcLevels(),
+                is(new String[] { "user=jdoe:TRACE" }));
+
+        MDC.put("tenant", "acme");
+        assertFalse(logger.isDebugEnabled());
+    }
+
+
+    @Test
+    public void setsMdcLevelsThroughMBeanOperations() throws Exception {
+
+        mbean.invoke(AbstractJmxLogger.SET_MDC_LEVEL, new Object[] {
+                "tenant=acme", "DEBUG" }, null);
+
+        assertThat((String[]) mbean.invoke(AbstractJmxLogger.GET_MDC_LEVELS,
+                new Object[0], null),
+                is(new String[] { "tenant=acme:DEBUG" }));
+    }
+
+
+    @Test(expected = MBeanException.class)
+    public void rejectsUnknownLevel() throws Exception {
+
+        mbean.invoke(AbstractJmxLogger.SET_MDC_LEVEL, new Object[] {
+                "tenant=acme", "FOO" }, null);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMdcWithoutValue() throws Exception {
+
+        mbean.setMdcLevel("tenant", "DEBUG");
+    }
+
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void doesNotSupportMdcLevelsForLog4J() throws Exception {
+
+        new Log4JLoggerBackend().setMdcLevel("org.foo", "tenant", "acme",
+                "DEBUG");
+    }
+
+
+    @Test
+    public void decidesWithoutAllocating() throws Exception {
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean allocations =
+                (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        MdcLevelTurboFilter filter = MdcLevelTurboFilter.getInstance(context);
+        filter.set("org.foo", "tenant", "acme", Level.DEBUG);
+        MDC.put("tenant", "other");
+
+        // warm up
+        for (int i = 0; i < EVENTS; i++) {
+            filter.decide(null, logger, Level.DEBUG, "debug", null, null);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < EVENTS; i++) {
+            filter.decide(null, logger, Level.DEBUG, "debug", null, null);
+        }
+
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(allocated, is(lessThan((long) EVENTS)));
+    }
+}
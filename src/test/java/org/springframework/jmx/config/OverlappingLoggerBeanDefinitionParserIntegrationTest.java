@@ -0,0 +1,106 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jmx.export.annotation.AnnotationMBeanExporter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} using multiple
+ * elements with overlapping logger hierarchies.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-overlapping-logger.xml")
+public class OverlappingLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    ApplicationContext context;
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void sharesSingleExporter() throws Exception {
+
+        Map<String, AnnotationMBeanExporter> exporters =
+                context.getBeansOfType(AnnotationMBeanExporter.class);
+
+        assertThat(exporters.size(), is(1));
+        assertThat(exporters.keySet(),
+                hasItem(JmxLoggerBeanDefinitionParser.EXPORTER_BEAN_NAME));
+    }
+
+
+    @Test
+    public void exposesOverlappingLoggersOnce() throws Exception {
+
+        assertThat(server.queryNames(
+                new ObjectName("Spring JMX loggers:name=org.springframework.beans,*"),
+                null).size(), is(1));
+        assertThat(server.queryNames(
+                new ObjectName("Spring JMX loggers:name=org.springframework.beans.factory,*"),
+                null).size(), is(1));
+    }
+
+
+    @Test
+    public void exposesLoggersOfEagerlyExposedGroupDirectly() throws Exception {
+
+        assertThat(count("zz.eager.a"), is(1));
+        assertThat(count("zz.eager.a.b"), is(1));
+    }
+
+
+    @Test
+    public void mergesOverlappingLazyGroups() throws Exception {
+
+        assertThat(count("zz.twice.a"), is(1));
+        assertThat((String[]) server.getAttribute(new ObjectName(
+                new JmxLogger("zz.twice.a", "zz.twice.a").getJmxName()),
+                "Loggers"), is(new String[] { "zz.twice.a.b", "zz.twice.a.b.c" }));
+    }
+
+
+    @Test
+    public void exposesNestedLoggersOfLazyGroupOnce() throws Exception {
+
+        ObjectName group =
+                new ObjectName(new JmxLogger("zz.lazy.a", "zz.lazy.a")
+                        .getJmxName());
+
+        for (String logger : (String[]) server
+                .getAttribute(group, "Loggers")) {
+
+            server.invoke(group, "expose", new Object[] { logger },
+                    new String[] { String.class.getName() });
+            assertThat(count(logger), is(1));
+        }
+
+        assertThat(count("zz.lazy.a.b.c"), is(1));
+    }
+
+
+    private int count(String logger) throws Exception {
+
+        return server.queryNames(
+                new ObjectName(JmxLogger.OVERALL_NAME + ":name=" + logger
+                        + ",*"), null).size();
+    }
+}
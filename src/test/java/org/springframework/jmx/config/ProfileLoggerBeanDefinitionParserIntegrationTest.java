@@ -0,0 +1,60 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} defining level
+ * profiles.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-profile-logger.xml")
+public class ProfileLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void activatesProfileDefinedInXml() throws Exception {
+
+        JmxLoggerLevelsMXBean levels =
+                JMX.newMXBeanProxy(server, new ObjectName(
+                        JmxLogger.OVERALL_NAME
+                                + ":service=Levels,backend=Logback"),
+                        JmxLoggerLevelsMXBean.class);
+        LoggerContext context =
+                (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        assertThat(levels.getProfiles().get("incident").size(), is(2));
+
+        levels.activateProfile("incident");
+
+        assertThat(context.getLogger("org.springframework.profile.nested")
+                .getLevel(), is(Level.TRACE));
+
+        levels.deactivateProfile("incident");
+
+        assertThat(context.getLogger("org.springframework.profile")
+                .getLevel(), is(nullValue()));
+    }
+}
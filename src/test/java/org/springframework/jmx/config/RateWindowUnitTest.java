@@ -0,0 +1,60 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link RateWindow}.
+ * 
+ * @author Oliver Gierke
+ */
+public class RateWindowUnitTest {
+
+    RateWindow window = new RateWindow(3);
+
+
+    @Test
+    public void returnsNoRateForSingleSnapshot() throws Exception {
+
+        assertThat(window.record(100), is(0L));
+    }
+
+
+    @Test
+    public void averagesRateOverRecordedSeconds() throws Exception {
+
+        window.record(0);
+        assertThat(window.record(10), is(10L));
+        assertThat(window.record(30), is(15L));
+    }
+
+
+    @Test
+    public void dropsSnapshotsOutsideWindow() throws Exception {
+
+        window.record(0);
+        window.record(90);
+        window.record(90);
+        window.record(90);
+
+        assertThat(window.getRate(), is(30L));
+        assertThat(window.record(90), is(0L));
+    }
+
+
+    @Test
+    public void countsEventsWithinWindow() throws Exception {
+
+        window.record(10);
+        window.record(20);
+        window.record(40);
+        window.record(80);
+
+        assertThat(window.getCount(), is(70L));
+        assertThat(window.record(80), is(20L));
+        assertThat(window.getCount(), is(60L));
+    }
+}
@@ -0,0 +1,118 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+
+
+/**
+ * Unit tests for {@link RecentEventsAppender}.
+ * 
+ * @author Oliver Gierke
+ */
+public class RecentEventsAppenderUnitTest {
+
+    LoggerContext context = new LoggerContext();
+    RecentEventsAppender appender = new RecentEventsAppender(context,
+            Arrays.asList(new RecentEventsRule("org.foo", 4096),
+                    new RecentEventsRule("org.foo.bar", 4096)));
+
+
+    @Before
+    public void setUp() {
+
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        appender.afterPropertiesSet();
+    }
+
+
+    @After
+    public void tearDown() {
+
+        appender.destroy();
+    }
+
+
+    @Test
+    public void keepsEventsPerGroup() throws Exception {
+
+        context.getLogger("org.foo.bar.Bar").info("Bar {}", 1);
+        context.getLogger("org.foo.bar.baz.Baz").warn("Baz");
+        context.getLogger("org.foo.qux.Qux").info("Qux");
+        context.getLogger("org.foobar.Foo").info("Foobar");
+        context.getLogger("org.foo.bar.Bar").debug("Disabled");
+
+        String[] bar =
+                new LogbackJmxLogger(context.getLogger("org.foo.bar.baz"))
+                        .tail(10);
+
+        assertThat(bar.length, is(1));
+        assertThat(bar[0], endsWith("WARN  org.foo.bar.baz.Baz - Baz"));
+
+        // groups of the nested base package
+        assertThat(new LogbackJmxLogger(context.getLogger("org.foo.bar.Bar"))
+                .tail(10)[0], endsWith("org.foo.bar.Bar - Bar 1"));
+        assertThat(new LogbackJmxLogger(context.getLogger("org.foo.bar"))
+                .tail(10).length, is(0));
+        assertThat(new LogbackJmxLogger(context.getLogger("org.foo.qux"))
+                .tail(10).length, is(1));
+        assertThat(new LogbackJmxLogger(context.getLogger("org.foobar"))
+                .tail(10).length, is(0));
+    }
+
+
+    @Test
+    public void attachesToOutermostBaseLoggersOnly() throws Exception {
+
+        assertThat(context.getLogger("org.foo").getAppender(appender.getName()),
+                is(notNullValue()));
+        assertThat(context.getLogger("org.foo.bar").getAppender(
+                appender.getName()), is(nullValue()));
+    }
+
+
+    @Test
+    public void exposesTailOperationThroughMBeanServer() throws Exception {
+
+        context.getLogger("org.foo.qux.Qux").info("Qux");
+
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName("test:name=org.foo.qux");
+        server.registerMBean(new LogbackJmxLogger(context
+                .getLogger("org.foo.qux")), name);
+
+        String[] result =
+                (String[]) server.invoke(name, "tail", new Object[] { 5 },
+                        new String[] { int.class.getName() });
+
+        assertThat(result.length, is(1));
+        assertThat(result[0], endsWith("Qux"));
+    }
+
+
+    @Test
+    public void detachesFromLoggersOnDestroy() throws Exception {
+
+        appender.destroy();
+
+        assertThat(context.getLogger("org.foo").getAppender(appender.getName()),
+                is(nullValue()));
+        assertThat(new LogbackJmxLogger(context.getLogger("org.foo.qux"))
+                .tail(10).length, is(0));
+
+        appender.afterPropertiesSet();
+    }
+}
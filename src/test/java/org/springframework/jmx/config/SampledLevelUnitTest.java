@@ -0,0 +1,101 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+
+
+/**
+ * Unit tests for {@link SampledLevel}.
+ * 
+ * @author Oliver Gierke
+ */
+public class SampledLevelUnitTest {
+
+    @Test
+    public void parsesPercentageAndRate() throws Exception {
+
+        SampledLevel percentage = SampledLevel.parse("debug@1%");
+
+        assertThat(percentage.getLevel(), is(Level.DEBUG));
+        assertThat(percentage.toString(), is("DEBUG@1%"));
+        assertThat(SampledLevel.parse("TRACE@10/s").getLevel(), is(Level.TRACE));
+        assertThat(SampledLevel.parse("DEBUG@0.5%"), is(notNullValue()));
+    }
+
+
+    @Test
+    public void rejectsInvalidSpecifications() throws Exception {
+
+        assertThat(SampledLevel.parse("DEBUG"), is(nullValue()));
+        assertThat(SampledLevel.parse("FOO@1%"), is(nullValue()));
+        assertThat(SampledLevel.parse("DEBUG@0%"), is(nullValue()));
+        assertThat(SampledLevel.parse("DEBUG@101%"), is(nullValue()));
+        assertThat(SampledLevel.parse("DEBUG@1.5/s"), is(nullValue()));
+        assertThat(SampledLevel.parse("DEBUG@0.00001%"), is(nullValue()));
+        assertThat(SampledLevel.parse(null), is(nullValue()));
+    }
+
+
+    @Test
+    public void letsEveryNthEventPassForPercentage() throws Exception {
+
+        SampledLevel level = SampledLevel.parse("DEBUG@10%");
+        int passed = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            if (level.sample()) {
+                passed++;
+            }
+        }
+
+        assertThat(passed, is(100));
+    }
+
+
+    @Test
+    public void appliesPercentagesExactly() throws Exception {
+
+        assertThat(sample("DEBUG@75%", 1000), is(750));
+        assertThat(sample("DEBUG@60%", 1000), is(600));
+        assertThat(sample("DEBUG@30%", 1000), is(300));
+        assertThat(sample("DEBUG@100%", 1000), is(1000));
+        assertThat(sample("DEBUG@0.5%", 1000), is(5));
+    }
+
+
+    @Test
+    public void capsEventsPerSecond() throws Exception {
+
+        SampledLevel level = SampledLevel.parse("DEBUG@5/s");
+        int passed = 0;
+
+        for (int i = 0; i < 100; i++) {
+            if (level.sample()) {
+                passed++;
+            }
+        }
+
+        // the loop might span a second boundary
+        assertThat(passed, is(allOf(greaterThanOrEqualTo(5),
+                lessThanOrEqualTo(10))));
+    }
+
+
+    private static int sample(String spec, int events) {
+
+        SampledLevel level = SampledLevel.parse(spec);
+        int passed = 0;
+
+        for (int i = 0; i < events; i++) {
+            if (level.sample()) {
+                passed++;
+            }
+        }
+
+        return passed;
+    }
+}
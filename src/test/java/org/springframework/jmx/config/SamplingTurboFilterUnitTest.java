@@ -0,0 +1,126 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+
+/**
+ * Unit tests for {@link SamplingTurboFilter} and sampled levels set through
+ * {@link LogbackLoggerBackend}.
+ * 
+ * @author Oliver Gierke
+ */
+public class SamplingTurboFilterUnitTest {
+
+    LoggerContext context = new LoggerContext();
+    LogbackLoggerBackend backend = new LogbackLoggerBackend(context);
+    ListAppender<ILoggingEvent> appender = new ListAppender<ILoggingEvent>();
+    Logger logger = context.getLogger("org.foo.Foo");
+
+
+    @Before
+    public void setUp() {
+
+        appender.setContext(context);
+        appender.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+        context.getLogger("org.foo").setLevel(Level.INFO);
+    }
+
+
+    @Test
+    public void samplesEventsBelowEffectiveLevel() throws Exception {
+
+        assertTrue(backend.setLevel("org.foo", "DEBUG@10%"));
+
+        for (int i = 0; i < 100; i++) {
+            logger.debug("debug");
+            logger.trace("trace");
+        }
+
+        assertThat(appender.list.size(), is(10));
+        assertThat(backend.getLevel("org.foo"), is("DEBUG@10%"));
+        assertThat(context.getLogger("org.foo").getLevel(), is(Level.INFO));
+    }
+
+
+    @Test
+    public void enablesLevelChecksForSampledLevels() throws Exception {
+
+        assertFalse(logger.isDebugEnabled());
+
+        backend.setLevel("org.foo", "DEBUG@1/s");
+
+        assertTrue(logger.isDebugEnabled());
+        assertFalse(logger.isTraceEnabled());
+        assertTrue(appender.list.isEmpty());
+    }
+
+
+    @Test
+    public void plainLevelReplacesSampledOne() throws Exception {
+
+        backend.setLevel("org.foo", "DEBUG@100%");
+        backend.setLevel("org.foo", "WARN");
+
+        logger.debug("debug");
+        logger.info("info");
+
+        assertTrue(appender.list.isEmpty());
+        assertThat(backend.getLevel("org.foo"), is("WARN"));
+    }
+
+
+    @Test
+    public void validatesSampledLevels() throws Exception {
+
+        assertTrue(backend.isLevel("DEBUG@1%"));
+        assertFalse(backend.isLevel("DEBUG@x%"));
+        assertFalse(new Log4JLoggerBackend().isLevel("DEBUG@1%"));
+    }
+
+
+    @Test
+    public void explicitLevelOfNestedLoggerOverridesSampledLevel()
+            throws Exception {
+
+        backend.setLevel("org.foo", "DEBUG@100%");
+        context.getLogger("org.foo.bar").setLevel(Level.ERROR);
+
+        context.getLogger("org.foo.bar").warn("warn");
+        context.getLogger("org.foo.bar.Bar").info("info");
+        logger.debug("debug");
+
+        assertThat(appender.list.size(), is(1));
+        assertThat(appender.list.get(0).getLoggerName(), is("org.foo.Foo"));
+
+        context.getLogger("org.foo.bar").setLevel(null);
+        context.getLogger("org.foo.bar.Bar").info("info");
+
+        assertThat(appender.list.size(), is(2));
+    }
+
+
+    @Test
+    public void appliesSampledLevelSetOnRootLogger() throws Exception {
+
+        context.getLogger("org.foo").setLevel(null);
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+
+        assertTrue(backend.setLevel(Logger.ROOT_LOGGER_NAME, "DEBUG@100%"));
+
+        logger.debug("debug");
+        context.getLogger("com.bar.Bar").debug("debug");
+
+        assertThat(appender.list.size(), is(2));
+    }
+}
@@ -0,0 +1,73 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link StripedCounter}.
+ * 
+ * @author Oliver Gierke
+ */
+public class StripedCounterUnitTest {
+
+    private static final int THREADS = 4;
+    private static final int INCREMENTS = 100000;
+
+
+    @Test
+    public void countsConcurrentIncrements() throws Exception {
+
+        final StripedCounter counter = new StripedCounter(2);
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+
+        for (int i = 0; i < THREADS; i++) {
+
+            threads[i] = new Thread() {
+
+                @Override
+                public void run() {
+
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (int j = 0; j < INCREMENTS; j++) {
+                        counter.increment(1);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        start.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(counter.get(1), is((long) THREADS * INCREMENTS));
+        assertThat(counter.get(0), is(0L));
+    }
+
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsUnknownSlot() throws Exception {
+
+        new StripedCounter(2).get(2);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManySlots() throws Exception {
+
+        new StripedCounter(StripedCounter.MAX_SLOTS + 1);
+    }
+}
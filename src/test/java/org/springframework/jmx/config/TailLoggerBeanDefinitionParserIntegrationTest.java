@@ -0,0 +1,50 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} keeping the
+ * recent events of logger groups.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-tail-logger.xml")
+public class TailLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void returnsRecentEventsThroughGroupMBean() throws Exception {
+
+        ObjectName name =
+                new ObjectName(
+                        "Spring JMX loggers:name=org.springframework.test,type=org.springframework.test");
+
+        LoggerFactory.getLogger("org.springframework.test.Tail").warn(
+                "Recent event");
+
+        String[] result =
+                (String[]) server.invoke(name, "tail", new Object[] { 1 },
+                        new String[] { int.class.getName() });
+
+        assertThat(result.length, is(1));
+        assertThat(result[0], endsWith("org.springframework.test.Tail - Recent event"));
+    }
+}
@@ -0,0 +1,65 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} throttling
+ * logger groups exceeding their budget.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-throttled-logger.xml")
+public class ThrottledLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+    @Autowired
+    LoggerThrottle throttle;
+
+
+    @Test
+    public void registersThrottleMBeanPublishingNotifications() throws Exception {
+
+        ObjectName name =
+                new ObjectName(
+                        "Spring JMX loggers:service=Throttle,backend=Logback");
+
+        assertTrue(server.isRegistered(name));
+
+        MBeanNotificationInfo[] notifications =
+                server.getMBeanInfo(name).getNotifications();
+
+        assertThat(notifications.length, is(1));
+        assertThat(notifications[0].getNotifTypes(), is(new String[] {
+                LoggerThrottle.THROTTLED, LoggerThrottle.RESTORED }));
+    }
+
+
+    @Test
+    public void countsEventsOfAllElements() throws Exception {
+
+        org.slf4j.LoggerFactory.getLogger("org.throttled.alpha.Alpha").info(
+                "info");
+        org.slf4j.LoggerFactory.getLogger("org.limited.beta.Beta").warn("warn");
+        throttle.check();
+
+        assertThat(throttle.getRates().keySet(), hasItems(
+                "org.throttled.alpha", "org.limited.beta"));
+    }
+}
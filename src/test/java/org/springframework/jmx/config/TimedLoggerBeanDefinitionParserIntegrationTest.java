@@ -0,0 +1,55 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+
+/**
+ * Integration test for {@link JmxLoggerBeanDefinitionParser} timing the
+ * appenders of logger groups.
+ * 
+ * @author Oliver Gierke
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext
+@ContextConfiguration("classpath:logback-timed-logger.xml")
+public class TimedLoggerBeanDefinitionParserIntegrationTest {
+
+    @Autowired
+    MBeanServer server;
+
+
+    @Test
+    public void exposesAppenderLatencies() throws Exception {
+
+        ObjectName name =
+                new ObjectName(
+                        "Spring JMX loggers:name=org.springframework.test,type=org.springframework.test");
+
+        LoggerFactory.getLogger("org.springframework.test.Timed").warn(
+                "Timed event");
+
+        assertThat((Long) server.getAttribute(name, "AppendNanosMax"),
+                is(greaterThan(0L)));
+
+        CompositeData[] appenders =
+                (CompositeData[]) server.getAttribute(new ObjectName(
+                        JmxLogger.OVERALL_NAME
+                                + ":service=Appenders,backend=Logback"),
+                        "Appenders");
+
+        assertThat(appenders.length, is(greaterThan(0)));
+    }
+}
@@ -0,0 +1,91 @@
+package org.springframework.jmx.config;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+
+/**
+ * Unit tests for {@link TimerWheel}.
+ * 
+ * @author Oliver Gierke
+ */
+public class TimerWheelUnitTest {
+
+    TimerWheel timer = new TimerWheel(10, 8);
+
+
+    @Test
+    public void runsTasksAfterDelay() throws Exception {
+
+        long start = System.currentTimeMillis();
+        CountDownLatch latch = new CountDownLatch(2);
+
+        timer.schedule(new CountDown(latch), 50);
+        // exceeds a full rotation of the wheel
+        timer.schedule(new CountDown(latch), 200);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertThat(System.currentTimeMillis() - start,
+                is(greaterThanOrEqualTo(200L)));
+        assertThat(timer.getPending(), is(0));
+    }
+
+
+    @Test
+    public void doesNotRunCancelledTasks() throws Exception {
+
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        TimerWheel.Timeout timeout =
+                timer.schedule(new CountDown(cancelled), 50);
+        timer.schedule(new CountDown(latch), 100);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertThat(timer.getPending(), is(1));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertThat(cancelled.getCount(), is(1L));
+    }
+
+
+    @Test
+    public void reportsRemainingTime() throws Exception {
+
+        TimerWheel.Timeout timeout = timer.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+
+            }
+        }, 60000);
+
+        assertThat(timeout.getRemainingMillis(), is(allOf(
+                greaterThan(50000L), lessThanOrEqualTo(60000L))));
+        assertTrue(timeout.cancel());
+    }
+
+    private static class CountDown implements Runnable {
+
+        private final CountDownLatch latch;
+
+
+        public CountDown(CountDownLatch latch) {
+
+            this.latch = latch;
+        }
+
+
+        @Override
+        public void run() {
+
+            latch.countDown();
+        }
+    }
+}